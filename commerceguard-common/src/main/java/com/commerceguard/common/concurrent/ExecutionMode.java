@@ -0,0 +1,8 @@
+package com.commerceguard.common.concurrent;
+
+public enum ExecutionMode {
+    /** Fixed pool of platform threads. */
+    PLATFORM,
+    /** One virtual thread per task; requires a Java 21 runtime (build with {@code -P java21}). */
+    VIRTUAL
+}
@@ -0,0 +1,66 @@
+package com.commerceguard.common.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the executors used for blocking probe and pipeline work.
+ *
+ * <p>In {@link ExecutionMode#VIRTUAL} mode the executor is unbounded, so callers must
+ * cap concurrency with a semaphore sized to the resource actually being waited on
+ * (drivers, sockets, DB connections) rather than relying on the pool size. The virtual
+ * executor is looked up reflectively so the default Java 17 build still compiles.
+ */
+public final class TaskExecutors {
+
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    private TaskExecutors() {
+    }
+
+    public static ExecutorService newTaskExecutor(ExecutionMode mode, String name, int platformThreads) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(platformThreads, namedThreadFactory(name));
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_EXECUTOR == null) {
+            throw new IllegalStateException(
+                "Virtual thread execution requires Java 21; running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to create virtual thread executor", t);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static MethodHandle findVirtualExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.commerceguard.common.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes to the website registry after a given version, as served by
+ * {@code GET /api/v1/websites/changes?since=N}.
+ *
+ * <p>{@code updated} holds the current state of every site created or modified since then
+ * (including sites that were deactivated), {@code deleted} the ids of removed sites. Pass
+ * {@code version} as {@code since} on the next poll. When {@code reset} is set, the feed
+ * is a full snapshot and the caller should replace its state instead of applying a diff.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsiteChangeFeed {
+    private long version;
+    private boolean reset;
+    private boolean hasMore;
+    private List<Website> updated;
+    private List<Long> deleted;
+}
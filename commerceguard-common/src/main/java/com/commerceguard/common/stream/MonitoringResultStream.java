@@ -0,0 +1,18 @@
+package com.commerceguard.common.stream;
+
+import com.commerceguard.common.wire.MonitoringResultEncoder;
+
+/**
+ * Layout of the Redis stream that carries monitoring results from the monitoring service
+ * to the data pipeline. Each entry is one result, stored under a single field in the
+ * binary format written by {@link MonitoringResultEncoder}.
+ */
+public final class MonitoringResultStream {
+
+    public static final String DEFAULT_KEY = "commerceguard:monitoring-results";
+
+    public static final String PAYLOAD = "r";
+
+    private MonitoringResultStream() {
+    }
+}
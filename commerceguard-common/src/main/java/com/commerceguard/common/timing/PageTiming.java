@@ -0,0 +1,65 @@
+package com.commerceguard.common.timing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Where the time of a page load went, as reported by the browser's Navigation, Paint and
+ * Resource Timing APIs. See {@link PageTimingScript}.
+ *
+ * <p>All values are milliseconds. The fields from {@code redirect} to {@code rendering} are
+ * durations of consecutive phases of the main document load; the paint and DOM fields are
+ * offsets from navigation start. A field is {@code null} when the browser did not report it,
+ * e.g. no TLS on plain HTTP or no LCP outside Chromium.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageTiming {
+
+    /** ALPN protocol of the document request, e.g. {@code h2}. */
+    private String protocol;
+
+    private Long redirect;
+    private Long dnsLookup;
+    private Long tcpConnect;
+    private Long tlsHandshake;
+    /** Request sent until first response byte: server think time plus one round trip. */
+    private Long timeToFirstByte;
+    private Long contentDownload;
+    /** Last document byte until the end of the load event: parsing, scripts, subresources. */
+    private Long rendering;
+
+    private Long domContentLoaded;
+    private Long loadEvent;
+    private Long firstPaint;
+    private Long firstContentfulPaint;
+    private Long largestContentfulPaint;
+
+    /** Bytes of the main document over the network. */
+    private Long documentTransferSize;
+    private int resourceCount;
+    private long resourceTransferSize;
+    /** The slowest resources, slowest first; at most {@link PageTimingScript#MAX_RESOURCES}. */
+    private List<ResourceTiming> slowestResources;
+
+    /** Name of the phase that took longest, e.g. {@code ttfb}; {@code null} if none is known. */
+    public String slowestPhase() {
+        String[] names = {"redirect", "dns", "connect", "tls", "ttfb", "download", "rendering"};
+        Long[] values = {redirect, dnsLookup, tcpConnect, tlsHandshake, timeToFirstByte, contentDownload, rendering};
+        String slowest = null;
+        long longest = -1;
+        for (int i = 0; i < names.length; i++) {
+            if (values[i] != null && values[i] > longest) {
+                longest = values[i];
+                slowest = names[i];
+            }
+        }
+        return slowest;
+    }
+}
@@ -0,0 +1,156 @@
+package com.commerceguard.common.timing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser script that gathers the Navigation, Paint, Largest Contentful Paint and Resource
+ * Timing entries of the current page in one round trip, and the parser for its result.
+ *
+ * <p>Run it with Selenium's {@code executeAsyncScript(SCRIPT)} right after the page has
+ * loaded. It waits for the load event to finish if it has not yet, so {@code loadEventEnd}
+ * is set, and returns plain numbers that {@link #parse(Object)} turns into a {@link PageTiming}.
+ * Only the {@link #MAX_RESOURCES} slowest resources are sent back; large pages have hundreds.
+ */
+public final class PageTimingScript {
+
+    public static final int MAX_RESOURCES = 10;
+
+    public static final String SCRIPT = """
+        var done = arguments[arguments.length - 1];
+        function collect() {
+          var nav = performance.getEntriesByType('navigation')[0] || null;
+          var paints = {};
+          performance.getEntriesByType('paint').forEach(function (p) { paints[p.name] = p.startTime; });
+          var lcp = null;
+          try {
+            var observer = new PerformanceObserver(function () {});
+            observer.observe({type: 'largest-contentful-paint', buffered: true});
+            var entries = observer.takeRecords();
+            observer.disconnect();
+            if (entries.length) { lcp = entries[entries.length - 1].startTime; }
+          } catch (e) {}
+          var resources = performance.getEntriesByType('resource');
+          var transfer = 0;
+          resources.forEach(function (r) { transfer += r.transferSize || 0; });
+          var slowest = resources.slice()
+            .sort(function (a, b) { return b.duration - a.duration; })
+            .slice(0, %d)
+            .map(function (r) {
+              return {name: r.name, initiatorType: r.initiatorType, startTime: r.startTime,
+                      duration: r.duration, transferSize: r.transferSize || 0};
+            });
+          done({
+            navigation: nav && {
+              protocol: nav.nextHopProtocol,
+              redirectStart: nav.redirectStart, redirectEnd: nav.redirectEnd,
+              domainLookupStart: nav.domainLookupStart, domainLookupEnd: nav.domainLookupEnd,
+              connectStart: nav.connectStart, secureConnectionStart: nav.secureConnectionStart,
+              connectEnd: nav.connectEnd, requestStart: nav.requestStart,
+              responseStart: nav.responseStart, responseEnd: nav.responseEnd,
+              domContentLoadedEventEnd: nav.domContentLoadedEventEnd, loadEventEnd: nav.loadEventEnd,
+              transferSize: nav.transferSize
+            },
+            firstPaint: paints['first-paint'],
+            firstContentfulPaint: paints['first-contentful-paint'],
+            largestContentfulPaint: lcp,
+            resourceCount: resources.length,
+            resourceTransferSize: transfer,
+            resources: slowest
+          });
+        }
+        if (document.readyState === 'complete') {
+          setTimeout(collect, 0);
+        } else {
+          window.addEventListener('load', function () { setTimeout(collect, 0); });
+        }
+        """.formatted(MAX_RESOURCES);
+
+    private PageTimingScript() {
+    }
+
+    /**
+     * Converts the value returned by {@link #SCRIPT} as Selenium hands it back: maps, lists,
+     * {@code Long} and {@code Double}.
+     *
+     * @return the timing, or {@code null} if {@code result} is not a script result
+     */
+    public static PageTiming parse(Object result) {
+        if (!(result instanceof Map<?, ?> map)) {
+            return null;
+        }
+        PageTiming.PageTimingBuilder timing = PageTiming.builder()
+            .firstPaint(number(map.get("firstPaint")))
+            .firstContentfulPaint(number(map.get("firstContentfulPaint")))
+            .largestContentfulPaint(number(map.get("largestContentfulPaint")))
+            .resourceCount(orZero(number(map.get("resourceCount"))).intValue())
+            .resourceTransferSize(orZero(number(map.get("resourceTransferSize"))))
+            .slowestResources(resources(map.get("resources")));
+
+        if (map.get("navigation") instanceof Map<?, ?> nav) {
+            Long secureConnectionStart = number(nav.get("secureConnectionStart"));
+            boolean tls = secureConnectionStart != null && secureConnectionStart > 0;
+            Long connectEnd = number(nav.get("connectEnd"));
+            Long redirectEnd = number(nav.get("redirectEnd"));
+            Long responseEnd = number(nav.get("responseEnd"));
+            timing.protocol(nav.get("protocol") instanceof String protocol && !protocol.isEmpty() ? protocol : null)
+                .redirect(redirectEnd != null && redirectEnd > 0
+                    ? between(nav.get("redirectStart"), redirectEnd) : null)
+                .dnsLookup(between(nav.get("domainLookupStart"), nav.get("domainLookupEnd")))
+                .tcpConnect(between(nav.get("connectStart"), tls ? secureConnectionStart : connectEnd))
+                .tlsHandshake(tls ? between(secureConnectionStart, connectEnd) : null)
+                .timeToFirstByte(between(nav.get("requestStart"), nav.get("responseStart")))
+                .contentDownload(between(nav.get("responseStart"), responseEnd))
+                .rendering(between(responseEnd, nav.get("loadEventEnd")))
+                .domContentLoaded(positive(nav.get("domContentLoadedEventEnd")))
+                .loadEvent(positive(nav.get("loadEventEnd")))
+                .documentTransferSize(number(nav.get("transferSize")));
+        }
+        return timing.build();
+    }
+
+    private static List<ResourceTiming> resources(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return Collections.emptyList();
+        }
+        List<ResourceTiming> resources = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (item instanceof Map<?, ?> entry) {
+                resources.add(ResourceTiming.builder()
+                    .name(String.valueOf(entry.get("name")))
+                    .initiatorType(String.valueOf(entry.get("initiatorType")))
+                    .startTime(orZero(number(entry.get("startTime"))))
+                    .duration(orZero(number(entry.get("duration"))))
+                    .transferSize(orZero(number(entry.get("transferSize"))))
+                    .build());
+            }
+        }
+        return resources;
+    }
+
+    /** Duration between two timestamps, or {@code null} unless both were reached. */
+    private static Long between(Object start, Object end) {
+        Long from = number(start);
+        Long to = positive(end);
+        if (from == null || to == null || to < from) {
+            return null;
+        }
+        return to - from;
+    }
+
+    /** Timestamps of steps that have not happened are reported as 0. */
+    private static Long positive(Object value) {
+        Long millis = number(value);
+        return millis == null || millis <= 0 ? null : millis;
+    }
+
+    private static Long number(Object value) {
+        return value instanceof Number number ? Math.round(number.doubleValue()) : null;
+    }
+
+    private static Long orZero(Long value) {
+        return value == null ? 0L : value;
+    }
+}
@@ -0,0 +1,22 @@
+package com.commerceguard.common.timing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the page's resource waterfall. Times are milliseconds from navigation start.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceTiming {
+    private String name;
+    private String initiatorType;
+    private long startTime;
+    private long duration;
+    /** Bytes over the network; 0 for cached or cross-origin resources without Timing-Allow-Origin. */
+    private long transferSize;
+}
@@ -0,0 +1,120 @@
+package com.commerceguard.common.wire;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.commerceguard.common.wire.MonitoringResultLayout.*;
+
+/**
+ * Flyweight reader over a monitoring result in the {@link MonitoringResultLayout binary
+ * layout}. {@link #wrap} only validates the header and locates the variable fields; the
+ * accessors read straight from the wrapped array, and only the string accessors allocate.
+ * One decoder can be re-wrapped for every message. Not thread-safe.
+ */
+public final class MonitoringResultDecoder {
+
+    private byte[] buffer;
+    private int offset;
+    private int blockLength;
+    private int regionOffset;
+    private int errorOffset;
+
+    public MonitoringResultDecoder wrap(byte[] buffer) {
+        return wrap(buffer, 0, buffer.length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are truncated or were written by a newer,
+     *                                  incompatible version of the format
+     */
+    public MonitoringResultDecoder wrap(byte[] buffer, int offset, int length) {
+        if (length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Monitoring result truncated: " + length + " bytes");
+        }
+        int version = buffer[offset + VERSION_OFFSET];
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported monitoring result version " + version);
+        }
+        int blockLength = Short.toUnsignedInt((short) SHORT.get(buffer, offset + BLOCK_LENGTH_OFFSET));
+        if (blockLength < MIN_BLOCK_LENGTH) {
+            throw new IllegalArgumentException("Monitoring result block too short: " + blockLength + " bytes");
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = blockLength;
+        this.regionOffset = offset + HEADER_LENGTH + blockLength;
+        this.errorOffset = skipString(regionOffset, offset + length);
+        if (skipString(errorOffset, offset + length) > offset + length) {
+            throw new IllegalArgumentException("Monitoring result truncated: " + length + " bytes");
+        }
+        return this;
+    }
+
+    public int version() {
+        return buffer[offset + VERSION_OFFSET];
+    }
+
+    public long websiteId() {
+        return (long) LONG.get(buffer, offset + WEBSITE_ID_OFFSET);
+    }
+
+    public long timestamp() {
+        return (long) LONG.get(buffer, offset + TIMESTAMP_OFFSET);
+    }
+
+    public long responseTime() {
+        return (int) INT.get(buffer, offset + RESPONSE_TIME_OFFSET);
+    }
+
+    /** Time to first byte in millis, or -1 if the probe did not measure it. */
+    public long timeToFirstByte() {
+        return timing(TIME_TO_FIRST_BYTE_OFFSET);
+    }
+
+    /** DOMContentLoaded in millis since navigation start, or -1 if the probe did not measure it. */
+    public long domContentLoaded() {
+        return timing(DOM_CONTENT_LOADED_OFFSET);
+    }
+
+    /** Largest contentful paint in millis since navigation start, or -1 if the probe did not measure it. */
+    public long largestContentfulPaint() {
+        return timing(LARGEST_CONTENTFUL_PAINT_OFFSET);
+    }
+
+    public boolean isUp() {
+        return buffer[offset + STATUS_OFFSET] == STATUS_UP;
+    }
+
+    /** {@code "UP"}, {@code "DOWN"} or {@code null} for any other status. */
+    public String status() {
+        return MonitoringResultLayout.status(buffer[offset + STATUS_OFFSET]);
+    }
+
+    public String region() {
+        return getString(regionOffset);
+    }
+
+    public String error() {
+        return getString(errorOffset);
+    }
+
+    /** Blocks written before the timing fields existed end before them. */
+    private long timing(int fieldOffset) {
+        if (fieldOffset + 4 - HEADER_LENGTH > blockLength) {
+            return NO_TIMING;
+        }
+        return (int) INT.get(buffer, offset + fieldOffset);
+    }
+
+    private String getString(int position) {
+        int length = Short.toUnsignedInt((short) SHORT.get(buffer, position));
+        return length == ABSENT ? null : new String(buffer, position + 2, length, StandardCharsets.UTF_8);
+    }
+
+    private int skipString(int position, int limit) {
+        if (position + 2 > limit) {
+            throw new IllegalArgumentException("Monitoring result truncated at offset " + (position - offset));
+        }
+        int length = Short.toUnsignedInt((short) SHORT.get(buffer, position));
+        return position + 2 + (length == ABSENT ? 0 : length);
+    }
+}
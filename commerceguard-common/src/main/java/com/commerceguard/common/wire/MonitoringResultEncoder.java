@@ -0,0 +1,102 @@
+package com.commerceguard.common.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.commerceguard.common.wire.MonitoringResultLayout.*;
+
+/**
+ * Writes monitoring results in the {@link MonitoringResultLayout binary layout} into a
+ * buffer that is reused from one result to the next, so encoding allocates nothing once
+ * the buffer has grown to fit. Not thread-safe; keep one encoder per thread.
+ */
+public final class MonitoringResultEncoder {
+
+    private byte[] buffer = new byte[128];
+    private int length;
+
+    public MonitoringResultEncoder encode(long websiteId, String region, long timestamp, String status,
+                                          long responseTime, String error) {
+        return encode(websiteId, region, timestamp, status, responseTime, error, NO_TIMING, NO_TIMING, NO_TIMING);
+    }
+
+    /**
+     * Encodes a result with the key phases of its page load. Pass a negative value for a phase
+     * the probe did not measure.
+     */
+    public MonitoringResultEncoder encode(long websiteId, String region, long timestamp, String status,
+                                          long responseTime, String error, long timeToFirstByte,
+                                          long domContentLoaded, long largestContentfulPaint) {
+        String shippedError = error != null && error.length() > MAX_ERROR_CHARS
+            ? error.substring(0, MAX_ERROR_CHARS)
+            : error;
+        int position = HEADER_LENGTH + BLOCK_LENGTH;
+        ensureCapacity(position + maxLength(region) + maxLength(shippedError));
+
+        buffer[VERSION_OFFSET] = VERSION;
+        buffer[STATUS_OFFSET] = statusCode(status);
+        SHORT.set(buffer, BLOCK_LENGTH_OFFSET, (short) BLOCK_LENGTH);
+        LONG.set(buffer, WEBSITE_ID_OFFSET, websiteId);
+        LONG.set(buffer, TIMESTAMP_OFFSET, timestamp);
+        INT.set(buffer, RESPONSE_TIME_OFFSET, (int) Math.min(responseTime, Integer.MAX_VALUE));
+        INT.set(buffer, TIME_TO_FIRST_BYTE_OFFSET, timing(timeToFirstByte));
+        INT.set(buffer, DOM_CONTENT_LOADED_OFFSET, timing(domContentLoaded));
+        INT.set(buffer, LARGEST_CONTENTFUL_PAINT_OFFSET, timing(largestContentfulPaint));
+        position = putString(position, region);
+        length = putString(position, shippedError);
+        return this;
+    }
+
+    /** The encoder's buffer; only the first {@link #length()} bytes belong to the last result. */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private int putString(int position, String value) {
+        if (value == null) {
+            SHORT.set(buffer, position, (short) ABSENT);
+            return position + 2;
+        }
+        int start = position + 2;
+        int end = start;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // Not plain ASCII: let the JDK encoder handle it.
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(utf8, 0, buffer, start, utf8.length);
+                end = start + utf8.length;
+                break;
+            }
+            buffer[end++] = (byte) c;
+        }
+        if (end - start >= ABSENT) {
+            throw new IllegalArgumentException("String too long to encode: " + (end - start) + " bytes");
+        }
+        SHORT.set(buffer, position, (short) (end - start));
+        return end;
+    }
+
+    private static int timing(long millis) {
+        return millis < 0 ? NO_TIMING : (int) Math.min(millis, Integer.MAX_VALUE);
+    }
+
+    /** Upper bound of the encoded size of {@code value}, including its length prefix. */
+    private static int maxLength(String value) {
+        return 2 + (value == null ? 0 : value.length() * 3);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
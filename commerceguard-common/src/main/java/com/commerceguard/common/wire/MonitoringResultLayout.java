@@ -0,0 +1,84 @@
+package com.commerceguard.common.wire;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Binary layout of a monitoring result on the wire. All numbers are little-endian.
+ *
+ * <pre>
+ * offset  size  field
+ *      0     1  version
+ *      1     1  status (0 = other, 1 = UP, 2 = DOWN)
+ *      2     2  length of the fixed block that follows the header
+ *      4     8  website id
+ *     12     8  timestamp (epoch millis)
+ *     20     4  response time (millis)
+ *     24     4  time to first byte (millis, -1 when absent)
+ *     28     4  DOMContentLoaded (millis since navigation start, -1 when absent)
+ *     32     4  largest contentful paint (millis since navigation start, -1 when absent)
+ *     36        region: u16 length + UTF-8 bytes, 0xFFFF when absent
+ *               error:  u16 length + UTF-8 bytes, 0xFFFF when absent
+ * </pre>
+ *
+ * Fixed fields sit at fixed offsets so they can be read straight from the buffer. The
+ * block length lets a newer writer append fixed fields without breaking older readers,
+ * which skip to the variable part using the length they find. The page timing fields were
+ * appended that way; blocks written before them end after the response time, and readers
+ * report the timing of such results as absent.
+ */
+final class MonitoringResultLayout {
+
+    static final byte VERSION = 1;
+
+    static final int VERSION_OFFSET = 0;
+    static final int STATUS_OFFSET = 1;
+    static final int BLOCK_LENGTH_OFFSET = 2;
+    static final int HEADER_LENGTH = 4;
+
+    static final int WEBSITE_ID_OFFSET = HEADER_LENGTH;
+    static final int TIMESTAMP_OFFSET = WEBSITE_ID_OFFSET + 8;
+    static final int RESPONSE_TIME_OFFSET = TIMESTAMP_OFFSET + 8;
+    static final int TIME_TO_FIRST_BYTE_OFFSET = RESPONSE_TIME_OFFSET + 4;
+    static final int DOM_CONTENT_LOADED_OFFSET = TIME_TO_FIRST_BYTE_OFFSET + 4;
+    static final int LARGEST_CONTENTFUL_PAINT_OFFSET = DOM_CONTENT_LOADED_OFFSET + 4;
+    static final int BLOCK_LENGTH = LARGEST_CONTENTFUL_PAINT_OFFSET + 4 - HEADER_LENGTH;
+    /** Block length of the first writers, which had no page timing. */
+    static final int MIN_BLOCK_LENGTH = TIME_TO_FIRST_BYTE_OFFSET - HEADER_LENGTH;
+
+    static final int NO_TIMING = -1;
+
+    static final int ABSENT = 0xFFFF;
+    /** Errors can carry whole stack traces; only the start of the message is shipped. */
+    static final int MAX_ERROR_CHARS = 1024;
+
+    static final byte STATUS_OTHER = 0;
+    static final byte STATUS_UP = 1;
+    static final byte STATUS_DOWN = 2;
+
+    static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private MonitoringResultLayout() {
+    }
+
+    static byte statusCode(String status) {
+        if ("UP".equals(status)) {
+            return STATUS_UP;
+        }
+        if ("DOWN".equals(status)) {
+            return STATUS_DOWN;
+        }
+        return STATUS_OTHER;
+    }
+
+    static String status(byte code) {
+        return switch (code) {
+            case STATUS_UP -> "UP";
+            case STATUS_DOWN -> "DOWN";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.commerceguard.common.concurrent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fixed pools the services used to run on with virtual-thread-per-task
+ * executors, for a batch of probe-like tasks that block for {@code blockMillis}.
+ * Virtual mode is capped by a semaphore sized to the scarce resource ({@code resourcePermits}),
+ * the way the services cap it.
+ *
+ * <p>Throughput is batches per second; SampleTime reports the batch latency percentiles
+ * (p99 included). The VIRTUAL rows need a Java 21 runtime:
+ * {@code mvn -P java21,benchmark test-compile exec:exec -Djmh.args="TaskExecutorsBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TaskExecutorsBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutionMode mode;
+
+    /** Size of the fixed pool being replaced, e.g. 20 in WebsiteMonitoringService. */
+    @Param({"20"})
+    private int platformThreads;
+
+    /** Sockets/connections actually available to the batch. */
+    @Param({"200"})
+    private int resourcePermits;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    @Param({"20"})
+    private int blockMillis;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = TaskExecutors.newTaskExecutor(mode, "benchmark", platformThreads);
+        permits = new Semaphore(resourcePermits);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void blockingBatch() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            futures[i] = CompletableFuture.runAsync(this::blockingCall, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void blockingCall() {
+        try {
+            permits.acquire();
+            try {
+                Thread.sleep(blockMillis);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.commerceguard.common.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageTimingScriptTest {
+
+    @Test
+    void parse_ShouldSplitDocumentLoadIntoPhases() {
+        // Arrange
+        Map<String, Object> navigation = new HashMap<>();
+        navigation.put("protocol", "h2");
+        navigation.put("redirectStart", 0L);
+        navigation.put("redirectEnd", 0L);
+        navigation.put("domainLookupStart", 5.2);
+        navigation.put("domainLookupEnd", 25.7);
+        navigation.put("connectStart", 25.7);
+        navigation.put("secureConnectionStart", 40.1);
+        navigation.put("connectEnd", 90.0);
+        navigation.put("requestStart", 90.4);
+        navigation.put("responseStart", 890.0);
+        navigation.put("responseEnd", 950.0);
+        navigation.put("domContentLoadedEventEnd", 1200.0);
+        navigation.put("loadEventEnd", 1500.0);
+        navigation.put("transferSize", 30000L);
+        Map<String, Object> result = new HashMap<>();
+        result.put("navigation", navigation);
+        result.put("firstContentfulPaint", 1010.5);
+        result.put("largestContentfulPaint", 1400.0);
+        result.put("resourceCount", 42L);
+        result.put("resourceTransferSize", 900000L);
+        result.put("resources", List.of(Map.of("name", "https://cdn.example.com/app.js",
+            "initiatorType", "script", "startTime", 960.0, "duration", 300.0, "transferSize", 1000L)));
+
+        // Act
+        PageTiming timing = PageTimingScript.parse(result);
+
+        // Assert
+        assertEquals("h2", timing.getProtocol());
+        assertNull(timing.getRedirect());
+        assertEquals(21L, timing.getDnsLookup());
+        assertEquals(14L, timing.getTcpConnect());
+        assertEquals(50L, timing.getTlsHandshake());
+        assertEquals(800L, timing.getTimeToFirstByte());
+        assertEquals(60L, timing.getContentDownload());
+        assertEquals(550L, timing.getRendering());
+        assertEquals(1011L, timing.getFirstContentfulPaint());
+        assertEquals(1400L, timing.getLargestContentfulPaint());
+        assertNull(timing.getFirstPaint());
+        assertEquals(42, timing.getResourceCount());
+        assertEquals(300L, timing.getSlowestResources().get(0).getDuration());
+        assertEquals("ttfb", timing.slowestPhase());
+    }
+
+    @Test
+    void parse_WithoutNavigationEntry_ShouldLeavePhasesEmpty() {
+        // Act
+        PageTiming timing = PageTimingScript.parse(Map.of("resourceCount", 0L));
+
+        // Assert
+        assertNull(timing.getTimeToFirstByte());
+        assertNull(timing.slowestPhase());
+        assertTrue(timing.getSlowestResources().isEmpty());
+        assertNull(PageTimingScript.parse("not a script result"));
+    }
+}
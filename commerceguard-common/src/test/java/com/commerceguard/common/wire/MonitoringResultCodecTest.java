@@ -0,0 +1,119 @@
+package com.commerceguard.common.wire;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitoringResultCodecTest {
+
+    private final MonitoringResultEncoder encoder = new MonitoringResultEncoder();
+    private final MonitoringResultDecoder decoder = new MonitoringResultDecoder();
+
+    @Test
+    void decode_ShouldReadBackEncodedFields() {
+        // Arrange
+        encoder.encode(42L, "eu-west", 1_700_000_000_000L, "DOWN", 1234L, "Timeout apr\u00e8s 30s");
+
+        // Act
+        decoder.wrap(encoder.toByteArray());
+
+        // Assert
+        assertEquals(1, decoder.version());
+        assertEquals(42L, decoder.websiteId());
+        assertEquals("eu-west", decoder.region());
+        assertEquals(1_700_000_000_000L, decoder.timestamp());
+        assertFalse(decoder.isUp());
+        assertEquals("DOWN", decoder.status());
+        assertEquals(1234L, decoder.responseTime());
+        assertEquals("Timeout apr\u00e8s 30s", decoder.error());
+    }
+
+    @Test
+    void encode_ShouldReuseBufferAndKeepAbsentStringsNull() {
+        // Arrange
+        encoder.encode(1L, "us-east", 1L, "DOWN", 0L, "x".repeat(5000));
+        byte[] buffer = encoder.buffer();
+
+        // Act
+        encoder.encode(2L, null, 2L, "UP", 150L, null);
+        decoder.wrap(encoder.buffer(), 0, encoder.length());
+
+        // Assert
+        assertSame(buffer, encoder.buffer());
+        assertEquals(40, encoder.length());
+        assertEquals(2L, decoder.websiteId());
+        assertTrue(decoder.isUp());
+        assertNull(decoder.region());
+        assertNull(decoder.error());
+    }
+
+    @Test
+    void decode_ShouldReadBackPageTiming() {
+        // Arrange
+        encoder.encode(1L, "eu-west", 1L, "UP", 900L, null, 120L, 480L, -1L);
+
+        // Act
+        decoder.wrap(encoder.toByteArray());
+
+        // Assert
+        assertEquals(120L, decoder.timeToFirstByte());
+        assertEquals(480L, decoder.domContentLoaded());
+        assertEquals(-1L, decoder.largestContentfulPaint());
+        assertEquals("eu-west", decoder.region());
+    }
+
+    @Test
+    void wrap_WithBlockFromWriterWithoutTiming_ShouldReportTimingAbsent() {
+        // Arrange
+        byte[] current = encoder.encode(7L, "eu-west", 1L, "UP", 250L, null, 120L, 480L, 900L).toByteArray();
+        int timingLength = MonitoringResultLayout.BLOCK_LENGTH - MonitoringResultLayout.MIN_BLOCK_LENGTH;
+        byte[] old = new byte[current.length - timingLength];
+        int timingStart = MonitoringResultLayout.TIME_TO_FIRST_BYTE_OFFSET;
+        System.arraycopy(current, 0, old, 0, timingStart);
+        System.arraycopy(current, timingStart + timingLength, old, timingStart, old.length - timingStart);
+        old[MonitoringResultLayout.BLOCK_LENGTH_OFFSET] = (byte) MonitoringResultLayout.MIN_BLOCK_LENGTH;
+
+        // Act
+        decoder.wrap(old);
+
+        // Assert
+        assertEquals(7L, decoder.websiteId());
+        assertEquals(250L, decoder.responseTime());
+        assertEquals("eu-west", decoder.region());
+        assertEquals(-1L, decoder.timeToFirstByte());
+        assertEquals(-1L, decoder.largestContentfulPaint());
+    }
+
+    @Test
+    void encode_ShouldTruncateLongErrors() {
+        // Act
+        decoder.wrap(encoder.encode(1L, null, 1L, "DOWN", 0L, "x".repeat(5000)).toByteArray());
+
+        // Assert
+        assertEquals(MonitoringResultLayout.MAX_ERROR_CHARS, decoder.error().length());
+    }
+
+    @Test
+    void wrap_WithNewerVersion_ShouldThrowException() {
+        // Arrange
+        byte[] bytes = encoder.encode(1L, null, 1L, "UP", 1L, null).toByteArray();
+        bytes[0] = MonitoringResultLayout.VERSION + 1;
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> decoder.wrap(bytes));
+    }
+
+    @Test
+    void wrap_WithTruncatedBytes_ShouldThrowException() {
+        // Arrange
+        byte[] bytes = encoder.encode(1L, "eu-west", 1L, "UP", 1L, null).toByteArray();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> decoder.wrap(bytes, 0, bytes.length - 3));
+    }
+}
@@ -0,0 +1,8 @@
+package com.commerceguard.pipeline.alert;
+
+/**
+ * How the samples of one window are reduced before comparing with a threshold.
+ */
+public enum Aggregation {
+    LAST, AVG, MIN, MAX, COUNT, P50, P95, P99
+}
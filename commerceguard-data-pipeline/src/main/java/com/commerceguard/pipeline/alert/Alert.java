@@ -0,0 +1,28 @@
+package com.commerceguard.pipeline.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification about one alert, identified by its fingerprint (rule and site).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Alert {
+    private String fingerprint;
+    private String ruleId;
+    private String ruleName;
+    private Long websiteId;
+    private AlertState state;
+    private double value;
+    private double threshold;
+    private long startedAt;
+    /** When the alert resolved; {@code 0} while firing. */
+    private long resolvedAt;
+    /** Breaching evaluations since the alert started, including deduplicated ones. */
+    private long occurrences;
+}
@@ -0,0 +1,17 @@
+package com.commerceguard.pipeline.alert;
+
+/**
+ * Destination for alert notifications. Each channel is rate limited separately, and
+ * {@link #deliver} is never called concurrently for the same channel.
+ */
+public interface AlertChannel {
+
+    String getName();
+
+    void deliver(AlertGroup group) throws Exception;
+
+    /** Whether {@link #deliver} sends each alert of the group separately, costing a token each. */
+    default boolean isPerAlert() {
+        return false;
+    }
+}
@@ -0,0 +1,286 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Turns rule results into alert notifications.
+ *
+ * <p>Each alert is identified by a fingerprint of rule and site and moves through
+ * FIRING and RESOLVED. Only state changes (and a reminder every {@code repeatInterval}
+ * while firing) are notified; repeated breaches just increment the occurrence count, so
+ * a site that is down for ten minutes produces one FIRING and one RESOLVED notification.
+ *
+ * <p>State changes are queued and handled by a dispatcher thread, which groups those
+ * arriving within {@code groupWait} by rule. Every channel has its own token bucket and
+ * backlog; a group costs one token, or one per alert on {@link AlertChannel#isPerAlert()
+ * per-alert} channels. Groups that cannot be sent yet are merged by rule in the backlog, keeping the
+ * latest state per fingerprint, so an alert storm collapses into a few notifications
+ * instead of flooding the channel. Delivery runs on a separate executor with at most one
+ * delivery in flight per channel.
+ */
+@Slf4j
+@Component
+public class AlertDispatcher {
+
+    private final AlertDispatcherProperties properties;
+    private final Map<String, ActiveAlert> active = new ConcurrentHashMap<>();
+    private final BlockingQueue<Alert> changes;
+    private final List<ChannelState> channels = new ArrayList<>();
+    private final ExecutorService deliveryExecutor;
+    private final Thread dispatcher;
+
+    private final Counter deduplicatedCounter;
+    private final Counter droppedCounter;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running = true;
+
+    public AlertDispatcher(
+            List<AlertChannel> alertChannels,
+            AlertDispatcherProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${commerceguard.execution.mode:PLATFORM}") ExecutionMode executionMode) {
+        this.properties = properties;
+        this.changes = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        for (AlertChannel channel : alertChannels) {
+            channels.add(new ChannelState(channel,
+                new TokenBucket(properties.getChannelBurst(), properties.getChannelRatePerSecond())));
+        }
+        this.deliveryExecutor = TaskExecutors.newTaskExecutor(executionMode, "alert-delivery",
+            Math.max(1, alertChannels.size()));
+
+        this.deduplicatedCounter = meterRegistry.counter("commerceguard.alerts.deduplicated");
+        this.droppedCounter = meterRegistry.counter("commerceguard.alerts.dropped");
+        this.deliveredCounter = meterRegistry.counter("commerceguard.alerts.delivered");
+        this.failedCounter = meterRegistry.counter("commerceguard.alerts.delivery.failed");
+        Gauge.builder("commerceguard.alerts.firing", active, Map::size)
+            .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::dispatchLoop, "alert-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void onResults(List<RuleResult> results) {
+        for (RuleResult result : results) {
+            onResult(result);
+        }
+    }
+
+    public void onResult(RuleResult result) {
+        String fingerprint = result.rule().getId() + ":" + result.websiteId();
+        if (result.breached()) {
+            active.compute(fingerprint, (key, alert) -> {
+                if (alert == null) {
+                    alert = new ActiveAlert(result, fingerprint);
+                    enqueue(alert.toAlert(AlertState.FIRING, 0));
+                    return alert;
+                }
+                alert.occurrences++;
+                alert.value = result.value();
+                if (result.timestamp() - alert.lastNotifiedAt >= properties.getRepeatInterval().toMillis()) {
+                    alert.lastNotifiedAt = result.timestamp();
+                    enqueue(alert.toAlert(AlertState.FIRING, 0));
+                } else {
+                    deduplicatedCounter.increment();
+                }
+                return alert;
+            });
+        } else {
+            // Removed and queued atomically, so a concurrent breach cannot queue FIRING in between
+            // and then be overtaken by this RESOLVED in the backlog.
+            active.computeIfPresent(fingerprint, (key, alert) -> {
+                alert.value = result.value();
+                enqueue(alert.toAlert(AlertState.RESOLVED, result.timestamp()));
+                return null;
+            });
+        }
+    }
+
+    public int getFiringCount() {
+        return active.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        deliveryExecutor.shutdown();
+    }
+
+    private void enqueue(Alert alert) {
+        if (!changes.offer(alert)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void dispatchLoop() {
+        long groupWaitNanos = properties.getGroupWait().toNanos();
+        List<Alert> batch = new ArrayList<>();
+        while (running) {
+            try {
+                // Wake up regularly even without changes so rate-limited backlogs drain.
+                Alert first = changes.poll(Math.min(groupWaitNanos, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + groupWaitNanos;
+                    long remaining;
+                    while ((remaining = deadline - System.nanoTime()) > 0) {
+                        Alert next = changes.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        changes.drainTo(batch);
+                    }
+                    for (ChannelState channel : channels) {
+                        channel.addToBacklog(batch);
+                    }
+                    batch.clear();
+                }
+                for (ChannelState channel : channels) {
+                    channel.flush();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in alert dispatcher", e);
+            }
+        }
+    }
+
+    private static final class ActiveAlert {
+        private final String fingerprint;
+        private final AlertRule rule;
+        private final long websiteId;
+        private final long startedAt;
+        private long lastNotifiedAt;
+        private long occurrences = 1;
+        private double value;
+
+        ActiveAlert(RuleResult result, String fingerprint) {
+            this.fingerprint = fingerprint;
+            this.rule = result.rule();
+            this.websiteId = result.websiteId();
+            this.startedAt = result.timestamp();
+            this.lastNotifiedAt = result.timestamp();
+            this.value = result.value();
+        }
+
+        Alert toAlert(AlertState state, long resolvedAt) {
+            return Alert.builder()
+                .fingerprint(fingerprint)
+                .ruleId(rule.getId())
+                .ruleName(rule.getName())
+                .websiteId(websiteId)
+                .state(state)
+                .value(value)
+                .threshold(rule.getCondition().getThreshold())
+                .startedAt(startedAt)
+                .resolvedAt(resolvedAt)
+                .occurrences(occurrences)
+                .build();
+        }
+    }
+
+    /**
+     * Backlog and rate limit of one channel. Only touched by the dispatcher thread, apart
+     * from the in-flight flag.
+     */
+    private final class ChannelState {
+        private final AlertChannel channel;
+        private final TokenBucket bucket;
+        /** Pending alerts by rule, then by fingerprint; insertion order is delivery order. */
+        private final Map<String, Map<String, Alert>> backlog = new LinkedHashMap<>();
+        private final AtomicBoolean delivering = new AtomicBoolean();
+
+        ChannelState(AlertChannel channel, TokenBucket bucket) {
+            this.channel = channel;
+            this.bucket = bucket;
+        }
+
+        void addToBacklog(List<Alert> alerts) {
+            for (Alert alert : alerts) {
+                backlog.computeIfAbsent(alert.getRuleId(), rule -> new LinkedHashMap<>())
+                    .put(alert.getFingerprint(), alert);
+            }
+        }
+
+        void flush() {
+            if (backlog.isEmpty() || !delivering.compareAndSet(false, true)) {
+                return;
+            }
+            List<AlertGroup> groups = new ArrayList<>();
+            Iterator<Map.Entry<String, Map<String, Alert>>> pending = backlog.entrySet().iterator();
+            while (pending.hasNext()) {
+                Map.Entry<String, Map<String, Alert>> entry = pending.next();
+                Map<String, Alert> alerts = entry.getValue();
+                int sendable = channel.isPerAlert()
+                    ? bucket.tryAcquireUpTo(alerts.size())
+                    : bucket.tryAcquireUpTo(1) * alerts.size();
+                if (sendable == 0) {
+                    break;
+                }
+                // A per-alert channel may only afford part of a group; the rest stays queued.
+                List<Alert> sent = new ArrayList<>(sendable);
+                Iterator<Alert> alert = alerts.values().iterator();
+                while (sent.size() < sendable) {
+                    sent.add(alert.next());
+                    alert.remove();
+                }
+                groups.add(new AlertGroup(entry.getKey(), List.copyOf(sent)));
+                if (!alerts.isEmpty()) {
+                    break;
+                }
+                pending.remove();
+            }
+            if (groups.isEmpty()) {
+                delivering.set(false);
+                return;
+            }
+            try {
+                deliveryExecutor.execute(() -> deliver(groups));
+            } catch (RuntimeException e) {
+                delivering.set(false);
+                log.error("Unable to schedule delivery to alert channel {}", channel.getName(), e);
+            }
+        }
+
+        private void deliver(List<AlertGroup> groups) {
+            try {
+                for (AlertGroup group : groups) {
+                    try {
+                        channel.deliver(group);
+                        deliveredCounter.increment(group.alerts().size());
+                    } catch (Exception e) {
+                        failedCounter.increment(group.alerts().size());
+                        log.error("Failed to deliver {} alerts to channel {}", group.alerts().size(), channel.getName(), e);
+                    }
+                }
+            } finally {
+                delivering.set(false);
+            }
+        }
+    }
+}
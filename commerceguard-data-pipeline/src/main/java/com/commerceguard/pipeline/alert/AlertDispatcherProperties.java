@@ -0,0 +1,28 @@
+package com.commerceguard.pipeline.alert;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.alerts.dispatch")
+public class AlertDispatcherProperties {
+
+    /** State changes arriving within this window of each other are delivered as one group per rule. */
+    private Duration groupWait = Duration.ofSeconds(5);
+
+    /** A still-firing alert is re-sent after this long; breaches in between are only counted. */
+    private Duration repeatInterval = Duration.ofHours(1);
+
+    /** Notifications per second each channel accepts on average. */
+    private double channelRatePerSecond = 1;
+
+    /** Notifications a channel may receive in a burst. */
+    private int channelBurst = 10;
+
+    /** State changes waiting to be grouped; further ones are dropped during a storm. */
+    private int queueCapacity = 10_000;
+}
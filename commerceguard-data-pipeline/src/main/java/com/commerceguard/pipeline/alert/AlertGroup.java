@@ -0,0 +1,10 @@
+package com.commerceguard.pipeline.alert;
+
+import java.util.List;
+
+/**
+ * Alerts of the same rule that changed state within one grouping window, delivered to a
+ * channel as a single notification.
+ */
+public record AlertGroup(String ruleId, List<Alert> alerts) {
+}
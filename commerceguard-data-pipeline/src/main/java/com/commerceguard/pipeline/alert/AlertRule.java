@@ -0,0 +1,20 @@
+package com.commerceguard.pipeline.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRule {
+    private String id;
+    private String name;
+    /** Site the rule applies to; {@code null} applies it to every site. */
+    private Long websiteId;
+    /** Metric the rule watches, e.g. {@code response_time} or {@code availability}. */
+    private String metric;
+    private RuleCondition condition;
+}
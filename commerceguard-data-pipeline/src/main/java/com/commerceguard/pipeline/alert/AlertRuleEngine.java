@@ -0,0 +1,228 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.pipeline.tsdb.TimeSeriesStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates compiled alert rules against incoming samples.
+ *
+ * <p>Rules are indexed by site and metric (plus a per-metric list of rules that apply to
+ * every site), so a sample only evaluates the rules that can match it and the cost of an
+ * event does not grow with the total number of rules. Index lists are copy-on-write and
+ * only the affected list is copied when a rule changes. Rule state is a fixed-size
+ * {@link SampleRing} per site and metric, shared by all rules on that metric.
+ */
+@Slf4j
+@Component
+public class AlertRuleEngine {
+
+    private final AlertRuleProperties properties;
+
+    private final Object rulesLock = new Object();
+    private final Map<String, CompiledRule> rulesById = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, List<CompiledRule>>> siteRules = new ConcurrentHashMap<>();
+    private final Map<String, List<CompiledRule>> globalRules = new ConcurrentHashMap<>();
+    private volatile List<CompiledRule> absenceRules = List.of();
+
+    private final Map<Long, SiteState> sites = new ConcurrentHashMap<>();
+
+    private final Counter evaluationCounter;
+
+    public AlertRuleEngine(AlertRuleProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.evaluationCounter = meterRegistry.counter("commerceguard.alerts.rule.evaluations");
+        Gauge.builder("commerceguard.alerts.rules", rulesById, Map::size)
+            .register(meterRegistry);
+        if (properties.isDefaultRulesEnabled()) {
+            registerDefaultRules();
+        }
+    }
+
+    /**
+     * Compiles and registers a rule, replacing any rule with the same id.
+     *
+     * @throws com.commerceguard.common.exception.CommerceGuardException if the rule is invalid
+     */
+    public void register(AlertRule rule) {
+        CompiledRule compiled = new CompiledRule(rule, RuleCompiler.compile(rule),
+            RuleCompiler.dependsOnAbsence(rule.getCondition()));
+        synchronized (rulesLock) {
+            CompiledRule previous = rulesById.put(rule.getId(), compiled);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(compiled);
+        }
+    }
+
+    public boolean remove(String ruleId) {
+        synchronized (rulesLock) {
+            CompiledRule removed = rulesById.remove(ruleId);
+            if (removed == null) {
+                return false;
+            }
+            unindex(removed);
+            return true;
+        }
+    }
+
+    public int getRuleCount() {
+        return rulesById.size();
+    }
+
+    /**
+     * Records a sample and evaluates the rules indexed for its site and metric.
+     */
+    public List<RuleResult> onSample(Long websiteId, String metric, long timestamp, double value) {
+        List<CompiledRule> forSite = siteRules.getOrDefault(websiteId, Map.of()).getOrDefault(metric, List.of());
+        List<CompiledRule> forAll = globalRules.getOrDefault(metric, List.of());
+
+        SiteState state = sites.get(websiteId);
+        if (state == null) {
+            state = sites.computeIfAbsent(websiteId, id -> new SiteState());
+        }
+        synchronized (state) {
+            SampleRing samples = state.samples(metric, properties.getSamplesPerSite());
+            samples.add(timestamp, value);
+            if (forSite.isEmpty() && forAll.isEmpty()) {
+                return List.of();
+            }
+            List<RuleResult> results = new ArrayList<>(forSite.size() + forAll.size());
+            evaluate(forSite, websiteId, samples, timestamp, value, results);
+            evaluate(forAll, websiteId, samples, timestamp, value, results);
+            return results;
+        }
+    }
+
+    /**
+     * Evaluates the rules that can fire without new data, such as absence of samples.
+     */
+    public List<RuleResult> checkAbsence(long now) {
+        List<RuleResult> results = new ArrayList<>();
+        for (CompiledRule rule : absenceRules) {
+            Long websiteId = rule.rule().getWebsiteId();
+            if (websiteId != null) {
+                SiteState state = sites.get(websiteId);
+                if (state != null) {
+                    evaluateAbsence(rule, websiteId, state, now, results);
+                }
+            } else {
+                sites.forEach((id, state) -> evaluateAbsence(rule, id, state, now, results));
+            }
+        }
+        return results;
+    }
+
+    public long getAbsenceCheckIntervalMillis() {
+        return properties.getAbsenceCheckInterval().toMillis();
+    }
+
+    private void evaluate(List<CompiledRule> rules, long websiteId, SampleRing samples, long now,
+                          double value, List<RuleResult> results) {
+        for (CompiledRule rule : rules) {
+            results.add(new RuleResult(rule.rule(), websiteId, rule.predicate().test(samples, now), value, now));
+        }
+        evaluationCounter.increment(rules.size());
+    }
+
+    private void evaluateAbsence(CompiledRule rule, long websiteId, SiteState state, long now,
+                                 List<RuleResult> results) {
+        synchronized (state) {
+            SampleRing samples = state.existingSamples(rule.rule().getMetric());
+            if (samples != null) {
+                evaluate(List.of(rule), websiteId, samples, now, samples.latestValue(), results);
+            }
+        }
+    }
+
+    private void index(CompiledRule compiled) {
+        AlertRule rule = compiled.rule();
+        if (rule.getWebsiteId() == null) {
+            globalRules.compute(rule.getMetric(), (metric, rules) -> with(rules, compiled));
+        } else {
+            siteRules.computeIfAbsent(rule.getWebsiteId(), id -> new ConcurrentHashMap<>())
+                .compute(rule.getMetric(), (metric, rules) -> with(rules, compiled));
+        }
+        if (compiled.absence()) {
+            absenceRules = with(absenceRules, compiled);
+        }
+    }
+
+    private void unindex(CompiledRule compiled) {
+        AlertRule rule = compiled.rule();
+        if (rule.getWebsiteId() == null) {
+            globalRules.computeIfPresent(rule.getMetric(), (metric, rules) -> without(rules, compiled));
+        } else {
+            Map<String, List<CompiledRule>> byMetric = siteRules.get(rule.getWebsiteId());
+            if (byMetric != null) {
+                byMetric.computeIfPresent(rule.getMetric(), (metric, rules) -> without(rules, compiled));
+                if (byMetric.isEmpty()) {
+                    siteRules.remove(rule.getWebsiteId(), byMetric);
+                }
+            }
+        }
+        if (compiled.absence()) {
+            List<CompiledRule> remaining = without(absenceRules, compiled);
+            absenceRules = remaining == null ? List.of() : remaining;
+        }
+    }
+
+    private static List<CompiledRule> with(List<CompiledRule> rules, CompiledRule rule) {
+        List<CompiledRule> copy = rules == null ? new ArrayList<>(1) : new ArrayList<>(rules);
+        copy.add(rule);
+        return List.copyOf(copy);
+    }
+
+    private static List<CompiledRule> without(List<CompiledRule> rules, CompiledRule rule) {
+        List<CompiledRule> copy = new ArrayList<>(rules);
+        copy.remove(rule);
+        return copy.isEmpty() ? null : List.copyOf(copy);
+    }
+
+    private void registerDefaultRules() {
+        register(AlertRule.builder()
+            .id("default-response-time")
+            .name("Response time above " + properties.getDefaultResponseTimeThreshold().toMillis() + "ms")
+            .metric(TimeSeriesStore.RESPONSE_TIME)
+            .condition(RuleCondition.window(Aggregation.LAST, Operator.GT,
+                properties.getDefaultResponseTimeThreshold().toMillis(), Duration.ofMinutes(1), 1, 1))
+            .build());
+        register(AlertRule.builder()
+            .id("default-site-down")
+            .name("Site down")
+            .metric(TimeSeriesStore.AVAILABILITY)
+            .condition(RuleCondition.window(Aggregation.LAST, Operator.LT, 1, Duration.ofMinutes(1), 1, 1))
+            .build());
+    }
+
+    private record CompiledRule(AlertRule rule, RulePredicate predicate, boolean absence) {
+    }
+
+    private static final class SiteState {
+        private final Map<String, SampleRing> samples = new HashMap<>(4);
+
+        SampleRing samples(String metric, int capacity) {
+            SampleRing ring = samples.get(metric);
+            if (ring == null) {
+                ring = new SampleRing(capacity);
+                samples.put(metric, ring);
+            }
+            return ring;
+        }
+
+        SampleRing existingSamples(String metric) {
+            return samples.get(metric);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.commerceguard.pipeline.alert;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.alerts")
+public class AlertRuleProperties {
+
+    /** Recent samples kept per site and metric; bounds the longest usable rule window. */
+    private int samplesPerSite = 64;
+
+    /** How often absence-of-data rules are checked, since no event triggers them. */
+    private Duration absenceCheckInterval = Duration.ofSeconds(30);
+
+    /** Registers the global response-time and site-down rules at startup. */
+    private boolean defaultRulesEnabled = true;
+
+    private Duration defaultResponseTimeThreshold = Duration.ofSeconds(5);
+}
@@ -0,0 +1,40 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.pipeline.model.Metric;
+import com.commerceguard.pipeline.service.AlertService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers alerts through the existing {@link AlertService} integration, one call per
+ * alert in the group.
+ */
+@Component
+public class AlertServiceChannel implements AlertChannel {
+
+    private final AlertService alertService;
+
+    public AlertServiceChannel(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    @Override
+    public String getName() {
+        return "alert-service";
+    }
+
+    @Override
+    public boolean isPerAlert() {
+        return true;
+    }
+
+    @Override
+    public void deliver(AlertGroup group) {
+        for (Alert alert : group.alerts()) {
+            String name = alert.getState() == AlertState.RESOLVED
+                ? "[RESOLVED] " + alert.getRuleName()
+                : alert.getRuleName();
+            long timestamp = alert.getState() == AlertState.RESOLVED ? alert.getResolvedAt() : alert.getStartedAt();
+            alertService.sendAlert(new Metric(alert.getWebsiteId(), name, alert.getValue(), alert.getThreshold(), timestamp));
+        }
+    }
+}
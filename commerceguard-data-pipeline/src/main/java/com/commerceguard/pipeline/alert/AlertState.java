@@ -0,0 +1,5 @@
+package com.commerceguard.pipeline.alert;
+
+public enum AlertState {
+    FIRING, RESOLVED
+}
@@ -0,0 +1,13 @@
+package com.commerceguard.pipeline.alert;
+
+public enum ConditionType {
+    /** Aggregate of each window compared with a threshold, breaching in M of the last N windows. */
+    WINDOW,
+    /** Relative change of the window average against the window before it. */
+    RATE_OF_CHANGE,
+    /** No sample for longer than the window. */
+    ABSENCE,
+    ALL,
+    ANY,
+    NOT
+}
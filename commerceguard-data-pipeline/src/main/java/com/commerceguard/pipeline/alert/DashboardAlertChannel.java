@@ -0,0 +1,27 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.pipeline.websocket.DashboardWebSocketHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes alerts to dashboard sessions subscribed to the alert stream.
+ */
+@Component
+public class DashboardAlertChannel implements AlertChannel {
+
+    private final DashboardWebSocketHandler dashboardWebSocketHandler;
+
+    public DashboardAlertChannel(DashboardWebSocketHandler dashboardWebSocketHandler) {
+        this.dashboardWebSocketHandler = dashboardWebSocketHandler;
+    }
+
+    @Override
+    public String getName() {
+        return "dashboard";
+    }
+
+    @Override
+    public void deliver(AlertGroup group) {
+        group.alerts().forEach(dashboardWebSocketHandler::broadcastAlert);
+    }
+}
@@ -0,0 +1,30 @@
+package com.commerceguard.pipeline.alert;
+
+public enum Operator {
+    GT {
+        @Override
+        public boolean test(double value, double threshold) {
+            return value > threshold;
+        }
+    },
+    GTE {
+        @Override
+        public boolean test(double value, double threshold) {
+            return value >= threshold;
+        }
+    },
+    LT {
+        @Override
+        public boolean test(double value, double threshold) {
+            return value < threshold;
+        }
+    },
+    LTE {
+        @Override
+        public boolean test(double value, double threshold) {
+            return value <= threshold;
+        }
+    };
+
+    public abstract boolean test(double value, double threshold);
+}
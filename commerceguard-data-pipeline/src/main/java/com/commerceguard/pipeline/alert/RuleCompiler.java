@@ -0,0 +1,149 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+
+import java.util.List;
+
+/**
+ * Turns {@link RuleCondition} definitions into {@link RulePredicate} trees, validating
+ * them and resolving durations once so that evaluation does no lookups or parsing.
+ */
+final class RuleCompiler {
+
+    private RuleCompiler() {
+    }
+
+    static RulePredicate compile(AlertRule rule) {
+        if (rule.getId() == null || rule.getMetric() == null || rule.getCondition() == null) {
+            throw invalid(rule, "id, metric and condition are required");
+        }
+        return compile(rule, rule.getCondition());
+    }
+
+    /** Whether the condition can become true without new samples arriving. */
+    static boolean dependsOnAbsence(RuleCondition condition) {
+        if (condition.getType() == ConditionType.ABSENCE) {
+            return true;
+        }
+        List<RuleCondition> children = condition.getChildren();
+        return children != null && children.stream().anyMatch(RuleCompiler::dependsOnAbsence);
+    }
+
+    private static RulePredicate compile(AlertRule rule, RuleCondition condition) {
+        if (condition.getType() == null) {
+            throw invalid(rule, "condition type is required");
+        }
+        return switch (condition.getType()) {
+            case WINDOW -> window(rule, condition);
+            case RATE_OF_CHANGE -> rateOfChange(rule, condition);
+            case ABSENCE -> absence(rule, condition);
+            case ALL -> all(children(rule, condition));
+            case ANY -> any(children(rule, condition));
+            case NOT -> {
+                RulePredicate[] children = children(rule, condition);
+                if (children.length != 1) {
+                    throw invalid(rule, "NOT takes exactly one condition");
+                }
+                RulePredicate child = children[0];
+                yield (samples, now) -> !child.test(samples, now);
+            }
+        };
+    }
+
+    private static RulePredicate window(AlertRule rule, RuleCondition condition) {
+        Aggregation aggregation = require(rule, condition.getAggregation(), "aggregation");
+        Operator operator = require(rule, condition.getOperator(), "operator");
+        long width = windowMillis(rule, condition);
+        int windows = condition.getWindows();
+        int required = condition.getRequired();
+        if (windows < 1 || required < 1 || required > windows) {
+            throw invalid(rule, "need 1 <= required <= windows");
+        }
+        double threshold = condition.getThreshold();
+        return (samples, now) -> {
+            int breaching = 0;
+            for (int i = 0; i < windows; i++) {
+                long to = now - i * width;
+                double value = samples.aggregate(aggregation, to - width, to);
+                if (!Double.isNaN(value) && operator.test(value, threshold) && ++breaching >= required) {
+                    return true;
+                }
+                if (breaching + (windows - i - 1) < required) {
+                    return false;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static RulePredicate rateOfChange(AlertRule rule, RuleCondition condition) {
+        Operator operator = require(rule, condition.getOperator(), "operator");
+        long width = windowMillis(rule, condition);
+        double threshold = condition.getThreshold();
+        return (samples, now) -> {
+            double current = samples.aggregate(Aggregation.AVG, now - width, now);
+            double previous = samples.aggregate(Aggregation.AVG, now - 2 * width, now - width);
+            if (Double.isNaN(current) || Double.isNaN(previous) || previous == 0) {
+                return false;
+            }
+            return operator.test((current - previous) / previous, threshold);
+        };
+    }
+
+    private static RulePredicate absence(AlertRule rule, RuleCondition condition) {
+        long width = windowMillis(rule, condition);
+        return (samples, now) -> !samples.isEmpty() && samples.latestTimestamp() < now - width;
+    }
+
+    private static RulePredicate all(RulePredicate[] children) {
+        return (samples, now) -> {
+            for (RulePredicate child : children) {
+                if (!child.test(samples, now)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static RulePredicate any(RulePredicate[] children) {
+        return (samples, now) -> {
+            for (RulePredicate child : children) {
+                if (child.test(samples, now)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static RulePredicate[] children(AlertRule rule, RuleCondition condition) {
+        List<RuleCondition> children = condition.getChildren();
+        if (children == null || children.isEmpty()) {
+            throw invalid(rule, condition.getType() + " needs at least one condition");
+        }
+        return children.stream().map(child -> compile(rule, child)).toArray(RulePredicate[]::new);
+    }
+
+    private static long windowMillis(AlertRule rule, RuleCondition condition) {
+        if (condition.getWindow() == null || condition.getWindow().isZero() || condition.getWindow().isNegative()) {
+            throw invalid(rule, condition.getType() + " needs a positive window");
+        }
+        return condition.getWindow().toMillis();
+    }
+
+    private static <T> T require(AlertRule rule, T value, String field) {
+        if (value == null) {
+            throw invalid(rule, field + " is required");
+        }
+        return value;
+    }
+
+    private static CommerceGuardException invalid(AlertRule rule, String reason) {
+        return new CommerceGuardException(
+            "INVALID_ALERT_RULE",
+            "Alert rule " + rule.getId() + ": " + reason,
+            400
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.commerceguard.pipeline.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Declarative condition tree of an {@link AlertRule}. Leaves are windowed threshold,
+ * rate-of-change and absence checks; {@code ALL}, {@code ANY} and {@code NOT} combine them.
+ * Definitions are compiled once by {@link RuleCompiler} and never interpreted per event.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleCondition {
+    private ConditionType type;
+    private Aggregation aggregation;
+    private Operator operator;
+    private double threshold;
+    private Duration window;
+    /** Number of most recent windows inspected (N). */
+    @Builder.Default
+    private int windows = 1;
+    /** Number of inspected windows that must breach (M). */
+    @Builder.Default
+    private int required = 1;
+    private List<RuleCondition> children;
+
+    /** {@code aggregation(window) operator threshold} in {@code required} of the last {@code windows} windows. */
+    public static RuleCondition window(Aggregation aggregation, Operator operator, double threshold,
+                                       Duration window, int required, int windows) {
+        return RuleCondition.builder()
+            .type(ConditionType.WINDOW)
+            .aggregation(aggregation)
+            .operator(operator)
+            .threshold(threshold)
+            .window(window)
+            .required(required)
+            .windows(windows)
+            .build();
+    }
+
+    /** Relative change, e.g. {@code 0.5} for +50%, of the window average against the previous window. */
+    public static RuleCondition rateOfChange(Operator operator, double threshold, Duration window) {
+        return RuleCondition.builder()
+            .type(ConditionType.RATE_OF_CHANGE)
+            .operator(operator)
+            .threshold(threshold)
+            .window(window)
+            .build();
+    }
+
+    public static RuleCondition absence(Duration window) {
+        return RuleCondition.builder()
+            .type(ConditionType.ABSENCE)
+            .window(window)
+            .build();
+    }
+
+    public static RuleCondition allOf(RuleCondition... children) {
+        return RuleCondition.builder().type(ConditionType.ALL).children(List.of(children)).build();
+    }
+
+    public static RuleCondition anyOf(RuleCondition... children) {
+        return RuleCondition.builder().type(ConditionType.ANY).children(List.of(children)).build();
+    }
+
+    public static RuleCondition not(RuleCondition child) {
+        return RuleCondition.builder().type(ConditionType.NOT).children(List.of(child)).build();
+    }
+}
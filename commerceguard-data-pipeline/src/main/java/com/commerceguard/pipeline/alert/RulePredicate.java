@@ -0,0 +1,10 @@
+package com.commerceguard.pipeline.alert;
+
+/**
+ * Compiled node of a rule's condition tree, evaluated against the samples of one site.
+ */
+@FunctionalInterface
+interface RulePredicate {
+
+    boolean test(SampleRing samples, long now);
+}
@@ -0,0 +1,8 @@
+package com.commerceguard.pipeline.alert;
+
+/**
+ * Outcome of evaluating one rule for one site. Rules that were evaluated but did not
+ * breach are reported too, so that firing alerts can be resolved.
+ */
+public record RuleResult(AlertRule rule, long websiteId, boolean breached, double value, long timestamp) {
+}
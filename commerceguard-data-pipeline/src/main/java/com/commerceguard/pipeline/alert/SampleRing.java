@@ -0,0 +1,96 @@
+package com.commerceguard.pipeline.alert;
+
+import java.util.Arrays;
+
+/**
+ * The most recent samples of one metric of one site, in two primitive arrays used as a
+ * ring. Window aggregates are computed on demand from these samples, so rule state costs
+ * a fixed {@code 16 * capacity} bytes per site and metric however many rules watch it.
+ * Not thread-safe; guarded by the engine's per-site lock.
+ */
+class SampleRing {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private final double[] scratch;
+    private int next;
+    private int size;
+
+    SampleRing(int capacity) {
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+        this.scratch = new double[capacity];
+    }
+
+    void add(long timestamp, double value) {
+        timestamps[next] = timestamp;
+        values[next] = value;
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long latestTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[index(0)];
+    }
+
+    double latestValue() {
+        return size == 0 ? Double.NaN : values[index(0)];
+    }
+
+    /**
+     * Aggregates the samples with {@code from < timestamp <= to}, or returns {@code NaN}
+     * if there are none.
+     */
+    double aggregate(Aggregation aggregation, long from, long to) {
+        int count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double last = Double.NaN;
+        long lastTimestamp = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int idx = index(i);
+            long timestamp = timestamps[idx];
+            if (timestamp <= from || timestamp > to) {
+                continue;
+            }
+            double value = values[idx];
+            scratch[count++] = value;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (timestamp >= lastTimestamp) {
+                lastTimestamp = timestamp;
+                last = value;
+            }
+        }
+        if (count == 0) {
+            return aggregation == Aggregation.COUNT ? 0 : Double.NaN;
+        }
+        return switch (aggregation) {
+            case LAST -> last;
+            case AVG -> sum / count;
+            case MIN -> min;
+            case MAX -> max;
+            case COUNT -> count;
+            case P50 -> percentile(count, 0.50);
+            case P95 -> percentile(count, 0.95);
+            case P99 -> percentile(count, 0.99);
+        };
+    }
+
+    private double percentile(int count, double quantile) {
+        Arrays.sort(scratch, 0, count);
+        int rank = (int) Math.ceil(quantile * count) - 1;
+        return scratch[Math.max(0, rank)];
+    }
+
+    /** Position of the {@code age}-th most recent sample. */
+    private int index(int age) {
+        return Math.floorMod(next - 1 - age, timestamps.length);
+    }
+}
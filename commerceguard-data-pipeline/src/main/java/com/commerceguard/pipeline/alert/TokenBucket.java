@@ -0,0 +1,30 @@
+package com.commerceguard.pipeline.alert;
+
+/**
+ * Classic token bucket: up to {@code capacity} tokens, refilled continuously at
+ * {@code refillPerSecond}.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /** Takes as many whole tokens as are available, up to {@code max}, and returns how many. */
+    synchronized int tryAcquireUpTo(int max) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+        int granted = (int) Math.min(max, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+}
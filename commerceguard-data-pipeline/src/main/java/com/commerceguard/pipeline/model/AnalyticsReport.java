@@ -0,0 +1,30 @@
+package com.commerceguard.pipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class AnalyticsReport {
+    private Instant start;
+    private Instant end;
+    private long sampleCount;
+    /** Fraction of checks that reported UP, between 0 and 1. */
+    private double availability;
+    private double averageResponseTime;
+    private double minResponseTime;
+    private double maxResponseTime;
+    private double p50ResponseTime;
+    private double p95ResponseTime;
+    private double p99ResponseTime;
+    /**
+     * Serialized response-time sketch for the whole report, so reports for adjacent
+     * windows or other nodes can be merged with
+     * {@link com.commerceguard.pipeline.sketch.QuantileSketch#fromByteArray}.
+     */
+    private byte[] responseTimeSketch;
+    private Map<String, PercentileSummary> regionResponseTimes;
+}
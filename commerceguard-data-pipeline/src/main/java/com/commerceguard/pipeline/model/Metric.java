@@ -0,0 +1,25 @@
+package com.commerceguard.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Metric {
+    private Long websiteId;
+    private String name;
+    private Double value;
+    private Double threshold;
+    private Long timestamp;
+    /**
+     * Stream entry the metric was read from, if any. A redelivered entry is persisted again
+     * with the same id, so stores key on it to write each result once.
+     */
+    private String streamId;
+
+    public Metric(Long websiteId, String name, Double value, Double threshold, Long timestamp) {
+        this(websiteId, name, value, threshold, timestamp, null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.commerceguard.pipeline.model;
+
+/**
+ * Immutable, primitive view of one {@link MonitoringData} item, built once when the item
+ * enters the pipeline and shared by every downstream stage.
+ *
+ * <p>{@code websiteId} keeps the boxed instance already held by the incoming item so that
+ * map lookups in the stores do not box again; all measurements are primitives.
+ * {@code streamId} is carried through to the persist stage, which acknowledges the entry.
+ */
+public record MetricSample(Long websiteId, String region, long timestamp, boolean up, long responseTime,
+                           String streamId) {
+
+    public static MetricSample from(MonitoringData data) {
+        return new MetricSample(data.getWebsiteId(), data.getRegion(), data.getTimestamp(),
+            data.isUp(), data.getResponseTime(), data.getStreamId());
+    }
+
+    /** Availability as recorded in time series and alert rules: 1 when up, 0 when down. */
+    public double availability() {
+        return up ? 1 : 0;
+    }
+
+    /** Boxed form for {@link com.commerceguard.pipeline.service.MetricService}, built only at that boundary. */
+    public Metric toMetric(String name) {
+        return new Metric(websiteId, name, (double) responseTime, null, timestamp, streamId);
+    }
+}
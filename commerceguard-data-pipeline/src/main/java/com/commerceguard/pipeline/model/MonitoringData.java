@@ -0,0 +1,43 @@
+package com.commerceguard.pipeline.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single probe result as received from the monitoring service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitoringData {
+    private Long websiteId;
+    private String region;
+    private long timestamp;
+    private String status;
+    private long responseTime;
+    private String error;
+
+    /** Page phases of a browser probe in millis, {@code null} when not measured. */
+    private Long timeToFirstByte;
+    private Long domContentLoaded;
+    private Long largestContentfulPaint;
+
+    /** Id of the stream entry this result was read from, acknowledged once it is persisted. */
+    @JsonIgnore
+    private String streamId;
+
+    /** Read from the stream before, so sinks other than persist may have seen it already. */
+    @JsonIgnore
+    private boolean redelivered;
+
+    public MonitoringData(Long websiteId, String region, long timestamp, String status,
+                          long responseTime, String error) {
+        this(websiteId, region, timestamp, status, responseTime, error, null, null, null, null, false);
+    }
+
+    public boolean isUp() {
+        return "UP".equals(status);
+    }
+}
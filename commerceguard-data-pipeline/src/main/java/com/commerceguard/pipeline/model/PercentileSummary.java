@@ -0,0 +1,21 @@
+package com.commerceguard.pipeline.model;
+
+import com.commerceguard.pipeline.sketch.QuantileSketch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PercentileSummary {
+    private long count;
+    private double p50;
+    private double p95;
+    private double p99;
+
+    public static PercentileSummary of(QuantileSketch sketch) {
+        return new PercentileSummary(sketch.getCount(),
+            sketch.quantile(0.5), sketch.quantile(0.95), sketch.quantile(0.99));
+    }
+}
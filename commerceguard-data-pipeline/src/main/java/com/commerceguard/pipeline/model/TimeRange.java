@@ -0,0 +1,17 @@
+package com.commerceguard.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeRange {
+    private Instant start;
+    private Instant end;
+    /** Restricts the range to one website; {@code null} covers all websites. */
+    private Long websiteId;
+}
@@ -1,67 +1,176 @@
 package com.commerceguard.pipeline.service;
 
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
+import com.commerceguard.pipeline.alert.AlertDispatcher;
+import com.commerceguard.pipeline.alert.AlertRuleEngine;
 import com.commerceguard.pipeline.model.MonitoringData;
 import com.commerceguard.pipeline.model.Metric;
+import com.commerceguard.pipeline.model.MetricSample;
 import com.commerceguard.pipeline.model.AnalyticsReport;
+import com.commerceguard.pipeline.model.PercentileSummary;
 import com.commerceguard.pipeline.model.TimeRange;
+import com.commerceguard.pipeline.sketch.SketchRegistry;
+import com.commerceguard.pipeline.stage.PipelineStageProperties;
+import com.commerceguard.pipeline.stage.Stage;
+import com.commerceguard.pipeline.stream.StreamAcknowledger;
+import com.commerceguard.pipeline.tsdb.SeriesSummary;
+import com.commerceguard.pipeline.tsdb.TimeSeriesStore;
 import com.commerceguard.pipeline.websocket.DashboardWebSocketHandler;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+/**
+ * Processes monitoring data as a staged pipeline:
+ * ingest &rarr; enrich &rarr; persist / aggregate / alert / broadcast.
+ *
+ * <p>Every stage has its own bounded queue and workers (see {@link PipelineStageProperties}).
+ * Ingest and enrich block when full, which pushes back on {@link #processMetricsStream}
+ * callers. Enrich converts each item once and fans it out to the four sinks without
+ * blocking, so a slow sink such as MySQL only fills and overflows its own queue.
+ *
+ * <p>Results read from the result stream are acknowledged by the persist stage after they
+ * are stored, so one dropped by a full persist queue is delivered again later. Redelivered
+ * results only go to persist, which writes them keyed by stream id; the other sinks may have
+ * seen them already and would count them twice.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DataProcessingPipeline {
-    
-    private final ExecutorService processingPool = Executors.newFixedThreadPool(15);
-    private final DashboardWebSocketHandler dashboardWebSocketHandler;
+
+    private static final Duration STAGE_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ExecutorService processingPool;
     private final MetricService metricService;
-    private final AlertService alertService;
+    private final TimeSeriesStore timeSeriesStore;
+    private final SketchRegistry sketchRegistry;
+    private final AlertRuleEngine alertRuleEngine;
+    private final AlertDispatcher alertDispatcher;
+    private final StreamAcknowledger streamAcknowledger;
+    private final ScheduledExecutorService absenceChecker;
+
+    private final Stage<MonitoringData> ingestStage;
+    private final Stage<MonitoringData> enrichStage;
+    private final Stage<MetricSample> persistStage;
+    private final Stage<MetricSample> aggregateStage;
+    private final Stage<MetricSample> alertStage;
+    private final Stage<MonitoringData> broadcastStage;
+
+    public DataProcessingPipeline(
+            DashboardWebSocketHandler dashboardWebSocketHandler,
+            MetricService metricService,
+            TimeSeriesStore timeSeriesStore,
+            SketchRegistry sketchRegistry,
+            AlertRuleEngine alertRuleEngine,
+            AlertDispatcher alertDispatcher,
+            StreamAcknowledger streamAcknowledger,
+            PipelineStageProperties stageProperties,
+            MeterRegistry meterRegistry,
+            @Value("${commerceguard.execution.mode:PLATFORM}") ExecutionMode executionMode) {
+        this.processingPool = TaskExecutors.newTaskExecutor(executionMode, "pipeline", 4);
+        this.metricService = metricService;
+        this.timeSeriesStore = timeSeriesStore;
+        this.sketchRegistry = sketchRegistry;
+        this.alertRuleEngine = alertRuleEngine;
+        this.alertDispatcher = alertDispatcher;
+        this.streamAcknowledger = streamAcknowledger;
 
+        // Sinks first, so the stages feeding them can reference them.
+        // Persist concurrency is sized to the connection pool, so virtual threads queue here, not in Hikari.
+        this.persistStage = new Stage<>("persist", stageProperties.getPersist(), this::persist,
+            executionMode, meterRegistry);
+        this.aggregateStage = new Stage<>("aggregate", stageProperties.getAggregate(), this::recordSeries,
+            executionMode, meterRegistry);
+        this.alertStage = new Stage<>("alert", stageProperties.getAlert(), this::checkAlertConditions,
+            executionMode, meterRegistry);
+        this.broadcastStage = new Stage<>("broadcast", stageProperties.getBroadcast(),
+            dashboardWebSocketHandler::broadcastUpdate, executionMode, meterRegistry);
+        this.enrichStage = new Stage<>("enrich", stageProperties.getEnrich(), this::enrich,
+            executionMode, meterRegistry);
+        this.ingestStage = new Stage<>("ingest", stageProperties.getIngest(), this::ingest,
+            executionMode, meterRegistry);
+
+        // Absence-of-data rules cannot be triggered by an event, so they are swept instead.
+        this.absenceChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-absence-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkMillis = alertRuleEngine.getAbsenceCheckIntervalMillis();
+        absenceChecker.scheduleWithFixedDelay(this::checkAbsence, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PostConstruct
     public void startDataConsumers() {
-        // Initialize data consumers
-        for (int i = 0; i < 5; i++) {
-            processingPool.submit(this::processData);
+        for (Stage<?> stage : stagesInFlowOrder()) {
+            stage.start();
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        absenceChecker.shutdownNow();
+        // Upstream first, so each stage has received everything before it drains.
+        for (Stage<?> stage : stagesInFlowOrder()) {
+            stage.stop(STAGE_DRAIN_TIMEOUT);
+        }
+        processingPool.shutdown();
+    }
+
+    /**
+     * Feeds a stream into the pipeline. Blocks while the ingest stage is full.
+     */
     @Async
     public void processMetricsStream(Stream<MonitoringData> dataStream) {
-        dataStream.parallel()
-            .forEach(data -> {
-                try {
-                    processMetric(data);
-                    updateDashboard(data);
-                    checkAlertConditions(data);
-                } catch (Exception e) {
-                    log.error("Error processing metric data", e);
-                }
-            });
+        dataStream.forEach(data -> {
+            if (!submit(data)) {
+                log.warn("Pipeline ingest is saturated, dropping data for website {}", data.getWebsiteId());
+            }
+        });
+    }
+
+    /**
+     * Hands a single result to the ingest stage, blocking while it is full.
+     *
+     * @return {@code false} if the ingest stage is still full after its offer timeout
+     */
+    public boolean submit(MonitoringData data) {
+        return ingestStage.offer(data);
+    }
+
+    /** Whether callers should slow down before submitting more data. */
+    public boolean isBackpressured() {
+        return ingestStage.isSaturated() || enrichStage.isSaturated();
     }
 
     public void generateRealTimeAlerts(List<Metric> metrics) {
-        metrics.parallelStream()
-            .forEach(metric -> {
-                if (isAlertConditionMet(metric)) {
-                    alertService.sendAlert(metric);
-                }
-            });
+        for (Metric metric : metrics) {
+            alertDispatcher.onResults(alertRuleEngine.onSample(
+                metric.getWebsiteId(), metric.getName(), metric.getTimestamp(), metric.getValue()));
+        }
     }
 
     @Async
     public CompletableFuture<AnalyticsReport> aggregateMetrics(TimeRange range) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                List<Metric> metrics = metricService.getMetricsForRange(range);
-                return generateReport(metrics);
+                return generateReport(range);
             } catch (Exception e) {
                 log.error("Error aggregating metrics", e);
                 throw e;
@@ -69,47 +178,100 @@ public class DataProcessingPipeline {
         }, processingPool);
     }
 
-    private void processData() {
-        while (!Thread.currentThread().isInterrupted()) {
-            try {
-                // Process data from queue
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+    private void ingest(MonitoringData data) {
+        if (data.getWebsiteId() == null) {
+            log.warn("Ignoring monitoring data without a website id");
+            streamAcknowledger.acknowledge(data.getStreamId());
+            return;
+        }
+        if (!enrichStage.offer(data)) {
+            streamAcknowledger.release(data.getStreamId());
         }
     }
 
-    private void processMetric(MonitoringData data) {
-        // Process and store metric data
-        metricService.saveMetric(convertToMetric(data));
+    private void enrich(MonitoringData data) {
+        // Converted once; every sink reads the same immutable sample.
+        MetricSample sample = MetricSample.from(data);
+        if (!persistStage.offer(sample)) {
+            // Left pending, so it is claimed and persisted later.
+            streamAcknowledger.release(sample.streamId());
+        }
+        if (data.isRedelivered()) {
+            return;
+        }
+        aggregateStage.offer(sample);
+        alertStage.offer(sample);
+        broadcastStage.offer(data);
     }
 
-    private void updateDashboard(MonitoringData data) {
-        // Send updates to connected dashboard clients
-        dashboardWebSocketHandler.broadcastUpdate(data);
+    private void recordSeries(MetricSample sample) {
+        timeSeriesStore.record(sample.websiteId(), TimeSeriesStore.AVAILABILITY, sample.timestamp(), sample.availability());
+        if (sample.up()) {
+            timeSeriesStore.record(sample.websiteId(), TimeSeriesStore.RESPONSE_TIME, sample.timestamp(), sample.responseTime());
+            if (sample.region() != null) {
+                sketchRegistry.record(sample.region(), sample.timestamp(), sample.responseTime());
+            }
+        }
     }
 
-    private void checkAlertConditions(MonitoringData data) {
-        Metric metric = convertToMetric(data);
-        if (isAlertConditionMet(metric)) {
-            alertService.sendAlert(metric);
+    private void persist(MetricSample sample) {
+        try {
+            metricService.saveMetric(sample.toMetric(TimeSeriesStore.RESPONSE_TIME));
+        } catch (RuntimeException e) {
+            streamAcknowledger.release(sample.streamId());
+            throw e;
         }
+        streamAcknowledger.acknowledge(sample.streamId());
     }
 
-    private boolean isAlertConditionMet(Metric metric) {
-        // Implement alert condition logic
-        return metric.getValue() > metric.getThreshold();
+    private void checkAlertConditions(MetricSample sample) {
+        alertDispatcher.onResults(alertRuleEngine.onSample(
+            sample.websiteId(), TimeSeriesStore.AVAILABILITY, sample.timestamp(), sample.availability()));
+        if (sample.up()) {
+            alertDispatcher.onResults(alertRuleEngine.onSample(
+                sample.websiteId(), TimeSeriesStore.RESPONSE_TIME, sample.timestamp(), sample.responseTime()));
+        }
+    }
+
+    private void checkAbsence() {
+        try {
+            alertDispatcher.onResults(alertRuleEngine.checkAbsence(System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.error("Error checking absence alert rules", e);
+        }
     }
 
-    private Metric convertToMetric(MonitoringData data) {
-        // Convert monitoring data to metric
-        return new Metric(); // Implement conversion logic
+    private List<Stage<?>> stagesInFlowOrder() {
+        return List.of(ingestStage, enrichStage, persistStage, aggregateStage, alertStage, broadcastStage);
     }
 
-    private AnalyticsReport generateReport(List<Metric> metrics) {
-        // Generate analytics report from metrics
-        return new AnalyticsReport(); // Implement report generation logic
+    private AnalyticsReport generateReport(TimeRange range) {
+        // Served from rollups, so the cost no longer grows with the number of raw rows
+        SeriesSummary responseTimes = timeSeriesStore.summarize(
+            range.getWebsiteId(), TimeSeriesStore.RESPONSE_TIME, range.getStart(), range.getEnd());
+        SeriesSummary availability = timeSeriesStore.summarize(
+            range.getWebsiteId(), TimeSeriesStore.AVAILABILITY, range.getStart(), range.getEnd());
+
+        AnalyticsReport report = new AnalyticsReport();
+        report.setStart(range.getStart());
+        report.setEnd(range.getEnd());
+        report.setSampleCount(availability.getCount());
+        report.setAvailability(availability.getAverage());
+        report.setAverageResponseTime(responseTimes.getAverage());
+        report.setMinResponseTime(responseTimes.getMin());
+        report.setMaxResponseTime(responseTimes.getMax());
+        report.setP50ResponseTime(responseTimes.quantile(0.5));
+        report.setP95ResponseTime(responseTimes.quantile(0.95));
+        report.setP99ResponseTime(responseTimes.quantile(0.99));
+        report.setResponseTimeSketch(responseTimes.getSketch().toByteArray());
+
+        // Region breakdowns are only kept across all sites
+        if (range.getWebsiteId() == null) {
+            Map<String, PercentileSummary> regions = new TreeMap<>();
+            sketchRegistry.queryByRegion(range.getStart(), range.getEnd())
+                .forEach((region, sketch) -> regions.put(region, PercentileSummary.of(sketch)));
+            report.setRegionResponseTimes(regions);
+        }
+        return report;
     }
 }
@@ -0,0 +1,298 @@
+package com.commerceguard.pipeline.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Relative-error quantile sketch in the style of DDSketch.
+ *
+ * <p>Positive values are mapped to logarithmic buckets {@code ceil(log_gamma(v))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so any quantile is returned within relative error
+ * {@code a} of the true value. Bucket counts live in a dense {@code long[]} covering only
+ * the indexes seen so far, which for response times is typically a few hundred slots.
+ * Sketches with the same accuracy merge exactly by adding counts, and
+ * {@link #toByteArray()} gives a compact form for shipping them between nodes or storing
+ * them in reports. Not thread-safe.
+ */
+public class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /** Values at or below this (including zero and negatives) are counted in a single zero bucket. */
+    private static final double MIN_INDEXABLE_VALUE = 1e-3;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private static final byte SERIAL_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        if (value <= MIN_INDEXABLE_VALUE) {
+            zeroCount += weight;
+        } else {
+            int index = index(value);
+            ensureCapacity(index, index);
+            counts[index - offset] += weight;
+        }
+        count += weight;
+        sum += value * weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all of {@code other}'s samples to this sketch.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other.counts.length > 0) {
+            int otherMin = other.offset;
+            int otherMax = other.offset + other.counts.length - 1;
+            ensureCapacity(otherMin, otherMax);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value at quantile {@code q} (0..1), or {@code NaN} for an empty sketch.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank < zeroCount) {
+            return Math.max(min, 0);
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return clamp(value(i + offset));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Serializes the sketch. Only the occupied bucket range is written, with counts as
+     * variable-length integers, so a typical response-time sketch takes a few hundred bytes.
+     */
+    public byte[] toByteArray() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + Math.max(0, last - first + 1));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SERIAL_VERSION);
+            out.writeDouble(relativeAccuracy);
+            writeVarLong(out, count);
+            writeVarLong(out, zeroCount);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            out.writeDouble(sum);
+            int length = last - first + 1;
+            writeVarLong(out, length);
+            if (length > 0) {
+                writeVarLong(out, zigZag(offset + first));
+                for (int i = first; i <= last; i++) {
+                    writeVarLong(out, counts[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static QuantileSketch fromByteArray(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != SERIAL_VERSION) {
+                throw new IllegalArgumentException("Unsupported sketch version: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readDouble());
+            sketch.count = readVarLong(in);
+            sketch.zeroCount = readVarLong(in);
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            sketch.sum = in.readDouble();
+            int length = (int) readVarLong(in);
+            if (length > 0) {
+                long encodedOffset = readVarLong(in);
+                sketch.offset = (int) ((encodedOffset >>> 1) ^ -(encodedOffset & 1));
+                sketch.counts = new long[length];
+                for (int i = 0; i < length; i++) {
+                    sketch.counts[i] = readVarLong(in);
+                }
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed sketch", e);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Variable-length integer too long");
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /** Representative value of a bucket: the midpoint that keeps error within the accuracy bound. */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private void ensureCapacity(int minIndex, int maxIndex) {
+        if (counts.length == 0) {
+            int capacity = Math.max(INITIAL_CAPACITY, maxIndex - minIndex + 1);
+            counts = new long[capacity];
+            offset = minIndex - (capacity - (maxIndex - minIndex + 1)) / 2;
+            return;
+        }
+        int currentMax = offset + counts.length - 1;
+        if (minIndex >= offset && maxIndex <= currentMax) {
+            return;
+        }
+        int newMin = Math.min(minIndex, offset);
+        int newMax = Math.max(maxIndex, currentMax);
+        // Grow with some headroom on the side that overflowed to amortize copies.
+        int headroom = Math.max(INITIAL_CAPACITY / 2, (newMax - newMin + 1) / 4);
+        if (minIndex < offset) {
+            newMin -= headroom;
+        }
+        if (maxIndex > currentMax) {
+            newMax += headroom;
+        }
+        long[] grown = new long[newMax - newMin + 1];
+        System.arraycopy(counts, 0, grown, offset - newMin, counts.length);
+        counts = grown;
+        offset = newMin;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{count=" + count
+            + ", p50=" + quantile(0.5)
+            + ", p99=" + quantile(0.99)
+            + ", buckets=" + Arrays.stream(counts).filter(c -> c > 0).count() + "}";
+    }
+}
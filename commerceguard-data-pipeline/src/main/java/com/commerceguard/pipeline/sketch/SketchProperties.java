@@ -0,0 +1,21 @@
+package com.commerceguard.pipeline.sketch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.sketch")
+public class SketchProperties {
+
+    /** Width of each tumbling window; queries merge whole windows. */
+    private Duration window = Duration.ofHours(1);
+
+    /** Windows kept per region, 31 days at the default width. */
+    private int windows = 31 * 24;
+
+    private double relativeAccuracy = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+}
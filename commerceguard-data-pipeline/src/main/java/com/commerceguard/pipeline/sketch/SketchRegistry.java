@@ -0,0 +1,89 @@
+package com.commerceguard.pipeline.sketch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response-time sketches per region, in tumbling windows.
+ *
+ * <p>Updated incrementally from the processing stream; a range query merges the windows it
+ * covers, so p50/p95/p99 over weeks cost one merge per window rather than the raw samples.
+ * Per-site sketches live in the hourly and daily rollups of the
+ * {@link com.commerceguard.pipeline.tsdb.TimeSeriesStore}. Windows can be exported with
+ * {@link #export} and folded in on another node with {@link #merge}, since sketch merges
+ * are exact.
+ */
+@Component
+public class SketchRegistry {
+
+    private final Map<String, WindowedSketch> regions = new ConcurrentHashMap<>();
+    private final SketchProperties properties;
+
+    public SketchRegistry(SketchProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("commerceguard.sketch.regions", regions, Map::size)
+            .register(meterRegistry);
+    }
+
+    public void record(String region, long timestamp, double value) {
+        windowsFor(region).add(timestamp, value);
+    }
+
+    /**
+     * Merges a window exported by another node into the local window containing
+     * {@code windowStart}.
+     */
+    public void merge(String region, long windowStart, byte[] sketch) {
+        windowsFor(region).merge(windowStart, QuantileSketch.fromByteArray(sketch));
+    }
+
+    /** Returns the merged sketch of one region over {@code [from, to)}. */
+    public QuantileSketch query(String region, Instant from, Instant to) {
+        QuantileSketch merged = new QuantileSketch(properties.getRelativeAccuracy());
+        WindowedSketch windows = regions.get(region);
+        if (windows != null) {
+            windows.mergeInto(from.toEpochMilli(), to.toEpochMilli(), merged);
+        }
+        return merged;
+    }
+
+    /** Returns a merged sketch per region over {@code [from, to)}, omitting empty regions. */
+    public Map<String, QuantileSketch> queryByRegion(Instant from, Instant to) {
+        Map<String, QuantileSketch> result = new TreeMap<>();
+        regions.forEach((region, windows) -> {
+            QuantileSketch merged = new QuantileSketch(properties.getRelativeAccuracy());
+            windows.mergeInto(from.toEpochMilli(), to.toEpochMilli(), merged);
+            if (merged.getCount() > 0) {
+                result.put(region, merged);
+            }
+        });
+        return result;
+    }
+
+    /** Serialized windows of one region by window start, for shipping to another node. */
+    public Map<Long, byte[]> export(String region, Instant from, Instant to) {
+        Map<Long, byte[]> exported = new LinkedHashMap<>();
+        WindowedSketch windows = regions.get(region);
+        if (windows != null) {
+            windows.forEachWindow(from.toEpochMilli(), to.toEpochMilli(),
+                (sketch, start) -> exported.put(start, sketch.toByteArray()));
+        }
+        return exported;
+    }
+
+    private WindowedSketch windowsFor(String region) {
+        WindowedSketch windows = regions.get(region);
+        if (windows != null) {
+            return windows;
+        }
+        return regions.computeIfAbsent(region, key -> new WindowedSketch(
+            properties.getWindow().toMillis(), properties.getWindows(), properties.getRelativeAccuracy()));
+    }
+}
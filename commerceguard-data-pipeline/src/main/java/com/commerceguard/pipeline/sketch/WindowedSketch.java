@@ -0,0 +1,73 @@
+package com.commerceguard.pipeline.sketch;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Ring of tumbling-window sketches for one key. A window's slot is reused once it falls
+ * out of retention; windows older than that are ignored on write.
+ */
+class WindowedSketch {
+
+    private final long width;
+    private final double relativeAccuracy;
+    private final long[] windowStart;
+    private final QuantileSketch[] sketches;
+
+    WindowedSketch(long width, int windows, double relativeAccuracy) {
+        this.width = width;
+        this.relativeAccuracy = relativeAccuracy;
+        this.windowStart = new long[windows];
+        this.sketches = new QuantileSketch[windows];
+    }
+
+    synchronized void add(long timestamp, double value) {
+        QuantileSketch sketch = windowFor(timestamp);
+        if (sketch != null) {
+            sketch.add(value);
+        }
+    }
+
+    synchronized void merge(long timestamp, QuantileSketch other) {
+        QuantileSketch sketch = windowFor(timestamp);
+        if (sketch != null) {
+            sketch.merge(other);
+        }
+    }
+
+    /**
+     * Merges every window that starts in {@code [from, to)} (with {@code from} aligned down
+     * to the window width) into {@code target}.
+     */
+    synchronized void mergeInto(long from, long to, QuantileSketch target) {
+        visit(from, to, (sketch, start) -> target.merge(sketch));
+    }
+
+    /** Visits a copy of every window in range with its start time, for export. */
+    synchronized void forEachWindow(long from, long to, ObjLongConsumer<QuantileSketch> visitor) {
+        visit(from, to, (sketch, start) -> visitor.accept(sketch.copy(), start));
+    }
+
+    private void visit(long from, long to, ObjLongConsumer<QuantileSketch> visitor) {
+        long first = Math.max(Math.floorDiv(from, width), Math.floorDiv(to - 1, width) - sketches.length + 1);
+        long last = Math.floorDiv(to - 1, width);
+        for (long index = first; index <= last; index++) {
+            int slot = (int) Math.floorMod(index, (long) sketches.length);
+            if (sketches[slot] != null && windowStart[slot] == index * width) {
+                visitor.accept(sketches[slot], windowStart[slot]);
+            }
+        }
+    }
+
+    private QuantileSketch windowFor(long timestamp) {
+        long index = Math.floorDiv(timestamp, width);
+        long start = index * width;
+        int slot = (int) Math.floorMod(index, (long) sketches.length);
+        if (sketches[slot] == null || windowStart[slot] < start) {
+            windowStart[slot] = start;
+            sketches[slot] = new QuantileSketch(relativeAccuracy);
+        } else if (windowStart[slot] > start) {
+            return null;
+        }
+        return sketches[slot];
+    }
+}
@@ -0,0 +1,8 @@
+package com.commerceguard.pipeline.stage;
+
+public enum OverflowPolicy {
+    /** Producers wait up to {@code offerTimeout} for space, then the item is rejected. */
+    BLOCK,
+    /** The item is rejected immediately, so a slow stage never holds up its producer. */
+    DROP
+}
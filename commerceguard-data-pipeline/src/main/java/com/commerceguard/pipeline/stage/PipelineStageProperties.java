@@ -0,0 +1,29 @@
+package com.commerceguard.pipeline.stage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queue and concurrency settings of each processing stage. The ingest and enrich stages
+ * block their producer when full, which is the backpressure signal to callers. Sinks drop
+ * on overflow so that one slow sink cannot stall the others.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.stages")
+public class PipelineStageProperties {
+
+    private StageSettings ingest = new StageSettings(10000, 1, OverflowPolicy.BLOCK);
+
+    private StageSettings enrich = new StageSettings(10000, 2, OverflowPolicy.BLOCK);
+
+    /** Concurrency is the number of DB connections used for metric writes. */
+    private StageSettings persist = new StageSettings(50000, 10, OverflowPolicy.DROP);
+
+    private StageSettings aggregate = new StageSettings(10000, 2, OverflowPolicy.DROP);
+
+    private StageSettings alert = new StageSettings(10000, 2, OverflowPolicy.DROP);
+
+    private StageSettings broadcast = new StageSettings(10000, 1, OverflowPolicy.DROP);
+}
@@ -0,0 +1,192 @@
+package com.commerceguard.pipeline.stage;
+
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One step of the processing pipeline: a bounded queue drained by {@code concurrency}
+ * workers that run the stage's handler.
+ *
+ * <p>What happens when the queue is full is governed by the {@link OverflowPolicy}.
+ * {@link #isSaturated()} is the backpressure signal producers can check before pushing
+ * more work. Throughput, failures, rejections, handler latency, queue depth and
+ * saturation are published under {@code commerceguard.pipeline.stage.*}, tagged by stage.
+ */
+@Slf4j
+public class Stage<T> {
+
+    private static final int DRAIN_BATCH = 64;
+    private static final double SATURATION_THRESHOLD = 0.8;
+
+    private final String name;
+    private final StageSettings settings;
+    private final StageHandler<T> handler;
+    private final BlockingQueue<T> queue;
+    private final ExecutorService workers;
+
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Timer handlerTimer;
+
+    private volatile boolean running;
+
+    public Stage(String name, StageSettings settings, StageHandler<T> handler,
+                 ExecutionMode executionMode, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(settings.getCapacity());
+        this.workers = TaskExecutors.newTaskExecutor(executionMode, "stage-" + name, settings.getConcurrency());
+
+        this.processedCounter = Counter.builder("commerceguard.pipeline.stage.processed")
+            .tag("stage", name).register(meterRegistry);
+        this.failedCounter = Counter.builder("commerceguard.pipeline.stage.failed")
+            .tag("stage", name).register(meterRegistry);
+        this.rejectedCounter = Counter.builder("commerceguard.pipeline.stage.rejected")
+            .tag("stage", name).register(meterRegistry);
+        this.handlerTimer = Timer.builder("commerceguard.pipeline.stage.latency")
+            .tag("stage", name).register(meterRegistry);
+        Gauge.builder("commerceguard.pipeline.stage.depth", queue, BlockingQueue::size)
+            .tag("stage", name).register(meterRegistry);
+        Gauge.builder("commerceguard.pipeline.stage.saturation", this, Stage::getSaturation)
+            .tag("stage", name).register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Hands an item to the stage according to its overflow policy.
+     *
+     * @return {@code false} if the item was rejected
+     */
+    public boolean offer(T item) {
+        boolean accepted;
+        if (settings.getOverflowPolicy() == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(item, settings.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(item);
+        }
+        if (!accepted) {
+            rejectedCounter.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * Waits up to {@code timeout} for the queue to empty, then stops the workers. Workers
+     * finish the batch they already hold within what is left of the timeout and are only
+     * interrupted after that; items still queued at the deadline are dropped.
+     */
+    public void stop(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("Stage {} did not finish in {}; interrupting its workers", name, timeout);
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Stage {} stopped with {} items still queued", name, queue.size());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    public double getSaturation() {
+        return (double) queue.size() / settings.getCapacity();
+    }
+
+    public boolean isSaturated() {
+        return getSaturation() >= SATURATION_THRESHOLD;
+    }
+
+    public long getProcessedCount() {
+        return (long) processedCounter.count();
+    }
+
+    public long getRejectedCount() {
+        return (long) rejectedCounter.count();
+    }
+
+    private void work() {
+        List<T> batch = new ArrayList<>(DRAIN_BATCH);
+        while (running) {
+            try {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                for (T item : batch) {
+                    handle(item);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void handle(T item) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            handler.handle(item);
+            processedCounter.increment();
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Error in pipeline stage {}", name, e);
+        } finally {
+            handlerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.commerceguard.pipeline.stage;
+
+@FunctionalInterface
+public interface StageHandler<T> {
+
+    void handle(T item) throws Exception;
+}
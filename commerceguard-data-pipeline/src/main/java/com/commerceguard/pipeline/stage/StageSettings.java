@@ -0,0 +1,26 @@
+package com.commerceguard.pipeline.stage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageSettings {
+
+    private int capacity = 10000;
+
+    /** Worker threads, or concurrent virtual-thread workers, draining the queue. */
+    private int concurrency = 1;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    private Duration offerTimeout = Duration.ofSeconds(5);
+
+    public StageSettings(int capacity, int concurrency, OverflowPolicy overflowPolicy) {
+        this(capacity, concurrency, overflowPolicy, Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,190 @@
+package com.commerceguard.pipeline.stream;
+
+import com.commerceguard.common.stream.MonitoringResultStream;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link ResultStream} backed by a Redis stream and consumer group. Works on the raw
+ * connection so payloads arrive as the bytes the monitoring service wrote, without a
+ * string round trip.
+ */
+@Component
+public class RedisResultStream implements ResultStream {
+
+    private static final byte[] PAYLOAD_FIELD = MonitoringResultStream.PAYLOAD.getBytes(StandardCharsets.UTF_8);
+    /** XPENDING pages scanned per claim, each of up to {@code count} entries. */
+    private static final int MAX_PENDING_PAGES = 10;
+
+    private final StringRedisTemplate redisTemplate;
+    private final byte[] key;
+
+    public RedisResultStream(StringRedisTemplate redisTemplate, ResultStreamProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.key = properties.getKey().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void createGroup(String group) {
+        try {
+            // MKSTREAM, so the group can be created before the first result is published.
+            execute(streams -> streams.xGroupCreate(key, group, ReadOffset.from("0"), true));
+        } catch (DataAccessException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message == null || !message.contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<StreamEntry> readNew(String group, String consumer, int count, Duration block) {
+        List<ByteRecord> records = execute(streams -> streams.xReadGroup(Consumer.from(group, consumer),
+            StreamReadOptions.empty().count(count).block(block),
+            StreamOffset.create(key, ReadOffset.lastConsumed())));
+        return toEntries(records, Map.of(), 1);
+    }
+
+    @Override
+    public List<StreamEntry> readPending(String group, String consumer, String afterId, int count) {
+        List<ByteRecord> records = execute(streams -> streams.xReadGroup(Consumer.from(group, consumer),
+            StreamReadOptions.empty().count(count),
+            StreamOffset.create(key, ReadOffset.from(afterId))));
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+        // XREADGROUP does not report delivery counts; XPENDING has them, including this read.
+        Range<String> read = Range.closed(records.get(0).getId().getValue(),
+            records.get(records.size() - 1).getId().getValue());
+        PendingMessages pending = execute(streams ->
+            streams.xPending(key, group, consumer, read, (long) records.size()));
+        Map<String, Long> deliveries = new HashMap<>();
+        for (PendingMessage message : pending) {
+            deliveries.put(message.getIdAsString(), message.getTotalDeliveryCount());
+        }
+        return toEntries(records, deliveries, 1);
+    }
+
+    @Override
+    public List<StreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count,
+                                       Predicate<String> inFlight) {
+        Map<String, Long> deliveries = new HashMap<>();
+        List<RecordId> ids = new ArrayList<>();
+        Range<String> range = Range.unbounded();
+        // Entries still in flight here can fill whole pages while the persist queue is long.
+        for (int page = 0; page < MAX_PENDING_PAGES && ids.size() < count; page++) {
+            Range<String> pageRange = range;
+            PendingMessages pending = execute(streams -> streams.xPending(key, group, pageRange, (long) count));
+            for (PendingMessage message : pending) {
+                if (ids.size() < count
+                        && message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0
+                        && !inFlight.test(message.getIdAsString())) {
+                    deliveries.put(message.getIdAsString(), message.getTotalDeliveryCount() + 1);
+                    ids.add(message.getId());
+                }
+            }
+            if (pending.size() < count) {
+                break;
+            }
+            range = Range.of(Range.Bound.exclusive(pending.get(pending.size() - 1).getIdAsString()),
+                Range.Bound.unbounded());
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ByteRecord> records = execute(streams -> streams.xClaim(key, group, consumer,
+            XClaimOptions.minIdle(minIdle).ids(ids.toArray(RecordId[]::new))));
+        List<String> unclaimed = new ArrayList<>(deliveries.keySet());
+        if (records != null) {
+            for (ByteRecord record : records) {
+                unclaimed.remove(record.getId().getValue());
+            }
+        }
+        acknowledge(group, trimmed(unclaimed));
+        return toEntries(records, deliveries, 0);
+    }
+
+    /**
+     * Returns the ids among {@code unclaimed} that are no longer in the stream. XCLAIM also
+     * skips entries another consumer claimed or acknowledged since XPENDING ran; those are
+     * still in the stream and must stay pending for their new owner.
+     */
+    private List<String> trimmed(List<String> unclaimed) {
+        List<String> trimmed = new ArrayList<>(unclaimed.size());
+        for (String id : unclaimed) {
+            List<ByteRecord> existing = execute(streams ->
+                streams.xRange(key, Range.closed(id, id), Limit.limit().count(1)));
+            if (existing == null || existing.isEmpty()) {
+                trimmed.add(id);
+            }
+        }
+        return trimmed;
+    }
+
+    @Override
+    public void acknowledge(String group, List<String> ids) {
+        if (!ids.isEmpty()) {
+            execute(streams -> streams.xAck(key, group, ids.toArray(String[]::new)));
+        }
+    }
+
+    @Override
+    public void removeConsumerIfIdle(String group, String consumer) {
+        PendingMessages pending = execute(streams -> streams.xPending(key, group, consumer, Range.unbounded(), 1L));
+        if (pending.isEmpty()) {
+            execute(streams -> streams.xGroupDelConsumer(key, Consumer.from(group, consumer)));
+        }
+    }
+
+    private <T> T execute(Function<RedisStreamCommands, T> command) {
+        return redisTemplate.execute((RedisCallback<T>) connection -> command.apply(connection.streamCommands()));
+    }
+
+    private static List<StreamEntry> toEntries(List<ByteRecord> records, Map<String, Long> deliveries,
+                                               long defaultDeliveries) {
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+        List<StreamEntry> entries = new ArrayList<>(records.size());
+        for (ByteRecord record : records) {
+            String id = record.getId().getValue();
+            entries.add(new StreamEntry(id, payload(record), deliveries.getOrDefault(id, defaultDeliveries)));
+        }
+        return entries;
+    }
+
+    private static byte[] payload(ByteRecord record) {
+        // byte[] keys have identity equality, so the field is found by content.
+        for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+            if (Arrays.equals(field.getKey(), PAYLOAD_FIELD)) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+}
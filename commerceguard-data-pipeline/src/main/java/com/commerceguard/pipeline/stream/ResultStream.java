@@ -0,0 +1,39 @@
+package com.commerceguard.pipeline.stream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Consumer-group view of the monitoring result stream. Entries handed to a consumer stay
+ * pending in the group until they are acknowledged, so nothing is lost when a consumer
+ * dies between reading and processing; another consumer can claim them once they have
+ * been idle long enough.
+ */
+public interface ResultStream {
+
+    /** Creates the group at the start of the stream unless it exists already. */
+    void createGroup(String group);
+
+    /** Reads entries not yet delivered to any consumer of the group, waiting up to {@code block}. */
+    List<StreamEntry> readNew(String group, String consumer, int count, Duration block);
+
+    /**
+     * Re-reads entries already delivered to {@code consumer} but not acknowledged, starting
+     * after {@code afterId} ({@code "0"} for the first page). Each entry carries its delivery
+     * count including this read.
+     */
+    List<StreamEntry> readPending(String group, String consumer, String afterId, int count);
+
+    /**
+     * Takes over entries that have been pending with any consumer for at least {@code minIdle},
+     * except those {@code inFlight} accepts, which this instance is still processing.
+     */
+    List<StreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count,
+                                Predicate<String> inFlight);
+
+    void acknowledge(String group, List<String> ids);
+
+    /** Removes {@code consumer} from the group if it has no pending entries left. */
+    void removeConsumerIfIdle(String group, String consumer);
+}
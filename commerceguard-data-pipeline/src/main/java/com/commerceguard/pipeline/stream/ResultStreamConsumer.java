@@ -0,0 +1,242 @@
+package com.commerceguard.pipeline.stream;
+
+import com.commerceguard.common.wire.MonitoringResultDecoder;
+import com.commerceguard.pipeline.model.MonitoringData;
+import com.commerceguard.pipeline.service.DataProcessingPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds monitoring results from the Redis stream into the {@link DataProcessingPipeline}.
+ *
+ * <p>Every pipeline instance joins the same consumer group under its own name, so adding
+ * instances spreads the stream across them. Entries are read in batches and acknowledged by
+ * the {@link StreamAcknowledger} once the persist stage has stored them. An entry the
+ * pipeline rejects is kept and resubmitted before anything else is read. Entries left pending
+ * by an instance that stopped or crashed, or dropped by a full persist queue, are claimed
+ * after {@code claimMinIdle}, and one that keeps coming back is dropped after
+ * {@code maxDeliveries}. Nothing is read while the pipeline is backpressured, so the backlog
+ * waits in Redis rather than in memory.
+ *
+ * <p>Entries this instance is still processing are never claimed back, however long they wait
+ * for the persist stage. Entries delivered more than once are marked as redelivered, and the
+ * pipeline only persists them, since the other sinks may have seen them already.
+ */
+@Slf4j
+@Component
+public class ResultStreamConsumer {
+
+    private final ResultStream stream;
+    private final DataProcessingPipeline pipeline;
+    private final StreamAcknowledger acknowledger;
+    private final ResultStreamProperties properties;
+    private final String consumerName;
+    private final Thread reader;
+    /** Only used by the reader thread. */
+    private final MonitoringResultDecoder decoder = new MonitoringResultDecoder();
+    /**
+     * Entries read but not yet accepted by the pipeline; at most one batch, since nothing new
+     * is read until it is empty. Only used by the reader thread.
+     */
+    private final Deque<StreamEntry> backlog = new ArrayDeque<>();
+
+    private final Counter consumedCounter;
+    private final Counter claimedCounter;
+    private final Counter deadLetterCounter;
+    private final Counter readErrorCounter;
+
+    private volatile boolean running;
+
+    public ResultStreamConsumer(
+            ResultStream stream,
+            DataProcessingPipeline pipeline,
+            StreamAcknowledger acknowledger,
+            ResultStreamProperties properties,
+            MeterRegistry meterRegistry) {
+        this.stream = stream;
+        this.pipeline = pipeline;
+        this.acknowledger = acknowledger;
+        this.properties = properties;
+        this.consumerName = properties.getConsumerName() != null
+            ? properties.getConsumerName()
+            : defaultConsumerName();
+
+        this.consumedCounter = meterRegistry.counter("commerceguard.stream.results.consumed");
+        this.claimedCounter = meterRegistry.counter("commerceguard.stream.results.claimed");
+        this.deadLetterCounter = meterRegistry.counter("commerceguard.stream.results.dead");
+        this.readErrorCounter = meterRegistry.counter("commerceguard.stream.read.errors");
+
+        this.reader = new Thread(this::readLoop, "result-stream-reader");
+        reader.setDaemon(true);
+        if (properties.isEnabled()) {
+            running = true;
+            reader.start();
+        }
+    }
+
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        reader.interrupt();
+        try {
+            reader.join(properties.getBlockTimeout().toMillis() * 2);
+            stream.removeConsumerIfIdle(properties.getGroup(), consumerName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Could not remove stream consumer {}: {}", consumerName, e.getMessage());
+        }
+    }
+
+    private void readLoop() {
+        String group = properties.getGroup();
+        boolean groupReady = false;
+        boolean ownPendingRecovered = false;
+        String recoveredUpTo = "0";
+        long nextClaimAt = 0;
+        while (running) {
+            try {
+                if (!groupReady) {
+                    stream.createGroup(group);
+                    groupReady = true;
+                }
+                if (pipeline.isBackpressured()) {
+                    Thread.sleep(properties.getRetryPause().toMillis());
+                    continue;
+                }
+                if (!backlog.isEmpty()) {
+                    submitBacklog();
+                    continue;
+                }
+                if (!ownPendingRecovered) {
+                    // Entries this consumer read before a restart but never acknowledged, a page at a
+                    // time: submitted entries stay pending until they are persisted.
+                    List<StreamEntry> pending = stream.readPending(group, consumerName, recoveredUpTo,
+                        properties.getBatchSize());
+                    if (pending.isEmpty()) {
+                        ownPendingRecovered = true;
+                    } else {
+                        recoveredUpTo = pending.get(pending.size() - 1).id();
+                        submit(pending);
+                    }
+                    continue;
+                }
+                if (System.currentTimeMillis() >= nextClaimAt) {
+                    List<StreamEntry> claimed = stream.claimIdle(group, consumerName,
+                        properties.getClaimMinIdle(), properties.getBatchSize(), acknowledger::isInFlight);
+                    claimedCounter.increment(claimed.size());
+                    submit(claimed);
+                    if (claimed.isEmpty()) {
+                        nextClaimAt = System.currentTimeMillis() + properties.getClaimInterval().toMillis();
+                    }
+                    continue;
+                }
+                submit(stream.readNew(group, consumerName, properties.getBatchSize(), properties.getBlockTimeout()));
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                readErrorCounter.increment();
+                log.error("Error reading from result stream {}", properties.getKey(), e);
+                try {
+                    Thread.sleep(properties.getRetryPause().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void submit(List<StreamEntry> entries) {
+        backlog.addAll(entries);
+        submitBacklog();
+    }
+
+    /**
+     * Submits backlog entries in order and acknowledges those that are dropped here; submitted
+     * entries are acknowledged once persisted. Stops at the first entry the pipeline rejects,
+     * keeping it and the rest in the backlog. They are retried from there rather than re-read
+     * from the stream, so being turned away by a busy pipeline does not add deliveries that
+     * count toward {@code maxDeliveries}.
+     */
+    private void submitBacklog() {
+        List<String> dropped = new ArrayList<>();
+        int submitted = 0;
+        StreamEntry entry;
+        while ((entry = backlog.peekFirst()) != null) {
+            if (entry.deliveryCount() > properties.getMaxDeliveries()) {
+                deadLetterCounter.increment();
+                log.warn("Dropping stream entry {} after {} deliveries", entry.id(), entry.deliveryCount() - 1);
+                dropped.add(backlog.removeFirst().id());
+                continue;
+            }
+            MonitoringData data;
+            try {
+                data = toMonitoringData(entry.payload());
+            } catch (RuntimeException e) {
+                deadLetterCounter.increment();
+                log.warn("Dropping malformed stream entry {}: {}", entry.id(), e.getMessage());
+                dropped.add(backlog.removeFirst().id());
+                continue;
+            }
+            data.setStreamId(entry.id());
+            data.setRedelivered(entry.deliveryCount() > 1);
+            acknowledger.track(entry.id());
+            if (!pipeline.submit(data)) {
+                acknowledger.release(entry.id());
+                break;
+            }
+            backlog.removeFirst();
+            submitted++;
+        }
+        stream.acknowledge(properties.getGroup(), dropped);
+        consumedCounter.increment(submitted);
+    }
+
+    private MonitoringData toMonitoringData(byte[] payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("entry has no payload");
+        }
+        decoder.wrap(payload);
+        MonitoringData data = new MonitoringData(decoder.websiteId(), decoder.region(), decoder.timestamp(),
+            decoder.status(), decoder.responseTime(), decoder.error());
+        data.setTimeToFirstByte(timing(decoder.timeToFirstByte()));
+        data.setDomContentLoaded(timing(decoder.domContentLoaded()));
+        data.setLargestContentfulPaint(timing(decoder.largestContentfulPaint()));
+        return data;
+    }
+
+    private static Long timing(long millis) {
+        return millis < 0 ? null : millis;
+    }
+
+    private static String defaultConsumerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "pipeline";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.commerceguard.pipeline.stream;
+
+import com.commerceguard.common.stream.MonitoringResultStream;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the result stream reader. All pipeline instances share one consumer group,
+ * so each result is processed by exactly one of them.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.stream")
+public class ResultStreamProperties {
+
+    private boolean enabled = true;
+
+    private String key = MonitoringResultStream.DEFAULT_KEY;
+
+    private String group = "data-pipeline";
+
+    /**
+     * Name of this instance within the group. Defaults to the host name plus a random
+     * suffix; set it to a stable name to resume the instance's own pending entries after
+     * a restart instead of waiting for them to be claimed.
+     */
+    private String consumerName;
+
+    /** Entries per XREADGROUP. */
+    private int batchSize = 500;
+
+    /** How long a read waits for new entries. */
+    private Duration blockTimeout = Duration.ofSeconds(2);
+
+    /** How often pending entries of other consumers are checked. */
+    private Duration claimInterval = Duration.ofSeconds(30);
+
+    /** How long an entry must have been pending before another consumer takes it over. */
+    private Duration claimMinIdle = Duration.ofMinutes(1);
+
+    /**
+     * Deliveries after which an entry that keeps failing is acknowledged and dropped. Retries
+     * of entries the pipeline turned away while busy are not deliveries.
+     */
+    private int maxDeliveries = 5;
+
+    /** Longest time a persisted entry waits before its acknowledgement is sent. */
+    private Duration ackInterval = Duration.ofMillis(200);
+
+    /** Pause before reading again while the pipeline is backpressured or Redis is failing. */
+    private Duration retryPause = Duration.ofMillis(500);
+}
@@ -0,0 +1,129 @@
+package com.commerceguard.pipeline.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acknowledges stream entries once the pipeline has persisted them, batching the ids into
+ * one XACK per {@code batchSize} entries or per {@code ackInterval}, whichever comes first.
+ *
+ * <p>An entry that never gets here, because a full persist queue dropped it or the write
+ * failed, stays pending and is claimed again after {@code claimMinIdle}. Results are
+ * therefore processed at least once.
+ *
+ * <p>Entries are {@link #track tracked} from the moment they are submitted until their XACK
+ * has been sent or they are {@link #release released}, so the consumer does not claim back
+ * entries this instance is still working on however long the persist queue is.
+ */
+@Slf4j
+@Component
+public class StreamAcknowledger {
+
+    private final ResultStream stream;
+    private final ResultStreamProperties properties;
+    private final ScheduledExecutorService flusher;
+    private final Counter errorCounter;
+
+    /** Guarded by {@code this}. */
+    private List<String> buffer = new ArrayList<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public StreamAcknowledger(ResultStream stream, ResultStreamProperties properties, MeterRegistry meterRegistry) {
+        this.stream = stream;
+        this.properties = properties;
+        this.errorCounter = meterRegistry.counter("commerceguard.stream.ack.errors");
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-stream-acknowledger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getAckInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues {@code streamId} for acknowledgement. {@code null} ids, of results that were not
+     * read from the stream, are ignored.
+     */
+    public void acknowledge(String streamId) {
+        if (streamId == null) {
+            return;
+        }
+        List<String> batch = null;
+        synchronized (this) {
+            buffer.add(streamId);
+            if (buffer.size() >= properties.getBatchSize()) {
+                batch = take();
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /** Marks {@code streamId} as in flight in this instance until it is acknowledged or released. */
+    public void track(String streamId) {
+        inFlight.add(streamId);
+    }
+
+    /**
+     * Stops tracking an entry that was dropped before it was persisted, leaving it pending so
+     * that it is claimed again. {@code null} ids are ignored.
+     */
+    public void release(String streamId) {
+        if (streamId != null) {
+            inFlight.remove(streamId);
+        }
+    }
+
+    public boolean isInFlight(String streamId) {
+        return inFlight.contains(streamId);
+    }
+
+    public void flush() {
+        List<String> batch;
+        synchronized (this) {
+            batch = take();
+        }
+        send(batch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private List<String> take() {
+        List<String> batch = buffer;
+        buffer = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            stream.acknowledge(properties.getGroup(), ids);
+        } catch (Exception e) {
+            // The entries stay pending and are claimed again later.
+            errorCounter.increment();
+            log.warn("Could not acknowledge {} stream entries: {}", ids.size(), e.getMessage());
+        } finally {
+            ids.forEach(inFlight::remove);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.commerceguard.pipeline.stream;
+
+/**
+ * One entry read from the result stream.
+ *
+ * @param payload       the encoded result, or {@code null} if the entry has no payload field
+ * @param deliveryCount how often the entry has been delivered to the group, including this
+ *                      time; {@code 0} when the stream did not report it
+ */
+public record StreamEntry(String id, byte[] payload, long deliveryCount) {
+}
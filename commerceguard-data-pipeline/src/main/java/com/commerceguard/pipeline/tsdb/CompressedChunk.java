@@ -0,0 +1,228 @@
+package com.commerceguard.pipeline.tsdb;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of (timestamp, value) points encoded the way Gorilla does it:
+ * timestamps as delta-of-delta with variable-width buckets, values as the XOR with the
+ * previous value storing only the meaningful bits. Regular probe intervals compress to a
+ * couple of bits per timestamp, and repeated or slowly changing values to a few bits each.
+ *
+ * <p>Bits are packed into a growable {@code long[]}. Timestamps must be non-decreasing;
+ * {@link #append} returns {@code false} when the chunk is full or a point cannot be
+ * encoded, and the caller starts a new chunk. Not thread-safe.
+ */
+class CompressedChunk {
+
+    private static final int INITIAL_WORDS = 16;
+
+    private final int maxPoints;
+    private long[] words = new long[INITIAL_WORDS];
+    private long bitLength;
+
+    private int size;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeadingZeros = Integer.MAX_VALUE;
+    private int lastTrailingZeros;
+
+    CompressedChunk(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    boolean append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (size == 0) {
+            writeBits(timestamp, 64);
+            writeBits(valueBits, 64);
+            firstTimestamp = timestamp;
+        } else {
+            if (size >= maxPoints || timestamp < lastTimestamp) {
+                return false;
+            }
+            long delta = timestamp - lastTimestamp;
+            long deltaOfDelta = delta - lastDelta;
+            if (deltaOfDelta < Integer.MIN_VALUE || deltaOfDelta > Integer.MAX_VALUE) {
+                return false;
+            }
+            writeTimestamp(deltaOfDelta);
+            writeValue(valueBits);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastValueBits = valueBits;
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /** Bytes held by the encoded data, for capacity accounting. */
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /**
+     * Calls {@code visitor} for every point with {@code from <= timestamp < to}.
+     */
+    void forEach(long from, long to, PointVisitor visitor) {
+        if (size == 0 || lastTimestamp < from || firstTimestamp >= to) {
+            return;
+        }
+        Reader reader = new Reader();
+        long timestamp = reader.readBits(64);
+        long valueBits = reader.readBits(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; ; i++) {
+            if (timestamp >= to) {
+                return;
+            }
+            if (timestamp >= from) {
+                visitor.visit(timestamp, Double.longBitsToDouble(valueBits));
+            }
+            if (i == size - 1) {
+                return;
+            }
+            delta += reader.readDeltaOfDelta();
+            timestamp += delta;
+            if (reader.readBit() == 1) {
+                if (reader.readBit() == 1) {
+                    leading = (int) reader.readBits(5);
+                    int meaningful = (int) reader.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                long xor = reader.readBits(64 - leading - trailing) << trailing;
+                valueBits ^= xor;
+            }
+        }
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 32);
+        }
+    }
+
+    private void writeValue(long valueBits) {
+        long xor = valueBits ^ lastValueBits;
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeadingZeros != Integer.MAX_VALUE && leading >= lastLeadingZeros && trailing >= lastTrailingZeros) {
+            // Fits in the previous window: reuse it.
+            writeBits(0b10, 2);
+            int meaningful = 64 - lastLeadingZeros - lastTrailingZeros;
+            writeBits(xor >>> lastTrailingZeros, meaningful);
+            return;
+        }
+        int meaningful = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, 5);
+        writeBits(meaningful - 1, 6);
+        writeBits(xor >>> trailing, meaningful);
+        lastLeadingZeros = leading;
+        lastTrailingZeros = trailing;
+    }
+
+    private void writeBits(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int wordIndex = (int) (bitLength >>> 6);
+        int bitOffset = (int) (bitLength & 63);
+        if (wordIndex + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int free = 64 - bitOffset;
+        if (bits <= free) {
+            words[wordIndex] |= masked << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[wordIndex] |= masked >>> spill;
+            words[wordIndex + 1] |= masked << (64 - spill);
+        }
+        bitLength += bits;
+    }
+
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(long timestamp, double value);
+    }
+
+    private final class Reader {
+        private long position;
+
+        int readBit() {
+            return (int) readBits(1);
+        }
+
+        long readBits(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int wordIndex = (int) (position >>> 6);
+            int bitOffset = (int) (position & 63);
+            int available = 64 - bitOffset;
+            long result;
+            if (bits <= available) {
+                result = words[wordIndex] >>> (available - bits);
+            } else {
+                int spill = bits - available;
+                result = (words[wordIndex] << spill) | (words[wordIndex + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return bits == 64 ? result : result & ((1L << bits) - 1);
+        }
+
+        long readDeltaOfDelta() {
+            if (readBit() == 0) {
+                return 0;
+            }
+            if (readBit() == 0) {
+                return signExtend(readBits(7), 7);
+            }
+            if (readBit() == 0) {
+                return signExtend(readBits(9), 9);
+            }
+            if (readBit() == 0) {
+                return signExtend(readBits(12), 12);
+            }
+            return signExtend(readBits(32), 32);
+        }
+
+        private long signExtend(long value, int bits) {
+            int shift = 64 - bits;
+            return (value << shift) >> shift;
+        }
+    }
+}
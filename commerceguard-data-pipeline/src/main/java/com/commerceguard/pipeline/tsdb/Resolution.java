@@ -0,0 +1,32 @@
+package com.commerceguard.pipeline.tsdb;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollup resolutions kept for every series; how long each is kept is configured in
+ * {@link TimeSeriesProperties}. Percentile sketches are only kept at hour and day
+ * resolution: a sketch per minute bucket would cost far more memory than the raw points it
+ * summarizes, and ranges short enough to want minute precision are answered from raw data
+ * anyway.
+ */
+public enum Resolution {
+    MINUTE(TimeUnit.MINUTES.toMillis(1), false),
+    HOUR(TimeUnit.HOURS.toMillis(1), true),
+    DAY(TimeUnit.DAYS.toMillis(1), true);
+
+    private final long widthMillis;
+    private final boolean keepsSketch;
+
+    Resolution(long widthMillis, boolean keepsSketch) {
+        this.widthMillis = widthMillis;
+        this.keepsSketch = keepsSketch;
+    }
+
+    public long getWidthMillis() {
+        return widthMillis;
+    }
+
+    public boolean keepsSketch() {
+        return keepsSketch;
+    }
+}
@@ -0,0 +1,11 @@
+package com.commerceguard.pipeline.tsdb;
+
+/**
+ * One downsampled bucket of a series, as served to dashboard charts.
+ */
+public record RollupPoint(long timestamp, long count, double min, double max, double sum) {
+
+    public double average() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
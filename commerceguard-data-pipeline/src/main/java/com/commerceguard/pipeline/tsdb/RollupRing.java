@@ -0,0 +1,134 @@
+package com.commerceguard.pipeline.tsdb;
+
+import com.commerceguard.pipeline.sketch.QuantileSketch;
+
+import java.util.List;
+
+/**
+ * Ring of rollup buckets for one series at one {@link Resolution}, stored as parallel
+ * primitive columns. A slot is reused once its bucket falls out of retention.
+ *
+ * <p>Slots are allocated in blocks of {@link #BLOCK_SIZE} on first write, so a new or
+ * sparsely probed series only pays for the part of its retention it actually covers
+ * instead of the full ring up front. Not thread-safe; guarded by the owning {@link TimeSeries}.
+ */
+class RollupRing {
+
+    static final int BLOCK_SIZE = 64;
+
+    private final long width;
+    private final int capacity;
+    private final boolean keepsSketch;
+    private final Block[] blocks;
+
+    RollupRing(Resolution resolution, long retentionMillis, boolean keepsSketch) {
+        this.width = resolution.getWidthMillis();
+        this.capacity = (int) Math.max(1, (retentionMillis + width - 1) / width);
+        this.keepsSketch = keepsSketch;
+        this.blocks = new Block[(capacity + BLOCK_SIZE - 1) / BLOCK_SIZE];
+    }
+
+    void add(long timestamp, double value) {
+        long start = Math.floorDiv(timestamp, width) * width;
+        int slot = slot(start);
+        Block block = blocks[slot / BLOCK_SIZE];
+        if (block == null) {
+            block = new Block(keepsSketch);
+            blocks[slot / BLOCK_SIZE] = block;
+        }
+        int i = slot % BLOCK_SIZE;
+        if (block.count[i] == 0 || block.bucketStart[i] < start) {
+            block.bucketStart[i] = start;
+            block.count[i] = 0;
+            block.min[i] = value;
+            block.max[i] = value;
+            block.sum[i] = 0;
+            if (block.sketches != null) {
+                block.sketches[i] = new QuantileSketch();
+            }
+        } else if (block.bucketStart[i] > start) {
+            // Older than the retention of this ring.
+            return;
+        }
+        block.count[i]++;
+        block.sum[i] += value;
+        block.min[i] = Math.min(block.min[i], value);
+        block.max[i] = Math.max(block.max[i], value);
+        if (block.sketches != null) {
+            block.sketches[i].add(value);
+        }
+    }
+
+    /**
+     * Adds every bucket that starts in {@code [from, to)}, after aligning {@code from} down
+     * to the bucket width, so partially covered edge buckets are counted whole.
+     */
+    void summarize(long from, long to, SeriesSummary summary) {
+        forEachBucket(from, to, (block, i) -> {
+            summary.addAggregate(block.count[i], block.sum[i], block.min[i], block.max[i]);
+            if (block.sketches != null) {
+                summary.addSketch(block.sketches[i]);
+            }
+        });
+    }
+
+    void points(long from, long to, List<RollupPoint> points) {
+        forEachBucket(from, to, (block, i) -> points.add(
+            new RollupPoint(block.bucketStart[i], block.count[i], block.min[i], block.max[i], block.sum[i])));
+    }
+
+    long getRetentionMillis() {
+        return width * capacity;
+    }
+
+    /** Slots allocated so far; at most the capacity rounded up to whole blocks. */
+    int allocatedSlots() {
+        int slots = 0;
+        for (Block block : blocks) {
+            if (block != null) {
+                slots += BLOCK_SIZE;
+            }
+        }
+        return slots;
+    }
+
+    private void forEachBucket(long from, long to, SlotVisitor visitor) {
+        long first = Math.floorDiv(from, width) * width;
+        long buckets = Math.min(capacity, Math.floorDiv(to - 1 - first, width) + 1);
+        long start = first;
+        if ((to - first) / width > capacity) {
+            // Only the most recent `capacity` buckets can still be held.
+            start = (Math.floorDiv(to - 1, width) - capacity + 1) * width;
+        }
+        for (long n = 0; n < buckets; n++, start += width) {
+            int slot = slot(start);
+            Block block = blocks[slot / BLOCK_SIZE];
+            int i = slot % BLOCK_SIZE;
+            if (block != null && block.count[i] > 0 && block.bucketStart[i] == start) {
+                visitor.visit(block, i);
+            }
+        }
+    }
+
+    private int slot(long start) {
+        return (int) Math.floorMod(Math.floorDiv(start, width), (long) capacity);
+    }
+
+    private static final class Block {
+        final long[] bucketStart = new long[BLOCK_SIZE];
+        final long[] count = new long[BLOCK_SIZE];
+        final double[] min = new double[BLOCK_SIZE];
+        final double[] max = new double[BLOCK_SIZE];
+        final double[] sum = new double[BLOCK_SIZE];
+        final QuantileSketch[] sketches;
+
+        Block(boolean keepsSketch) {
+            this.sketches = keepsSketch ? new QuantileSketch[BLOCK_SIZE] : null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotVisitor {
+        void visit(Block block, int index);
+    }
+}
@@ -0,0 +1,65 @@
+package com.commerceguard.pipeline.tsdb;
+
+import com.commerceguard.pipeline.sketch.QuantileSketch;
+
+/**
+ * Count, sum, extremes and quantile sketch of the points in a range. Summaries of
+ * different series or ranges can be merged.
+ */
+public class SeriesSummary {
+
+    private final QuantileSketch sketch = new QuantileSketch();
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        sketch.add(value);
+        addAggregate(1, value, value, value);
+    }
+
+    void addAggregate(long count, double sum, double min, double max) {
+        this.count += count;
+        this.sum += sum;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+    }
+
+    void addSketch(QuantileSketch other) {
+        sketch.merge(other);
+    }
+
+    public void merge(SeriesSummary other) {
+        addAggregate(other.count, other.sum, other.min, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double quantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    public QuantileSketch getSketch() {
+        return sketch;
+    }
+}
@@ -0,0 +1,105 @@
+package com.commerceguard.pipeline.tsdb;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * One metric of one site: recent raw points in compressed chunks plus a rollup ring per
+ * {@link Resolution}. All access is synchronized on the instance; contention is limited to
+ * writers and readers of the same series.
+ */
+class TimeSeries {
+
+    private final long rawRetentionMillis;
+    private final int chunkSize;
+    private final Deque<CompressedChunk> chunks = new ArrayDeque<>();
+    private final RollupRing[] rollups;
+
+    private long latestTimestamp = Long.MIN_VALUE;
+
+    /**
+     * @param sketches whether rollups keep quantile sketches at the resolutions that support
+     *                 them; pointless for series whose values are only ever 0 or 1
+     */
+    TimeSeries(TimeSeriesProperties properties, boolean sketches) {
+        this.rawRetentionMillis = properties.getRawRetention().toMillis();
+        this.chunkSize = properties.getChunkSize();
+        Resolution[] resolutions = Resolution.values();
+        this.rollups = new RollupRing[resolutions.length];
+        for (Resolution resolution : resolutions) {
+            rollups[resolution.ordinal()] = new RollupRing(resolution,
+                properties.getRetention(resolution).toMillis(), sketches && resolution.keepsSketch());
+        }
+    }
+
+    synchronized void add(long timestamp, double value) {
+        for (RollupRing rollup : rollups) {
+            rollup.add(timestamp, value);
+        }
+        if (timestamp < latestTimestamp) {
+            // Late points only make it into the rollups; chunks are strictly append-only.
+            return;
+        }
+        CompressedChunk head = chunks.peekLast();
+        if (head == null || !head.append(timestamp, value)) {
+            head = new CompressedChunk(chunkSize);
+            head.append(timestamp, value);
+            chunks.addLast(head);
+        }
+        latestTimestamp = timestamp;
+        evictExpiredChunks();
+    }
+
+    /**
+     * Adds the points in {@code [from, to)} to {@code summary}. Raw points are used while
+     * the range is still within raw retention; older ranges are answered from the finest
+     * rollup that covers them, at bucket granularity.
+     */
+    synchronized void summarize(long from, long to, SeriesSummary summary) {
+        if (latestTimestamp == Long.MIN_VALUE) {
+            return;
+        }
+        if (from >= latestTimestamp - rawRetentionMillis) {
+            for (CompressedChunk chunk : chunks) {
+                chunk.forEach(from, to, (timestamp, value) -> summary.add(value));
+            }
+            return;
+        }
+        Resolution resolution = latestTimestamp - from <= rollups[Resolution.HOUR.ordinal()].getRetentionMillis()
+            ? Resolution.HOUR
+            : Resolution.DAY;
+        rollups[resolution.ordinal()].summarize(from, to, summary);
+    }
+
+    synchronized void rollups(Resolution resolution, long from, long to, List<RollupPoint> points) {
+        rollups[resolution.ordinal()].points(from, to, points);
+    }
+
+    synchronized long getLatestTimestamp() {
+        return latestTimestamp;
+    }
+
+    synchronized int allocatedRollupSlots() {
+        int slots = 0;
+        for (RollupRing rollup : rollups) {
+            slots += rollup.allocatedSlots();
+        }
+        return slots;
+    }
+
+    synchronized long sizeInBytes() {
+        long bytes = 0;
+        for (CompressedChunk chunk : chunks) {
+            bytes += chunk.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void evictExpiredChunks() {
+        long cutoff = latestTimestamp - rawRetentionMillis;
+        while (chunks.size() > 1 && chunks.peekFirst().getLastTimestamp() < cutoff) {
+            chunks.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.commerceguard.pipeline.tsdb;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.tsdb")
+public class TimeSeriesProperties {
+
+    /** How long raw points are kept before queries fall back to rollups. */
+    private Duration rawRetention = Duration.ofHours(24);
+
+    /** Points per compressed chunk; smaller chunks evict more precisely but cost more headers. */
+    private int chunkSize = 1024;
+
+    /** How long minute rollups are kept for charts. */
+    private Duration minuteRetention = Duration.ofDays(2);
+
+    /** How long hourly rollups are kept; older ranges are summarized from daily rollups. */
+    private Duration hourRetention = Duration.ofDays(92);
+
+    /** How long daily rollups are kept. */
+    private Duration dayRetention = Duration.ofDays(732);
+
+    public Duration getRetention(Resolution resolution) {
+        return switch (resolution) {
+            case MINUTE -> minuteRetention;
+            case HOUR -> hourRetention;
+            case DAY -> dayRetention;
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.commerceguard.pipeline.tsdb;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded per-site time-series store.
+ *
+ * <p>Each (site, metric) series keeps the last {@code rawRetention} of points in
+ * Gorilla-compressed chunks and maintains 1m/1h/1d rollups (count, min, max, sum, and a
+ * quantile sketch at 1h/1d except for availability) as points arrive. Rollup retention is
+ * configurable per resolution and rollup slots are allocated as buckets are first written.
+ * Range queries read raw points when the range is recent and otherwise merge a bounded
+ * number of rollup buckets, so a 30-day report touches about 720 hourly buckets per series
+ * regardless of probe frequency.
+ */
+@Component
+public class TimeSeriesStore {
+
+    public static final String RESPONSE_TIME = "response_time";
+    public static final String AVAILABILITY = "availability";
+
+    /** Series by site, then by metric name. */
+    private final Map<Long, Map<String, TimeSeries>> series = new ConcurrentHashMap<>();
+    private final TimeSeriesProperties properties;
+
+    public TimeSeriesStore(TimeSeriesProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("commerceguard.tsdb.series", this, TimeSeriesStore::getSeriesCount)
+            .register(meterRegistry);
+        Gauge.builder("commerceguard.tsdb.raw.bytes", this, TimeSeriesStore::getRawSizeInBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("commerceguard.tsdb.rollup.slots", this, TimeSeriesStore::getAllocatedRollupSlots)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Appends a point. Lookups use the caller's boxed id and do not allocate once the
+     * series exists.
+     */
+    public void record(Long websiteId, String metric, long timestamp, double value) {
+        Map<String, TimeSeries> siteSeries = series.get(websiteId);
+        if (siteSeries == null) {
+            siteSeries = series.computeIfAbsent(websiteId, id -> new ConcurrentHashMap<>());
+        }
+        TimeSeries timeSeries = siteSeries.get(metric);
+        if (timeSeries == null) {
+            timeSeries = siteSeries.computeIfAbsent(metric, this::newSeries);
+        }
+        timeSeries.add(timestamp, value);
+    }
+
+    /**
+     * Summarizes {@code metric} over {@code [from, to)} for one website, or for all
+     * websites when {@code websiteId} is {@code null}.
+     */
+    public SeriesSummary summarize(Long websiteId, String metric, Instant from, Instant to) {
+        SeriesSummary summary = new SeriesSummary();
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        if (websiteId != null) {
+            TimeSeries timeSeries = find(websiteId, metric);
+            if (timeSeries != null) {
+                timeSeries.summarize(fromMillis, toMillis, summary);
+            }
+            return summary;
+        }
+        for (Map<String, TimeSeries> siteSeries : series.values()) {
+            TimeSeries timeSeries = siteSeries.get(metric);
+            if (timeSeries != null) {
+                timeSeries.summarize(fromMillis, toMillis, summary);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Returns the rollup buckets of one series that start in {@code [from, to)}, oldest
+     * first, for charting.
+     */
+    public List<RollupPoint> rollups(long websiteId, String metric, Resolution resolution,
+                                     Instant from, Instant to) {
+        TimeSeries timeSeries = find(websiteId, metric);
+        if (timeSeries == null) {
+            return List.of();
+        }
+        List<RollupPoint> points = new ArrayList<>();
+        timeSeries.rollups(resolution, from.toEpochMilli(), to.toEpochMilli(), points);
+        return points;
+    }
+
+    public int getSeriesCount() {
+        int count = 0;
+        for (Map<String, TimeSeries> siteSeries : series.values()) {
+            count += siteSeries.size();
+        }
+        return count;
+    }
+
+    public long getRawSizeInBytes() {
+        long bytes = 0;
+        for (Map<String, TimeSeries> siteSeries : series.values()) {
+            for (TimeSeries timeSeries : siteSeries.values()) {
+                bytes += timeSeries.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    public long getAllocatedRollupSlots() {
+        long slots = 0;
+        for (Map<String, TimeSeries> siteSeries : series.values()) {
+            for (TimeSeries timeSeries : siteSeries.values()) {
+                slots += timeSeries.allocatedRollupSlots();
+            }
+        }
+        return slots;
+    }
+
+    private TimeSeries find(long websiteId, String metric) {
+        Map<String, TimeSeries> siteSeries = series.get(websiteId);
+        return siteSeries == null ? null : siteSeries.get(metric);
+    }
+
+    /** Availability is 0 or 1, so its percentiles say nothing its average does not. */
+    private TimeSeries newSeries(String metric) {
+        return new TimeSeries(properties, !AVAILABILITY.equals(metric));
+    }
+}
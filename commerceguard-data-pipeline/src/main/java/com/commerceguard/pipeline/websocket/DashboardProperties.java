@@ -0,0 +1,28 @@
+package com.commerceguard.pipeline.websocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.pipeline.dashboard")
+public class DashboardProperties {
+
+    /** Updates are coalesced per site and sent at most once per interval. */
+    private Duration frameInterval = Duration.ofMillis(250);
+
+    /** A session whose pending send exceeds this is disconnected. */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /** Per-session send buffer; a session that overflows it is disconnected. */
+    private int sendBufferSize = 512 * 1024;
+
+    /**
+     * Sites without an update for this long, such as deleted or deactivated ones, are dropped
+     * from snapshots. Must exceed the longest monitoring interval.
+     */
+    private Duration siteRetention = Duration.ofHours(1);
+}
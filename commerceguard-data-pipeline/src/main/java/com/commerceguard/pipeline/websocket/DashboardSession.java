@@ -0,0 +1,99 @@
+package com.commerceguard.pipeline.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-connection send and subscription state. The decorator serializes sends and bounds
+ * the buffer; on top of that a session has at most one frame outstanding, and a session
+ * that had to skip a frame is resynchronized with a full snapshot once it drains.
+ */
+class DashboardSession {
+
+    private static final int MAX_PENDING_ALERTS = 100;
+
+    private final ConcurrentWebSocketSessionDecorator session;
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+    private final Queue<String> pendingAlerts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean needsSnapshot = new AtomicBoolean(true);
+
+    DashboardSession(WebSocketSession session, DashboardProperties properties) {
+        this.session = new ConcurrentWebSocketSessionDecorator(
+            session,
+            (int) properties.getSendTimeLimit().toMillis(),
+            properties.getSendBufferSize(),
+            ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+    }
+
+    ConcurrentWebSocketSessionDecorator getSession() {
+        return session;
+    }
+
+    String getId() {
+        return session.getId();
+    }
+
+    boolean isOpen() {
+        return session.isOpen();
+    }
+
+    /** Topics this session is registered under; mirrors the handler's topic index. */
+    Set<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Holds an alert until the next frame reaches this session. Alerts are not part of
+     * snapshots, so they are kept across skipped frames, up to a bound.
+     */
+    void queueAlert(String alert) {
+        pendingAlerts.add(alert);
+        while (pendingAlerts.size() > MAX_PENDING_ALERTS) {
+            pendingAlerts.poll();
+        }
+    }
+
+    boolean hasPendingAlerts() {
+        return !pendingAlerts.isEmpty();
+    }
+
+    Queue<String> getPendingAlerts() {
+        return pendingAlerts;
+    }
+
+    /** Claims the session for one frame; fails while the previous frame is still being sent. */
+    boolean tryBeginSend() {
+        return sending.compareAndSet(false, true);
+    }
+
+    void endSend() {
+        sending.set(false);
+    }
+
+    boolean isSending() {
+        return sending.get();
+    }
+
+    boolean needsSnapshot() {
+        return needsSnapshot.get();
+    }
+
+    void setNeedsSnapshot(boolean needsSnapshot) {
+        this.needsSnapshot.set(needsSnapshot);
+    }
+
+    /**
+     * Takes the pending snapshot request, if any. A request made after this call stays
+     * pending, even while the snapshot claimed here is still being built.
+     */
+    boolean claimSnapshot() {
+        return needsSnapshot.compareAndSet(true, false);
+    }
+}
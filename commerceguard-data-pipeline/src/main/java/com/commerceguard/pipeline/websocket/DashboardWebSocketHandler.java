@@ -1,8 +1,16 @@
 package com.commerceguard.pipeline.websocket;
 
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
+import com.commerceguard.pipeline.alert.Alert;
 import com.commerceguard.pipeline.model.MonitoringData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -11,24 +19,133 @@ import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Pushes monitoring updates to dashboards in coalesced frames.
+ *
+ * <p>{@link #broadcastUpdate} only records the latest update per site. Every
+ * {@code frameInterval} the sites that changed are serialized once each, and every
+ * subscribed session gets a delta frame built from those fragments. Sessions send through
+ * their own bounded, thread-safe decorator on the send executor, so a slow socket never
+ * holds up ingestion or other sessions: while its previous frame is still in flight it
+ * skips frames, and it then receives a snapshot of its sites instead of the deltas it
+ * missed. A session that overflows its buffer or exceeds the send time limit is
+ * disconnected.
+ *
+ * <p>Clients choose what they receive with {@link SubscriptionRequest} messages (sites,
+ * regions, alerts). Updates are routed through a topic-to-sessions index, so the cost of a
+ * change is proportional to its subscribers. A session that has not subscribed yet
+ * receives every site, as before subscriptions existed.
+ *
+ * <p>The state of sites that stop reporting, e.g. because they were deleted or deactivated,
+ * is dropped after {@link DashboardProperties#getSiteRetention()}.
+ */
 @Slf4j
 @Component
 public class DashboardWebSocketHandler implements WebSocketHandler {
 
-    private final ConcurrentHashMap<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    static final String ALL_TOPIC = "*";
+    static final String ALERTS_TOPIC = "alerts";
+
+    private final ConcurrentHashMap<String, DashboardSession> sessions = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DashboardProperties properties;
+
+    private final Map<String, Set<DashboardSession>> subscribers = new ConcurrentHashMap<>();
+    private final Set<DashboardSession> awaitingSnapshot = ConcurrentHashMap.newKeySet();
+    private final Set<DashboardSession> alerted = ConcurrentHashMap.newKeySet();
+
+    /** Updates received since the last frame, latest per site. */
+    private final Map<Long, MonitoringData> pending = new ConcurrentHashMap<>();
+    /** Serialized latest state of every site, reused for snapshots. */
+    private final Map<Long, String> latestFragments = new ConcurrentHashMap<>();
+    private final Map<Long, String> siteRegions = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> regionSites = new ConcurrentHashMap<>();
+    /** When each site in {@code latestFragments} was last updated. */
+    private final Map<Long, Long> siteUpdatedAt = new ConcurrentHashMap<>();
+    private long frameSequence;
+
+    private final ScheduledExecutorService frameScheduler;
+    private final ExecutorService sendExecutor;
+
+    private final Counter framesSentCounter;
+    private final Counter framesSkippedCounter;
+    private final Counter snapshotsSentCounter;
+
+    public DashboardWebSocketHandler(
+            DashboardProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${commerceguard.execution.mode:PLATFORM}") ExecutionMode executionMode) {
+        this.properties = properties;
+        this.sendExecutor = TaskExecutors.newTaskExecutor(executionMode, "dashboard-send", 8);
+
+        this.framesSentCounter = meterRegistry.counter("commerceguard.dashboard.frames.sent");
+        this.framesSkippedCounter = meterRegistry.counter("commerceguard.dashboard.frames.skipped");
+        this.snapshotsSentCounter = meterRegistry.counter("commerceguard.dashboard.snapshots.sent");
+        Gauge.builder("commerceguard.dashboard.sessions", sessions, Map::size)
+            .register(meterRegistry);
+
+        this.frameScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-frame-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long frameMillis = properties.getFrameInterval().toMillis();
+        frameScheduler.scheduleAtFixedRate(this::publishFrame, frameMillis, frameMillis, TimeUnit.MILLISECONDS);
+        long retentionMillis = properties.getSiteRetention().toMillis();
+        if (retentionMillis > 0) {
+            // On the frame thread, so eviction never interleaves with collectDeltas.
+            long sweepMillis = Math.min(retentionMillis, TimeUnit.MINUTES.toMillis(1));
+            frameScheduler.scheduleWithFixedDelay(
+                this::sweepStaleSites, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        }
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.put(session.getId(), session);
+        DashboardSession dashboardSession = new DashboardSession(session, properties);
+        sessions.put(session.getId(), dashboardSession);
+        subscribe(dashboardSession, ALL_TOPIC);
+        awaitingSnapshot.add(dashboardSession);
         log.info("New WebSocket connection established: {}", session.getId());
     }
 
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) {
-        // Handle incoming messages if needed
+        DashboardSession dashboardSession = sessions.get(session.getId());
+        if (dashboardSession == null || !(message instanceof TextMessage textMessage)) {
+            return;
+        }
+        SubscriptionRequest request;
+        try {
+            request = objectMapper.readValue(textMessage.getPayload(), SubscriptionRequest.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed dashboard message from {}: {}", session.getId(), e.getMessage());
+            return;
+        }
+        List<String> topics = topicsOf(request);
+        if (request.getAction() == SubscriptionRequest.Action.UNSUBSCRIBE) {
+            topics.forEach(topic -> unsubscribe(dashboardSession, topic));
+            return;
+        }
+        // The first explicit subscription replaces the default of receiving everything.
+        unsubscribe(dashboardSession, ALL_TOPIC);
+        topics.forEach(topic -> subscribe(dashboardSession, topic));
+        // Flag before membership: publishFrame re-checks the flag after dropping the membership.
+        dashboardSession.setNeedsSnapshot(true);
+        awaitingSnapshot.add(dashboardSession);
     }
 
     @Override
@@ -38,7 +155,10 @@ public class DashboardWebSocketHandler implements WebSocketHandler {
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
-        sessions.remove(session.getId());
+        DashboardSession dashboardSession = sessions.remove(session.getId());
+        if (dashboardSession != null) {
+            removeSession(dashboardSession);
+        }
         log.info("WebSocket connection closed: {}", session.getId());
     }
 
@@ -47,24 +167,311 @@ public class DashboardWebSocketHandler implements WebSocketHandler {
         return false;
     }
 
+    /**
+     * Queues an update for the next frame. Never blocks on the network.
+     */
     public void broadcastUpdate(MonitoringData data) {
-        String payload;
+        pending.put(data.getWebsiteId(), data);
+    }
+
+    /**
+     * Queues an alert for every session subscribed to alerts; it goes out with the next
+     * frame each session receives.
+     */
+    public void broadcastAlert(Alert alert) {
+        Set<DashboardSession> targets = subscribers.get(ALERTS_TOPIC);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        String fragment;
         try {
-            payload = objectMapper.writeValueAsString(data);
+            fragment = objectMapper.writeValueAsString(alert);
         } catch (IOException e) {
-            log.error("Error serializing monitoring data", e);
+            log.error("Error serializing alert", e);
             return;
         }
+        for (DashboardSession session : targets) {
+            session.queueAlert(fragment);
+            alerted.add(session);
+        }
+    }
 
-        TextMessage message = new TextMessage(payload);
-        sessions.values().parallelStream().forEach(session -> {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(message);
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        frameScheduler.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Serializes the sites that changed since the last call and sends each interested
+     * session its frame.
+     */
+    void publishFrame() {
+        try {
+            long sequence = ++frameSequence;
+            Map<DashboardSession, Map<Long, String>> deltas = collectDeltas();
+
+            Set<DashboardSession> targets = new HashSet<>(deltas.keySet());
+            targets.addAll(awaitingSnapshot);
+            targets.addAll(alerted);
+            alerted.removeAll(targets);
+
+            TextMessage fullSnapshot = null;
+            for (DashboardSession session : targets) {
+                if (!session.isOpen()) {
+                    continue;
+                }
+                if (!session.tryBeginSend()) {
+                    // The client now lacks these sites' latest state.
+                    session.setNeedsSnapshot(true);
+                    awaitingSnapshot.add(session);
+                    if (session.hasPendingAlerts()) {
+                        alerted.add(session);
+                    }
+                    framesSkippedCounter.increment();
+                    continue;
+                }
+                TextMessage message;
+                if (session.claimSnapshot()) {
+                    // Claimed before the topics are read, so a subscription that lands while
+                    // the snapshot is built asks for another one instead of being lost.
+                    awaitingSnapshot.remove(session);
+                    if (session.needsSnapshot()) {
+                        awaitingSnapshot.add(session);
+                    }
+                    if (session.getTopics().contains(ALL_TOPIC)) {
+                        if (fullSnapshot == null) {
+                            fullSnapshot = buildFrame("snapshot", sequence, latestFragments.values(), List.of());
+                        }
+                        message = session.hasPendingAlerts()
+                            ? buildFrame("snapshot", sequence, latestFragments.values(), drainAlerts(session))
+                            : fullSnapshot;
+                    } else {
+                        message = buildFrame("snapshot", sequence, snapshotFragments(session), drainAlerts(session));
+                    }
+                    snapshotsSentCounter.increment();
+                } else {
+                    Map<Long, String> delta = deltas.getOrDefault(session, Map.of());
+                    message = buildFrame("delta", sequence, delta.values(), drainAlerts(session));
                 }
+                dispatch(session, message);
+            }
+        } catch (Exception e) {
+            log.error("Error publishing dashboard frame", e);
+        }
+    }
+
+    /**
+     * Serializes each changed site once and routes the fragment to the sessions subscribed
+     * to the site, its region, or everything.
+     */
+    private Map<DashboardSession, Map<Long, String>> collectDeltas() {
+        Map<DashboardSession, Map<Long, String>> deltas = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Long websiteId : pending.keySet()) {
+            MonitoringData data = pending.remove(websiteId);
+            if (data == null) {
+                continue;
+            }
+            String fragment;
+            try {
+                fragment = objectMapper.writeValueAsString(data);
             } catch (IOException e) {
-                log.error("Error sending WebSocket message", e);
+                log.error("Error serializing monitoring data", e);
+                continue;
+            }
+            latestFragments.put(websiteId, fragment);
+            siteUpdatedAt.put(websiteId, now);
+            trackRegion(websiteId, data.getRegion());
+
+            route(deltas, siteTopic(websiteId), websiteId, fragment);
+            if (data.getRegion() != null) {
+                route(deltas, regionTopic(data.getRegion()), websiteId, fragment);
+            }
+            route(deltas, ALL_TOPIC, websiteId, fragment);
+        }
+        return deltas;
+    }
+
+    /**
+     * Drops the latest state and region of every site not updated since
+     * {@code now - siteRetention}.
+     */
+    void evictStaleSites(long now) {
+        long cutoff = now - properties.getSiteRetention().toMillis();
+        siteUpdatedAt.entrySet().removeIf(entry -> {
+            if (entry.getValue() >= cutoff) {
+                return false;
             }
+            latestFragments.remove(entry.getKey());
+            trackRegion(entry.getKey(), null);
+            return true;
         });
     }
+
+    private void sweepStaleSites() {
+        try {
+            evictStaleSites(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Error evicting stale dashboard sites", e);
+        }
+    }
+
+    /** Whether a frame to the session is still being sent. */
+    boolean isSending(String sessionId) {
+        DashboardSession session = sessions.get(sessionId);
+        return session != null && session.isSending();
+    }
+
+    private void route(Map<DashboardSession, Map<Long, String>> deltas, String topic,
+                       Long websiteId, String fragment) {
+        Set<DashboardSession> targets = subscribers.get(topic);
+        if (targets == null) {
+            return;
+        }
+        for (DashboardSession session : targets) {
+            deltas.computeIfAbsent(session, key -> new HashMap<>()).put(websiteId, fragment);
+        }
+    }
+
+    private Collection<String> snapshotFragments(DashboardSession session) {
+        Set<Long> sites = new HashSet<>();
+        for (String topic : session.getTopics()) {
+            if (topic.startsWith("site:")) {
+                sites.add(Long.parseLong(topic.substring(5)));
+            } else if (topic.startsWith("region:")) {
+                sites.addAll(regionSites.getOrDefault(topic.substring(7), Set.of()));
+            }
+        }
+        List<String> fragments = new ArrayList<>(sites.size());
+        for (Long site : sites) {
+            String fragment = latestFragments.get(site);
+            if (fragment != null) {
+                fragments.add(fragment);
+            }
+        }
+        return fragments;
+    }
+
+    private List<String> drainAlerts(DashboardSession session) {
+        List<String> alerts = new ArrayList<>();
+        String alert;
+        while ((alert = session.getPendingAlerts().poll()) != null) {
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
+    private void trackRegion(Long websiteId, String region) {
+        String previous = region == null ? siteRegions.remove(websiteId) : siteRegions.put(websiteId, region);
+        if (previous != null && !previous.equals(region)) {
+            regionSites.computeIfPresent(previous, (key, sites) -> {
+                sites.remove(websiteId);
+                return sites.isEmpty() ? null : sites;
+            });
+        }
+        if (region != null) {
+            regionSites.computeIfAbsent(region, key -> ConcurrentHashMap.newKeySet()).add(websiteId);
+        }
+    }
+
+    private TextMessage buildFrame(String type, long sequence, Collection<String> updates, List<String> alerts) {
+        StringBuilder frame = new StringBuilder(256)
+            .append("{\"type\":\"").append(type)
+            .append("\",\"seq\":").append(sequence)
+            .append(",\"updates\":");
+        appendArray(frame, updates);
+        if (!alerts.isEmpty()) {
+            frame.append(",\"alerts\":");
+            appendArray(frame, alerts);
+        }
+        return new TextMessage(frame.append('}').toString());
+    }
+
+    private void appendArray(StringBuilder frame, Collection<String> fragments) {
+        frame.append('[');
+        boolean first = true;
+        for (String fragment : fragments) {
+            if (!first) {
+                frame.append(',');
+            }
+            frame.append(fragment);
+            first = false;
+        }
+        frame.append(']');
+    }
+
+    /**
+     * Sends on the send executor; the caller must have claimed the session with
+     * {@link DashboardSession#tryBeginSend()}.
+     */
+    private void dispatch(DashboardSession session, TextMessage message) {
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    session.getSession().sendMessage(message);
+                    framesSentCounter.increment();
+                } catch (Exception e) {
+                    // The decorator closes sessions that exceed the buffer or time limit.
+                    log.warn("Dropping dashboard session {}: {}", session.getId(), e.getMessage());
+                    if (sessions.remove(session.getId(), session)) {
+                        removeSession(session);
+                    }
+                } finally {
+                    session.endSend();
+                }
+            });
+        } catch (RuntimeException e) {
+            session.endSend();
+            session.setNeedsSnapshot(true);
+            awaitingSnapshot.add(session);
+        }
+    }
+
+    private List<String> topicsOf(SubscriptionRequest request) {
+        List<String> topics = new ArrayList<>();
+        if (request.getSites() != null) {
+            request.getSites().forEach(site -> topics.add(siteTopic(site)));
+        }
+        if (request.getRegions() != null) {
+            request.getRegions().forEach(region -> topics.add(regionTopic(region)));
+        }
+        if (request.isAlerts()) {
+            topics.add(ALERTS_TOPIC);
+        }
+        return topics;
+    }
+
+    private void subscribe(DashboardSession session, String topic) {
+        session.getTopics().add(topic);
+        subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    private void unsubscribe(DashboardSession session, String topic) {
+        session.getTopics().remove(topic);
+        subscribers.computeIfPresent(topic, (key, members) -> {
+            members.remove(session);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private void removeSession(DashboardSession session) {
+        for (String topic : List.copyOf(session.getTopics())) {
+            unsubscribe(session, topic);
+        }
+        awaitingSnapshot.remove(session);
+        alerted.remove(session);
+    }
+
+    private static String siteTopic(long websiteId) {
+        return "site:" + websiteId;
+    }
+
+    private static String regionTopic(String region) {
+        return "region:" + region;
+    }
 }
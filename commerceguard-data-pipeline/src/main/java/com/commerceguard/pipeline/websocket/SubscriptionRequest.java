@@ -0,0 +1,22 @@
+package com.commerceguard.pipeline.websocket;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Client message changing what a dashboard session receives, e.g.
+ * {@code {"action":"subscribe","sites":[1,2],"regions":["eu-west"],"alerts":true}}.
+ */
+@Data
+public class SubscriptionRequest {
+
+    public enum Action {
+        SUBSCRIBE, UNSUBSCRIBE
+    }
+
+    private Action action;
+    private List<Long> sites;
+    private List<String> regions;
+    private boolean alerts;
+}
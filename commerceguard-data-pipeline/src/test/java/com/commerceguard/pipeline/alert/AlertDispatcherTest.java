@@ -0,0 +1,156 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.common.concurrent.ExecutionMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlertDispatcherTest {
+
+    private final List<AlertGroup> delivered = new CopyOnWriteArrayList<>();
+    private final AlertChannel channel = new AlertChannel() {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void deliver(AlertGroup group) {
+            delivered.add(group);
+        }
+    };
+
+    private AlertDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void onResults_WithRepeatedBreaches_ShouldNotifyFiringAndResolvedOnce() throws Exception {
+        // Arrange
+        dispatcher = newDispatcher(100);
+        AlertRule rule = rule("site-down");
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            dispatcher.onResult(new RuleResult(rule, 1L, true, 0, 1000L + i));
+        }
+        awaitAlerts(1);
+        dispatcher.onResult(new RuleResult(rule, 1L, false, 1, 2000L));
+        awaitAlerts(2);
+
+        // Assert
+        List<Alert> alerts = delivered.stream().flatMap(group -> group.alerts().stream()).toList();
+        assertEquals(2, alerts.size());
+        assertEquals(AlertState.FIRING, alerts.get(0).getState());
+        assertEquals(AlertState.RESOLVED, alerts.get(1).getState());
+        assertEquals(50, alerts.get(1).getOccurrences());
+        assertEquals(0, dispatcher.getFiringCount());
+    }
+
+    @Test
+    void onResults_WithManySitesBreachingTogether_ShouldGroupByRule() throws Exception {
+        // Arrange
+        dispatcher = newDispatcher(100);
+        AlertRule rule = rule("latency");
+
+        // Act
+        for (long site = 1; site <= 20; site++) {
+            dispatcher.onResult(new RuleResult(rule, site, true, 900, 1000L));
+        }
+        awaitAlerts(20);
+
+        // Assert
+        assertEquals(1, delivered.size());
+        assertEquals("latency", delivered.get(0).ruleId());
+        assertEquals(20, dispatcher.getFiringCount());
+    }
+
+    @Test
+    void onResults_WhenChannelRateLimited_ShouldHoldBacklogInsteadOfFlooding() throws Exception {
+        // Arrange
+        dispatcher = newDispatcher(1);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            dispatcher.onResult(new RuleResult(rule("rule-" + i), 1L, true, 1, 1000L));
+            Thread.sleep(80);
+        }
+        Thread.sleep(300);
+
+        // Assert
+        assertEquals(1, delivered.size());
+        assertEquals(5, dispatcher.getFiringCount());
+    }
+
+    @Test
+    void onResults_WithPerAlertChannel_ShouldChargeOneTokenPerAlert() throws Exception {
+        // Arrange
+        AlertChannel perAlert = new AlertChannel() {
+            @Override
+            public String getName() {
+                return "per-alert";
+            }
+
+            @Override
+            public void deliver(AlertGroup group) {
+                delivered.add(group);
+            }
+
+            @Override
+            public boolean isPerAlert() {
+                return true;
+            }
+        };
+        dispatcher = newDispatcher(perAlert, 5);
+        AlertRule rule = rule("latency");
+
+        // Act
+        for (long site = 1; site <= 20; site++) {
+            dispatcher.onResult(new RuleResult(rule, site, true, 900, 1000L));
+        }
+        awaitAlerts(5);
+        Thread.sleep(300);
+
+        // Assert
+        assertEquals(5, delivered.stream().mapToInt(group -> group.alerts().size()).sum());
+        assertEquals(20, dispatcher.getFiringCount());
+    }
+
+    private AlertDispatcher newDispatcher(int burst) {
+        return newDispatcher(channel, burst);
+    }
+
+    private AlertDispatcher newDispatcher(AlertChannel alertChannel, int burst) {
+        AlertDispatcherProperties properties = new AlertDispatcherProperties();
+        properties.setGroupWait(Duration.ofMillis(50));
+        properties.setChannelBurst(burst);
+        properties.setChannelRatePerSecond(0.01);
+        return new AlertDispatcher(List.of(alertChannel), properties, new SimpleMeterRegistry(), ExecutionMode.PLATFORM);
+    }
+
+    private AlertRule rule(String id) {
+        return AlertRule.builder()
+            .id(id)
+            .name(id)
+            .metric("availability")
+            .condition(RuleCondition.window(Aggregation.LAST, Operator.LT, 1, Duration.ofMinutes(1), 1, 1))
+            .build();
+    }
+
+    private void awaitAlerts(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (delivered.stream().mapToInt(group -> group.alerts().size()).sum() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.commerceguard.pipeline.alert;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlertRuleEngineTest {
+
+    private static final String LATENCY = "response_time";
+    private static final long MINUTE = 60_000L;
+
+    private AlertRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        AlertRuleProperties properties = new AlertRuleProperties();
+        properties.setDefaultRulesEnabled(false);
+        engine = new AlertRuleEngine(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void onSample_WithWindowedRule_ShouldBreachOnlyWhenMOfNWindowsBreach() {
+        // Arrange
+        engine.register(rule("p95", 1L, RuleCondition.window(
+            Aggregation.P95, Operator.GT, 800, Duration.ofMinutes(1), 3, 5)));
+        double[] latencies = {900, 100, 900, 100, 900, 100};
+        boolean[] breached = new boolean[latencies.length];
+
+        // Act
+        for (int i = 0; i < latencies.length; i++) {
+            List<RuleResult> results = engine.onSample(1L, LATENCY, (i + 1) * MINUTE, latencies[i]);
+            breached[i] = results.get(0).breached();
+        }
+
+        // Assert
+        assertFalse(breached[3]);
+        assertTrue(breached[4]);
+        assertFalse(breached[5]);
+    }
+
+    @Test
+    void onSample_ShouldOnlyEvaluateRulesIndexedForSiteAndMetric() {
+        // Arrange
+        for (long site = 1; site <= 1000; site++) {
+            engine.register(rule("site-" + site, site, RuleCondition.window(
+                Aggregation.LAST, Operator.GT, 1000, Duration.ofMinutes(1), 1, 1)));
+        }
+        engine.register(AlertRule.builder()
+            .id("global-availability")
+            .metric("availability")
+            .condition(RuleCondition.window(Aggregation.LAST, Operator.LT, 1, Duration.ofMinutes(1), 1, 1))
+            .build());
+
+        // Act
+        List<RuleResult> results = engine.onSample(42L, LATENCY, MINUTE, 1500);
+
+        // Assert
+        assertEquals(1001, engine.getRuleCount());
+        assertEquals(1, results.size());
+        assertEquals("site-42", results.get(0).rule().getId());
+        assertTrue(results.get(0).breached());
+    }
+
+    @Test
+    void checkAbsence_ShouldBreachWhenSiteStopsReporting() {
+        // Arrange
+        engine.register(rule("silent", null, RuleCondition.absence(Duration.ofMinutes(5))));
+        engine.onSample(7L, LATENCY, MINUTE, 200);
+
+        // Act
+        List<RuleResult> early = engine.checkAbsence(4 * MINUTE);
+        List<RuleResult> late = engine.checkAbsence(10 * MINUTE);
+
+        // Assert
+        assertFalse(early.get(0).breached());
+        assertTrue(late.get(0).breached());
+        assertEquals(7L, late.get(0).websiteId());
+    }
+
+    @Test
+    void register_WithInvalidCondition_ShouldThrowException() {
+        // Arrange
+        AlertRule invalid = rule("bad", 1L, RuleCondition.window(
+            Aggregation.AVG, Operator.GT, 1, Duration.ofMinutes(1), 4, 3));
+
+        // Act & Assert
+        CommerceGuardException exception = assertThrows(CommerceGuardException.class, () -> engine.register(invalid));
+        assertEquals("INVALID_ALERT_RULE", exception.getCode());
+        assertEquals(0, engine.getRuleCount());
+    }
+
+    private AlertRule rule(String id, Long websiteId, RuleCondition condition) {
+        return AlertRule.builder()
+            .id(id)
+            .name(id)
+            .websiteId(websiteId)
+            .metric(LATENCY)
+            .condition(condition)
+            .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.commerceguard.pipeline.model;
+
+import com.commerceguard.pipeline.tsdb.TimeSeriesProperties;
+import com.commerceguard.pipeline.tsdb.TimeSeriesStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item cost of turning {@link MonitoringData} into what the pipeline stages consume.
+ *
+ * <p>{@code legacyConversion} builds a boxed {@link Metric} for persistence and another one
+ * for the alert check, as the pipeline used to. {@code sharedSample} converts once into a
+ * {@link MetricSample} read by every stage and only boxes at the persistence boundary.
+ * {@code recordSample} adds the time-series writes, whose lookups reuse the sample's boxed
+ * id. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}:
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.args="MetricSampleBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MetricSampleBenchmark {
+
+    @Param({"1000"})
+    private int sites;
+
+    private MonitoringData[] items;
+    private TimeSeriesStore store;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new MonitoringData[sites];
+        for (int i = 0; i < sites; i++) {
+            items[i] = new MonitoringData((long) i + 1000, "eu-west", 1_700_000_000_000L + i * 1000L,
+                i % 50 == 0 ? "DOWN" : "UP", 150 + i % 400, null);
+        }
+        store = new TimeSeriesStore(new TimeSeriesProperties(), new SimpleMeterRegistry());
+        for (MonitoringData item : items) {
+            recordSample(MetricSample.from(item));
+        }
+    }
+
+    @Benchmark
+    public void legacyConversion(Blackhole blackhole) {
+        MonitoringData item = nextItem();
+        Metric persisted = toLegacyMetric(item);
+        blackhole.consume(persisted);
+        Metric checked = toLegacyMetric(item);
+        blackhole.consume(checked.getValue() > 5000);
+    }
+
+    @Benchmark
+    public void sharedSample(Blackhole blackhole) {
+        MetricSample sample = MetricSample.from(nextItem());
+        blackhole.consume(sample.toMetric(TimeSeriesStore.RESPONSE_TIME));
+        blackhole.consume(sample.responseTime() > 5000);
+        blackhole.consume(sample.availability());
+    }
+
+    @Benchmark
+    public void recordSample(Blackhole blackhole) {
+        MetricSample sample = MetricSample.from(nextItem());
+        recordSample(sample);
+        blackhole.consume(sample);
+    }
+
+    private void recordSample(MetricSample sample) {
+        store.record(sample.websiteId(), TimeSeriesStore.AVAILABILITY, sample.timestamp(), sample.availability());
+        if (sample.up()) {
+            store.record(sample.websiteId(), TimeSeriesStore.RESPONSE_TIME, sample.timestamp(), sample.responseTime());
+        }
+    }
+
+    private MonitoringData nextItem() {
+        MonitoringData item = items[next];
+        next = (next + 1) % items.length;
+        // Keep timestamps increasing so the store appends rather than taking the late path.
+        item.setTimestamp(item.getTimestamp() + 60_000L);
+        return item;
+    }
+
+    /** The conversion the pipeline performed twice per item before samples were shared. */
+    private static Metric toLegacyMetric(MonitoringData data) {
+        Metric metric = new Metric();
+        metric.setWebsiteId(data.getWebsiteId());
+        metric.setName("response_time");
+        metric.setValue((double) data.getResponseTime());
+        metric.setThreshold(5000d);
+        metric.setTimestamp(data.getTimestamp());
+        return metric;
+    }
+}
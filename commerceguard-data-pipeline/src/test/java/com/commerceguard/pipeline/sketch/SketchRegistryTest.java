@@ -0,0 +1,81 @@
+package com.commerceguard.pipeline.sketch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SketchRegistryTest {
+
+    private SketchRegistry registry;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SketchRegistry(new SketchProperties(), new SimpleMeterRegistry());
+        now = Instant.parse("2024-01-31T00:00:00Z");
+    }
+
+    @Test
+    void query_OverManyWindows_ShouldStayWithinRelativeAccuracy() {
+        // Arrange
+        Instant start = now.minus(Duration.ofDays(14));
+        int value = 0;
+        for (Instant t = start; t.isBefore(now); t = t.plusSeconds(60)) {
+            registry.record("eu-west", t.toEpochMilli(), 1 + (value++ % 1000));
+        }
+
+        // Act
+        QuantileSketch sketch = registry.query("eu-west", start, now);
+
+        // Assert
+        assertEquals(value, sketch.getCount());
+        assertEquals(500, sketch.quantile(0.5), 500 * 0.01 + 1);
+        assertEquals(990, sketch.quantile(0.99), 990 * 0.01 + 1);
+    }
+
+    @Test
+    void merge_WithExportFromAnotherNode_ShouldCombineCounts() {
+        // Arrange
+        SketchRegistry otherNode = new SketchRegistry(new SketchProperties(), new SimpleMeterRegistry());
+        Instant start = now.minus(Duration.ofHours(3));
+        for (int i = 0; i < 100; i++) {
+            registry.record("us-east", start.plusSeconds(i * 60L).toEpochMilli(), 100);
+            otherNode.record("us-east", start.plusSeconds(i * 60L).toEpochMilli(), 300);
+        }
+
+        // Act
+        Map<Long, byte[]> exported = otherNode.export("us-east", start, now);
+        exported.forEach((windowStart, sketch) -> registry.merge("us-east", windowStart, sketch));
+
+        // Assert
+        QuantileSketch merged = registry.query("us-east", start, now);
+        assertEquals(2, exported.size());
+        assertEquals(200, merged.getCount());
+        assertEquals(200, merged.getAverage(), 1e-9);
+        assertEquals(300, merged.getMax());
+    }
+
+    @Test
+    void fromByteArray_ShouldRestoreSerializedSketch() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i <= 10_000; i++) {
+            sketch.add(i);
+        }
+
+        // Act
+        QuantileSketch restored = QuantileSketch.fromByteArray(sketch.toByteArray());
+
+        // Assert
+        assertEquals(sketch.getCount(), restored.getCount());
+        assertEquals(sketch.getSum(), restored.getSum());
+        assertEquals(sketch.quantile(0.95), restored.quantile(0.95));
+        assertEquals(0, restored.getMin());
+    }
+}
@@ -0,0 +1,108 @@
+package com.commerceguard.pipeline.stage;
+
+import com.commerceguard.common.concurrent.ExecutionMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Stage<?>> stages = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stages.forEach(stage -> stage.stop(Duration.ZERO));
+    }
+
+    @Test
+    void offer_WithDropPolicyWhenFull_ShouldRejectAndReportSaturation() {
+        // Arrange
+        Stage<Integer> stage = stage("full", new StageSettings(10, 1, OverflowPolicy.DROP), item -> { });
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 15; i++) {
+            if (stage.offer(i)) {
+                accepted++;
+            }
+        }
+
+        // Assert
+        assertEquals(10, accepted);
+        assertEquals(5, stage.getRejectedCount());
+        assertTrue(stage.isSaturated());
+        assertEquals(5.0, meterRegistry.get("commerceguard.pipeline.stage.rejected")
+            .tag("stage", "full").counter().count());
+    }
+
+    @Test
+    void offer_WithSlowSibling_ShouldNotDelayFastSink() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fastProcessed = new AtomicInteger();
+        Stage<Integer> slow = stage("slow", new StageSettings(5, 1, OverflowPolicy.DROP),
+            item -> release.await(5, TimeUnit.SECONDS));
+        Stage<Integer> fast = stage("fast", new StageSettings(1000, 2, OverflowPolicy.DROP),
+            item -> fastProcessed.incrementAndGet());
+        slow.start();
+        fast.start();
+
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            slow.offer(i);
+            fast.offer(i);
+        }
+        long fanOutMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (fastProcessed.get() < 500 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals(500, fastProcessed.get());
+        assertTrue(slow.getRejectedCount() > 0);
+        assertTrue(fanOutMillis < 1000, "fan-out should never wait on the slow sink");
+    }
+
+    @Test
+    void stop_ShouldLetWorkersFinishTheBatchTheyHold() throws Exception {
+        // Arrange
+        AtomicInteger processed = new AtomicInteger();
+        Stage<Integer> stage = stage("persist", new StageSettings(100, 1, OverflowPolicy.DROP), item -> {
+            Thread.sleep(10);
+            processed.incrementAndGet();
+        });
+        for (int i = 0; i < 10; i++) {
+            stage.offer(i);
+        }
+        stage.start();
+        while (stage.getDepth() > 0) {
+            Thread.sleep(1);
+        }
+
+        // Act
+        stage.stop(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(10, processed.get());
+    }
+
+    private <T> Stage<T> stage(String name, StageSettings settings, StageHandler<T> handler) {
+        Stage<T> stage = new Stage<>(name, settings, handler, ExecutionMode.PLATFORM, meterRegistry);
+        stages.add(stage);
+        return stage;
+    }
+}
@@ -0,0 +1,146 @@
+package com.commerceguard.pipeline.stream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Single-group stand-in for a Redis stream with the consumer-group semantics the consumer
+ * relies on: new entries go to one consumer only and stay pending until acknowledged.
+ */
+class InMemoryResultStream implements ResultStream {
+
+    private final List<StreamEntry> entries = new ArrayList<>();
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private int lastDelivered;
+    private int acknowledged;
+    private boolean groupCreated;
+
+    synchronized void add(byte[] payload) {
+        entries.add(new StreamEntry((entries.size() + 1) + "-0", payload, 0));
+        notifyAll();
+    }
+
+    /** Delivers entries to {@code consumer} as if it had read them and then died. */
+    synchronized void deliverTo(String consumer, int count) {
+        readNewLocked(consumer, count);
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    synchronized int getAcknowledgedCount() {
+        return acknowledged;
+    }
+
+    synchronized List<String> getConsumers() {
+        return pending.values().stream().map(p -> p.consumer).distinct().toList();
+    }
+
+    @Override
+    public synchronized void createGroup(String group) {
+        groupCreated = true;
+    }
+
+    @Override
+    public synchronized List<StreamEntry> readNew(String group, String consumer, int count, Duration block) {
+        checkGroup();
+        if (lastDelivered == entries.size()) {
+            try {
+                wait(Math.min(block.toMillis(), 50));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return readNewLocked(consumer, count);
+    }
+
+    @Override
+    public synchronized List<StreamEntry> readPending(String group, String consumer, String afterId, int count) {
+        checkGroup();
+        int after = sequence(afterId);
+        List<StreamEntry> result = new ArrayList<>();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending p = entry.getValue();
+            if (p.consumer.equals(consumer) && sequence(entry.getKey()) > after && result.size() < count) {
+                p.deliveredAt = System.currentTimeMillis();
+                p.deliveries++;
+                StreamEntry stored = find(entry.getKey());
+                result.add(new StreamEntry(stored.id(), stored.payload(), p.deliveries));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<StreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count,
+                                                    Predicate<String> inFlight) {
+        checkGroup();
+        long now = System.currentTimeMillis();
+        List<StreamEntry> result = new ArrayList<>();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending p = entry.getValue();
+            if (now - p.deliveredAt >= minIdle.toMillis() && result.size() < count && !inFlight.test(entry.getKey())) {
+                p.consumer = consumer;
+                p.deliveredAt = now;
+                p.deliveries++;
+                StreamEntry stored = find(entry.getKey());
+                result.add(new StreamEntry(stored.id(), stored.payload(), p.deliveries));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void acknowledge(String group, List<String> ids) {
+        for (String id : ids) {
+            if (pending.remove(id) != null) {
+                acknowledged++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void removeConsumerIfIdle(String group, String consumer) {
+    }
+
+    private List<StreamEntry> readNewLocked(String consumer, int count) {
+        List<StreamEntry> result = new ArrayList<>();
+        while (lastDelivered < entries.size() && result.size() < count) {
+            StreamEntry stored = entries.get(lastDelivered++);
+            pending.put(stored.id(), new Pending(consumer, System.currentTimeMillis()));
+            result.add(new StreamEntry(stored.id(), stored.payload(), 1));
+        }
+        return result;
+    }
+
+    private StreamEntry find(String id) {
+        return entries.get(sequence(id) - 1);
+    }
+
+    private static int sequence(String id) {
+        int dash = id.indexOf('-');
+        return Integer.parseInt(dash < 0 ? id : id.substring(0, dash));
+    }
+
+    private void checkGroup() {
+        if (!groupCreated) {
+            throw new IllegalStateException("NOGROUP");
+        }
+    }
+
+    private static final class Pending {
+        private String consumer;
+        private long deliveredAt;
+        private long deliveries = 1;
+
+        Pending(String consumer, long deliveredAt) {
+            this.consumer = consumer;
+            this.deliveredAt = deliveredAt;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.commerceguard.pipeline.stream;
+
+import com.commerceguard.common.wire.MonitoringResultEncoder;
+import com.commerceguard.pipeline.model.MonitoringData;
+import com.commerceguard.pipeline.service.DataProcessingPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResultStreamConsumerTest {
+
+    private final InMemoryResultStream stream = new InMemoryResultStream();
+    private final List<ResultStreamConsumer> consumers = new ArrayList<>();
+    private final List<StreamAcknowledger> acknowledgers = new ArrayList<>();
+    private ResultStreamProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResultStreamProperties();
+        properties.setBatchSize(10);
+        properties.setBlockTimeout(Duration.ofMillis(50));
+        properties.setRetryPause(Duration.ofMillis(10));
+        properties.setClaimInterval(Duration.ofMillis(20));
+        properties.setClaimMinIdle(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumers.forEach(ResultStreamConsumer::shutdown);
+        acknowledgers.forEach(StreamAcknowledger::shutdown);
+    }
+
+    @Test
+    void consume_WithTwoInstances_ShouldProcessEveryEntryOnce() {
+        // Arrange
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+        DataProcessingPipeline first = acceptingPipeline(processed);
+        DataProcessingPipeline second = acceptingPipeline(processed);
+        for (long i = 0; i < 200; i++) {
+            stream.add(payload(i));
+        }
+
+        // Act
+        consumer("first", first);
+        consumer("second", second);
+
+        // Assert
+        waitUntil(() -> processed.size() == 200);
+        waitUntil(() -> stream.getPendingCount() == 0);
+        assertEquals(200, processed.size());
+    }
+
+    @Test
+    void consume_ShouldClaimEntriesLeftPendingByStoppedInstance() {
+        // Arrange
+        properties.setClaimMinIdle(Duration.ZERO);
+        for (long i = 0; i < 5; i++) {
+            stream.add(payload(i));
+        }
+        stream.createGroup(properties.getGroup());
+        stream.deliverTo("crashed", 5);
+        DataProcessingPipeline pipeline = acceptingPipeline(ConcurrentHashMap.newKeySet());
+
+        // Act
+        consumer("survivor", pipeline);
+
+        // Assert
+        ArgumentCaptor<MonitoringData> captor = ArgumentCaptor.forClass(MonitoringData.class);
+        verify(pipeline, timeout(2000).times(5)).submit(captor.capture());
+        waitUntil(() -> stream.getPendingCount() == 0);
+        assertTrue(captor.getAllValues().stream().allMatch(MonitoringData::isRedelivered));
+    }
+
+    @Test
+    void consume_WhenPipelineRejects_ShouldLeaveEntryPending() {
+        // Arrange
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenReturn(false);
+        stream.add(payload(1));
+
+        // Act
+        consumer("busy", pipeline);
+
+        // Assert
+        verify(pipeline, timeout(2000)).submit(any());
+        assertEquals(1, stream.getPendingCount());
+        assertEquals(List.of("busy"), stream.getConsumers());
+    }
+
+    @Test
+    void consume_WhenPipelineRejectsRepeatedly_ShouldNotCountRetriesAsDeliveries() {
+        // Arrange
+        properties.setClaimMinIdle(Duration.ZERO);
+        properties.setMaxDeliveries(1);
+        AtomicInteger attempts = new AtomicInteger();
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() <= 3) {
+                return false;
+            }
+            MonitoringData data = invocation.getArgument(0);
+            stream.acknowledge(properties.getGroup(), List.of(data.getStreamId()));
+            return true;
+        });
+        stream.add(payload(1));
+
+        // Act
+        consumer("busy", pipeline);
+
+        // Assert
+        verify(pipeline, timeout(2000).times(4)).submit(any());
+        waitUntil(() -> stream.getAcknowledgedCount() == 1);
+        assertEquals(0, stream.getPendingCount());
+    }
+
+    @Test
+    void consume_WhenAcceptedButNotPersisted_ShouldLeaveEntryPending() {
+        // Arrange
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenReturn(true);
+        stream.add(payload(1));
+
+        // Act
+        consumer("accepting", pipeline);
+
+        // Assert
+        ArgumentCaptor<MonitoringData> captor = ArgumentCaptor.forClass(MonitoringData.class);
+        verify(pipeline, timeout(2000)).submit(captor.capture());
+        assertEquals("1-0", captor.getValue().getStreamId());
+        assertEquals(1, stream.getPendingCount());
+        assertEquals(0, stream.getAcknowledgedCount());
+    }
+
+    @Test
+    void consume_AfterRestart_ShouldResubmitEveryOwnPendingEntry() {
+        // Arrange
+        for (long i = 0; i < 25; i++) {
+            stream.add(payload(i));
+        }
+        stream.createGroup(properties.getGroup());
+        stream.deliverTo("restarted", 25);
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenReturn(true);
+
+        // Act
+        consumer("restarted", pipeline);
+
+        // Assert
+        verify(pipeline, timeout(2000).times(25)).submit(any());
+    }
+
+    @Test
+    void consume_ShouldNotClaimEntriesStillInFlightHere() {
+        // Arrange
+        properties.setClaimMinIdle(Duration.ZERO);
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenReturn(true);
+        stream.add(payload(1));
+
+        // Act
+        consumer("slow-persist", pipeline);
+
+        // Assert
+        verify(pipeline, after(500).times(1)).submit(any());
+        assertEquals(1, stream.getPendingCount());
+    }
+
+    @Test
+    void consume_AfterRestart_ShouldDropOwnEntryAfterMaxDeliveries() {
+        // Arrange
+        properties.setMaxDeliveries(1);
+        stream.add(payload(1));
+        stream.createGroup(properties.getGroup());
+        stream.deliverTo("restarted", 1);
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+
+        // Act
+        consumer("restarted", pipeline);
+
+        // Assert
+        waitUntil(() -> stream.getPendingCount() == 0);
+        verify(pipeline, never()).submit(any());
+    }
+
+    @Test
+    void consume_ShouldDropEntryAfterMaxDeliveries() {
+        // Arrange
+        properties.setClaimMinIdle(Duration.ZERO);
+        properties.setMaxDeliveries(1);
+        stream.add(payload(1));
+        stream.createGroup(properties.getGroup());
+        stream.deliverTo("crashed", 1);
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+
+        // Act
+        consumer("survivor", pipeline);
+
+        // Assert
+        waitUntil(() -> stream.getPendingCount() == 0);
+        verify(pipeline, never()).submit(any());
+    }
+
+    @Test
+    void consume_ShouldDecodePayloadIntoMonitoringData() {
+        // Arrange
+        DataProcessingPipeline pipeline = acceptingPipeline(ConcurrentHashMap.newKeySet());
+        stream.add(payload(7));
+
+        // Act
+        consumer("decoder", pipeline);
+
+        // Assert
+        ArgumentCaptor<MonitoringData> captor = ArgumentCaptor.forClass(MonitoringData.class);
+        verify(pipeline, timeout(2000)).submit(captor.capture());
+        MonitoringData data = captor.getValue();
+        assertEquals(7L, data.getWebsiteId());
+        assertEquals("eu-west", data.getRegion());
+        assertEquals(1_000L, data.getTimestamp());
+        assertTrue(data.isUp());
+        assertEquals(250L, data.getResponseTime());
+        assertEquals(120L, data.getTimeToFirstByte());
+        assertEquals(480L, data.getDomContentLoaded());
+        assertNull(data.getLargestContentfulPaint());
+    }
+
+    @Test
+    void consume_WithMalformedPayload_ShouldAcknowledgeAndSkipIt() {
+        // Arrange
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        stream.add(new byte[] {42});
+
+        // Act
+        consumer("strict", pipeline);
+
+        // Assert
+        waitUntil(() -> stream.getAcknowledgedCount() == 1);
+        verify(pipeline, never()).submit(any());
+    }
+
+    private ResultStreamConsumer consumer(String name, DataProcessingPipeline pipeline) {
+        properties.setConsumerName(name);
+        StreamAcknowledger acknowledger = new StreamAcknowledger(stream, properties, new SimpleMeterRegistry());
+        acknowledgers.add(acknowledger);
+        ResultStreamConsumer consumer = new ResultStreamConsumer(stream, pipeline, acknowledger, properties,
+            new SimpleMeterRegistry());
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    /** Accepts everything and acknowledges it right away, as the persist stage would. */
+    private DataProcessingPipeline acceptingPipeline(Set<Long> processed) {
+        DataProcessingPipeline pipeline = mock(DataProcessingPipeline.class);
+        when(pipeline.submit(any())).thenAnswer(invocation -> {
+            MonitoringData data = invocation.getArgument(0);
+            processed.add(data.getWebsiteId());
+            stream.acknowledge(properties.getGroup(), List.of(data.getStreamId()));
+            return true;
+        });
+        return pipeline;
+    }
+
+    private static byte[] payload(long websiteId) {
+        return new MonitoringResultEncoder().encode(websiteId, "eu-west", 1_000L, "UP", 250L, null, 120L, 480L, -1L)
+            .toByteArray();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
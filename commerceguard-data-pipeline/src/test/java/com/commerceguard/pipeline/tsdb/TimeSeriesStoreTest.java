@@ -0,0 +1,128 @@
+package com.commerceguard.pipeline.tsdb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeSeriesStoreTest {
+
+    private static final long WEBSITE_ID = 1L;
+
+    private TimeSeriesStore store;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        store = new TimeSeriesStore(new TimeSeriesProperties(), new SimpleMeterRegistry());
+        now = Instant.parse("2024-01-31T00:00:00Z");
+    }
+
+    @Test
+    void summarize_WithRecentRange_ShouldUseExactRawPoints() {
+        // Arrange
+        Instant start = now.minus(Duration.ofMinutes(10));
+        for (int i = 0; i < 10; i++) {
+            store.record(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME,
+                start.plusSeconds(i * 60L).toEpochMilli(), 100 + i);
+        }
+
+        // Act
+        SeriesSummary summary = store.summarize(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME,
+            start.plusSeconds(120), now);
+
+        // Assert
+        assertEquals(8, summary.getCount());
+        assertEquals(102, summary.getMin());
+        assertEquals(109, summary.getMax());
+        assertEquals(105.5, summary.getAverage(), 1e-9);
+    }
+
+    @Test
+    void summarize_WithThirtyDayRange_ShouldAnswerFromRollups() {
+        // Arrange
+        Instant start = now.minus(Duration.ofDays(30));
+        long points = 0;
+        for (Instant t = start; t.isBefore(now); t = t.plus(Duration.ofMinutes(5))) {
+            store.record(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, t.toEpochMilli(), points % 2 == 0 ? 100 : 300);
+            points++;
+        }
+
+        // Act
+        SeriesSummary summary = store.summarize(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, start, now);
+
+        // Assert
+        assertEquals(points, summary.getCount());
+        assertEquals(200, summary.getAverage(), 1e-9);
+        assertEquals(300, summary.quantile(0.99), 300 * 0.01);
+    }
+
+    @Test
+    void summarize_WithoutWebsiteId_ShouldMergeAllSites() {
+        // Arrange
+        store.record(1L, TimeSeriesStore.AVAILABILITY, now.toEpochMilli(), 1);
+        store.record(2L, TimeSeriesStore.AVAILABILITY, now.toEpochMilli(), 0);
+        store.record(2L, TimeSeriesStore.RESPONSE_TIME, now.toEpochMilli(), 250);
+
+        // Act
+        SeriesSummary summary = store.summarize(null, TimeSeriesStore.AVAILABILITY,
+            now.minusSeconds(60), now.plusSeconds(60));
+
+        // Assert
+        assertEquals(2, summary.getCount());
+        assertEquals(0.5, summary.getAverage(), 1e-9);
+    }
+
+    @Test
+    void rollups_ShouldReturnOneBucketPerMinute() {
+        // Arrange
+        Instant start = now.minus(Duration.ofMinutes(3));
+        for (int i = 0; i < 18; i++) {
+            store.record(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, start.plusSeconds(i * 10L).toEpochMilli(), i);
+        }
+
+        // Act
+        List<RollupPoint> points = store.rollups(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME,
+            Resolution.MINUTE, start, now);
+
+        // Assert
+        assertEquals(3, points.size());
+        assertEquals(start.toEpochMilli(), points.get(0).timestamp());
+        assertEquals(6, points.get(0).count());
+        assertEquals(2.5, points.get(0).average(), 1e-9);
+        assertEquals(17, points.get(2).max());
+    }
+
+    @Test
+    void record_ShouldAllocateRollupSlotsOnlyForWrittenBuckets() {
+        // Act
+        store.record(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, now.toEpochMilli(), 100);
+
+        // Assert
+        assertEquals(3L * RollupRing.BLOCK_SIZE, store.getAllocatedRollupSlots());
+    }
+
+    @Test
+    void summarize_WithRangeBeyondHourRetention_ShouldUseConfiguredRetention() {
+        // Arrange
+        TimeSeriesProperties properties = new TimeSeriesProperties();
+        properties.setHourRetention(Duration.ofDays(7));
+        store = new TimeSeriesStore(properties, new SimpleMeterRegistry());
+        Instant start = now.minus(Duration.ofDays(10));
+        for (Instant t = start; t.isBefore(now); t = t.plus(Duration.ofHours(1))) {
+            store.record(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, t.toEpochMilli(), 100);
+        }
+
+        // Act
+        SeriesSummary summary = store.summarize(WEBSITE_ID, TimeSeriesStore.RESPONSE_TIME, start, now);
+
+        // Assert
+        assertEquals(240, summary.getCount());
+        assertEquals(100, summary.getAverage(), 1e-9);
+    }
+}
@@ -0,0 +1,173 @@
+package com.commerceguard.pipeline.websocket;
+
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.pipeline.model.MonitoringData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardWebSocketHandlerTest {
+
+    private DashboardWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        DashboardProperties properties = new DashboardProperties();
+        // Frames are published explicitly by the tests
+        properties.setFrameInterval(Duration.ofHours(1));
+        handler = new DashboardWebSocketHandler(properties, new SimpleMeterRegistry(), ExecutionMode.PLATFORM);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void publishFrame_ShouldCoalesceUpdatesPerSiteIntoOneDelta() throws Exception {
+        // Arrange
+        WebSocketSession session = openSession("s1");
+        handler.afterConnectionEstablished(session);
+        handler.publishFrame();
+        verify(session, timeout(1000)).sendMessage(any());
+        awaitSendCompleted("s1");
+
+        handler.broadcastUpdate(update(1L, 100));
+        handler.broadcastUpdate(update(1L, 200));
+        handler.broadcastUpdate(update(2L, 300));
+
+        // Act
+        handler.publishFrame();
+
+        // Assert
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(1000).times(2)).sendMessage(captor.capture());
+        List<TextMessage> frames = captor.getAllValues();
+        assertTrue(frames.get(0).getPayload().startsWith("{\"type\":\"snapshot\""));
+        String delta = frames.get(1).getPayload();
+        assertTrue(delta.startsWith("{\"type\":\"delta\""));
+        assertTrue(delta.contains("\"responseTime\":200"));
+        assertTrue(delta.contains("\"responseTime\":300"));
+        assertFalse(delta.contains("\"responseTime\":100"));
+    }
+
+    @Test
+    void publishFrame_WithSlowSession_ShouldSkipFramesAndResyncWithSnapshot() throws Exception {
+        // Arrange
+        WebSocketSession slow = openSession("slow");
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+            .doNothing()
+            .when(slow).sendMessage(any());
+        handler.afterConnectionEstablished(slow);
+        handler.publishFrame();
+
+        // Act
+        handler.broadcastUpdate(update(1L, 100));
+        handler.publishFrame();
+        release.countDown();
+        awaitSendCompleted("slow");
+        handler.publishFrame();
+
+        // Assert
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(slow, timeout(1000).times(2)).sendMessage(captor.capture());
+        String resync = captor.getAllValues().get(1).getPayload();
+        assertTrue(resync.startsWith("{\"type\":\"snapshot\""));
+        assertTrue(resync.contains("\"responseTime\":100"));
+    }
+
+    @Test
+    void handleMessage_WithSiteSubscription_ShouldOnlyRouteSubscribedSites() throws Exception {
+        // Arrange
+        WebSocketSession everything = openSession("all");
+        WebSocketSession team = openSession("team");
+        handler.afterConnectionEstablished(everything);
+        handler.afterConnectionEstablished(team);
+        handler.handleMessage(team, new TextMessage("{\"action\":\"subscribe\",\"sites\":[2]}"));
+        handler.publishFrame();
+        verify(everything, timeout(1000)).sendMessage(any());
+        verify(team, timeout(1000)).sendMessage(any());
+        awaitSendCompleted("all");
+        awaitSendCompleted("team");
+
+        // Act
+        handler.broadcastUpdate(update(1L, 100));
+        handler.broadcastUpdate(update(2L, 200));
+        handler.publishFrame();
+
+        // Assert
+        ArgumentCaptor<TextMessage> teamFrames = ArgumentCaptor.forClass(TextMessage.class);
+        verify(team, timeout(1000).times(2)).sendMessage(teamFrames.capture());
+        String teamDelta = teamFrames.getAllValues().get(1).getPayload();
+        assertTrue(teamDelta.contains("\"websiteId\":2"));
+        assertFalse(teamDelta.contains("\"websiteId\":1"));
+
+        ArgumentCaptor<TextMessage> allFrames = ArgumentCaptor.forClass(TextMessage.class);
+        verify(everything, timeout(1000).times(2)).sendMessage(allFrames.capture());
+        String fullDelta = allFrames.getAllValues().get(1).getPayload();
+        assertTrue(fullDelta.contains("\"websiteId\":1"));
+        assertTrue(fullDelta.contains("\"websiteId\":2"));
+    }
+
+    @Test
+    void evictStaleSites_ShouldDropSitesWithoutRecentUpdatesFromSnapshots() throws Exception {
+        // Arrange
+        handler.broadcastUpdate(update(1L, 100));
+        handler.publishFrame();
+        handler.evictStaleSites(System.currentTimeMillis() + Duration.ofHours(2).toMillis());
+        handler.broadcastUpdate(update(2L, 200));
+        handler.publishFrame();
+        WebSocketSession session = openSession("late");
+        handler.afterConnectionEstablished(session);
+        handler.handleMessage(session, new TextMessage("{\"action\":\"subscribe\",\"regions\":[\"eu-west\"]}"));
+
+        // Act
+        handler.publishFrame();
+
+        // Assert
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(1000)).sendMessage(captor.capture());
+        String snapshot = captor.getValue().getPayload();
+        assertTrue(snapshot.startsWith("{\"type\":\"snapshot\""));
+        assertTrue(snapshot.contains("\"websiteId\":2"));
+        assertFalse(snapshot.contains("\"websiteId\":1"));
+    }
+
+    private void awaitSendCompleted(String sessionId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (handler.isSending(sessionId)) {
+            assertTrue(System.nanoTime() < deadline, "Send to " + sessionId + " did not complete");
+            Thread.onSpinWait();
+        }
+    }
+
+    private WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private MonitoringData update(long websiteId, long responseTime) {
+        return new MonitoringData(websiteId, "eu-west", System.currentTimeMillis(), "UP", responseTime, null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.commerceguard.monitoring.artifact;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Takes a screenshot and the page source of a browser probe when the {@link CapturePolicy}
+ * asks for it and moves them into the {@link ArtifactStore}, leaving only their references
+ * on the result. Results queued for persistence therefore stay a few hundred bytes each
+ * however large the page is.
+ *
+ * <p>Each attempt {@link #hold holds} its page in a {@link ProbeCapture} while it still has
+ * the browser; only the final result, once retries are over, is {@link #complete completed}
+ * against the policy and stored. Attempts that a retry supersedes leave nothing behind.
+ */
+@Slf4j
+@Component
+public class ArtifactCapture {
+
+    private final CaptureProperties properties;
+    private final CapturePolicy policy;
+    private final ArtifactStore store;
+
+    @Autowired
+    public ArtifactCapture(CaptureProperties properties, ArtifactStore store) {
+        this(properties, store, new CapturePolicy(properties, () -> ThreadLocalRandom.current().nextDouble()));
+    }
+
+    ArtifactCapture(CaptureProperties properties, ArtifactStore store, CapturePolicy policy) {
+        this.properties = properties;
+        this.store = store;
+        this.policy = policy;
+    }
+
+    /** Starts the capture of one probe, across all its attempts. */
+    public ProbeCapture start() {
+        return new ProbeCapture(properties.isEnabled() && policy.sample());
+    }
+
+    /**
+     * Keeps the page of an attempt ending in {@code result} in {@code capture} if the policy
+     * could want it, replacing what earlier attempts held. Must be called while {@code driver}
+     * is still borrowed. Failures are logged and leave nothing held.
+     */
+    public void hold(WebDriver driver, Website website, MonitoringResult result, ProbeCapture capture) {
+        capture.clear();
+        if (!properties.isEnabled()
+                || !policy.mayCapture(website.getId(), result.getStatus(), capture.isSampled())) {
+            return;
+        }
+        try {
+            byte[] screenshot = properties.isScreenshots() && driver instanceof TakesScreenshot camera
+                ? camera.getScreenshotAs(OutputType.BYTES)
+                : null;
+            String source = properties.isPageSource() ? driver.getPageSource() : null;
+            capture.hold(screenshot, source);
+        } catch (Exception e) {
+            log.warn("Could not capture artifacts for website: {}", website.getUrl(), e);
+        }
+    }
+
+    /**
+     * Records the probe's final result with the policy and, if it asks for a capture, stores
+     * what the final attempt held and adds the references to {@code result}.
+     */
+    public MonitoringResult complete(Website website, MonitoringResult result, ProbeCapture capture) {
+        if (!properties.isEnabled()) {
+            return result;
+        }
+        try {
+            if (policy.shouldCapture(website.getId(), result.getStatus(), capture.isSampled())) {
+                byte[] screenshot = capture.getScreenshot();
+                if (screenshot != null) {
+                    result.setScreenshotRef(store.put(screenshot));
+                }
+                String source = capture.getPageSource();
+                if (source != null) {
+                    result.setPageSourceRef(store.put(source.getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not store artifacts for website: {}", website.getUrl(), e);
+        } finally {
+            capture.clear();
+        }
+        return result;
+    }
+}
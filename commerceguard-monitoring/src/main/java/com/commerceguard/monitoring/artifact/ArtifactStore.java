@@ -0,0 +1,164 @@
+package com.commerceguard.monitoring.artifact;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for probe artifacts on local disk.
+ *
+ * <p>Each artifact is gzipped into {@code <directory>/<first two hex digits>/<sha-256>.gz} and
+ * referred to by the hex SHA-256 of its uncompressed bytes, so an unchanged error page or
+ * screenshot captured on every failing probe is written once. Writes go to a temporary file
+ * that is atomically renamed, so readers never see a partial artifact.
+ *
+ * <p>Storing an existing artifact again refreshes its modification time; the sweeper deletes
+ * artifacts that have not been stored for longer than the retention.
+ */
+@Slf4j
+@Component
+public class ArtifactStore {
+
+    private static final Pattern REF = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final long retentionMillis;
+    private final ScheduledExecutorService sweeper;
+    private final Counter writtenCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter bytesCounter;
+    private final Counter deletedCounter;
+
+    public ArtifactStore(CaptureProperties properties, MeterRegistry meterRegistry) {
+        this.root = Paths.get(properties.getDirectory()).toAbsolutePath();
+        this.retentionMillis = properties.getRetention().toMillis();
+        this.writtenCounter = meterRegistry.counter("commerceguard.artifacts.written");
+        this.deduplicatedCounter = meterRegistry.counter("commerceguard.artifacts.deduplicated");
+        this.bytesCounter = meterRegistry.counter("commerceguard.artifacts.bytes");
+        this.deletedCounter = meterRegistry.counter("commerceguard.artifacts.deleted");
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "artifact-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (retentionMillis > 0) {
+            long sweepMillis = properties.getSweepInterval().toMillis();
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stores {@code content} unless an identical artifact exists and returns its reference. */
+    public String put(byte[] content) {
+        String ref = HEX.formatHex(sha256(content));
+        Path target = pathOf(ref);
+        try {
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                deduplicatedCounter.increment();
+                return ref;
+            }
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ref, ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    out.write(content);
+                }
+                long size = Files.size(temp);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                writtenCounter.increment();
+                bytesCounter.increment(size);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently by another probe; the content is identical.
+                deduplicatedCounter.increment();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return ref;
+        } catch (IOException e) {
+            throw new CommerceGuardException("ARTIFACT_WRITE_FAILED", "Could not store artifact " + ref, 500, e);
+        }
+    }
+
+    /** Returns the uncompressed bytes of the artifact {@code ref}. */
+    public byte[] get(String ref) {
+        if (ref == null || !REF.matcher(ref).matches()) {
+            throw new CommerceGuardException("INVALID_ARTIFACT_REF", "Invalid artifact reference: " + ref, 400);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(pathOf(ref)))) {
+            return in.readAllBytes();
+        } catch (NoSuchFileException e) {
+            throw new CommerceGuardException("ARTIFACT_NOT_FOUND", "Artifact not found: " + ref, 404);
+        } catch (IOException e) {
+            throw new CommerceGuardException("ARTIFACT_READ_FAILED", "Could not read artifact " + ref, 500, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /** Deletes artifacts, and temporary files left by a crash, older than the retention. */
+    void sweep() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            log.warn("Could not list artifacts under {}: {}", root, e.getMessage());
+            return;
+        }
+        for (Path file : files) {
+            try {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                    deletedCounter.increment();
+                }
+            } catch (IOException e) {
+                log.debug("Could not delete artifact {}", file, e);
+            }
+        }
+    }
+
+    private Path pathOf(String ref) {
+        return root.resolve(ref.substring(0, 2)).resolve(ref + ".gz");
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
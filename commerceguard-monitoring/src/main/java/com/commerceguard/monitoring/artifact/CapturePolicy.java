@@ -0,0 +1,52 @@
+package com.commerceguard.monitoring.artifact;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides which probes are worth a screenshot and page source. Healthy probes of a healthy
+ * site almost never are, so by default only failures and state changes are captured, plus
+ * an optional random sample of the rest.
+ *
+ * <p>A probe's attempts are checked with {@link #mayCapture} while the browser still shows
+ * the page; only its final result goes through {@link #shouldCapture}, which records the
+ * site's status. Failed attempts that a retry then recovers do not count as state changes.
+ */
+class CapturePolicy {
+
+    private final CaptureProperties properties;
+    private final DoubleSupplier random;
+    private final Map<Long, String> lastStatus = new ConcurrentHashMap<>();
+
+    CapturePolicy(CaptureProperties properties, DoubleSupplier random) {
+        this.properties = properties;
+        this.random = random;
+    }
+
+    /** Whether a probe is in the random sample; decided once per probe. */
+    boolean sample() {
+        return properties.getSampleRate() > 0 && random.getAsDouble() < properties.getSampleRate();
+    }
+
+    /** Whether an attempt ending in {@code status} could be captured if it were final. Records nothing. */
+    boolean mayCapture(Long websiteId, String status, boolean sampled) {
+        return wants(websiteId == null ? null : lastStatus.get(websiteId), status, sampled);
+    }
+
+    /** Records {@code status} as the site's latest and returns whether to capture this probe. */
+    boolean shouldCapture(Long websiteId, String status, boolean sampled) {
+        String previous = websiteId == null ? null : lastStatus.put(websiteId, status);
+        return wants(previous, status, sampled);
+    }
+
+    private boolean wants(String previous, String status, boolean sampled) {
+        if (properties.isOnFailure() && !"UP".equals(status)) {
+            return true;
+        }
+        if (properties.isOnStateChange() && previous != null && !previous.equals(status)) {
+            return true;
+        }
+        return sampled;
+    }
+}
@@ -0,0 +1,36 @@
+package com.commerceguard.monitoring.artifact;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.capture")
+public class CaptureProperties {
+
+    private boolean enabled = true;
+
+    private boolean screenshots = true;
+
+    private boolean pageSource = true;
+
+    /** Capture whenever a probe is not UP. */
+    private boolean onFailure = true;
+
+    /** Capture when a site's status differs from its previous probe, e.g. on recovery. */
+    private boolean onStateChange = true;
+
+    /** Fraction of remaining probes to capture anyway, between 0 and 1. */
+    private double sampleRate = 0.0;
+
+    /** Root of the content-addressed store. */
+    private String directory = "artifacts";
+
+    /** Artifacts not written or referenced again for this long are deleted; zero keeps them forever. */
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration sweepInterval = Duration.ofHours(1);
+}
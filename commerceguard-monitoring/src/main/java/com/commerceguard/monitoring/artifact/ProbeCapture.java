@@ -0,0 +1,39 @@
+package com.commerceguard.monitoring.artifact;
+
+/**
+ * Screenshot and page source of a probe's latest attempt, held in memory until the probe's
+ * final result decides whether they are stored. Attempts of one probe run one after the
+ * other, so each attempt simply replaces what the previous one held.
+ */
+public class ProbeCapture {
+
+    private final boolean sampled;
+    private volatile byte[] screenshot;
+    private volatile String pageSource;
+
+    ProbeCapture(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    byte[] getScreenshot() {
+        return screenshot;
+    }
+
+    String getPageSource() {
+        return pageSource;
+    }
+
+    void hold(byte[] screenshot, String pageSource) {
+        this.screenshot = screenshot;
+        this.pageSource = pageSource;
+    }
+
+    /** Drops whatever an earlier attempt held. */
+    public void clear() {
+        hold(null, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.commerceguard.monitoring.client;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@Component
+public class WebsiteRegistryClient {
+
+    private final RestTemplate restTemplate;
+    private final String registryUrl;
+
+    public WebsiteRegistryClient(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${commerceguard.registry.url:http://localhost:8081}") String registryUrl) {
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(5))
+            .setReadTimeout(Duration.ofSeconds(30))
+            .build();
+        this.registryUrl = registryUrl;
+    }
+
+    /**
+     * Fetches the active websites exposed by the registry service's
+     * {@code GET /api/v1/websites/active} endpoint.
+     */
+    public List<Website> getActiveWebsites() {
+        Website[] websites = restTemplate.getForObject(registryUrl + "/api/v1/websites/active", Website[].class);
+        return websites == null ? List.of() : Arrays.asList(websites);
+    }
+
+    /**
+     * Fetches registry changes after {@code since} from
+     * {@code GET /api/v1/websites/changes}; {@code 0} returns a full snapshot.
+     */
+    public WebsiteChangeFeed getChanges(long since) {
+        WebsiteChangeFeed feed = restTemplate.getForObject(
+            registryUrl + "/api/v1/websites/changes?since={since}", WebsiteChangeFeed.class, since);
+        if (feed == null) {
+            throw new IllegalStateException("Registry returned an empty change feed");
+        }
+        return feed;
+    }
+}
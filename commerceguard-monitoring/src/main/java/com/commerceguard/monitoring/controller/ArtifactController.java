@@ -0,0 +1,68 @@
+package com.commerceguard.monitoring.controller;
+
+import com.commerceguard.monitoring.artifact.ArtifactStore;
+import com.commerceguard.monitoring.model.ArtifactReference;
+import com.commerceguard.monitoring.persistence.MonitoringResultRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read side of the artifact store: the artifacts captured for a website, and the content of
+ * one artifact by reference. Artifacts are served from this node's store directory, so
+ * nodes that should serve each other's artifacts need to share it.
+ */
+@RestController
+@RequestMapping("/api/v1/artifacts")
+@RequiredArgsConstructor
+public class ArtifactController {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G'};
+    private static final MediaType SOURCE = MediaType.parseMediaType("text/plain;charset=UTF-8");
+
+    private final ArtifactStore artifactStore;
+    private final MonitoringResultRepository resultRepository;
+
+    @GetMapping
+    public ResponseEntity<List<ArtifactReference>> getArtifacts(
+            @RequestParam long websiteId,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(
+            resultRepository.findArtifacts(websiteId, from, to, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Page source is third-party markup, so it is served as plain text in a sandbox and never
+     * rendered in this service's origin. Content never changes for a reference, so the client
+     * may cache it for good, but shared caches may not.
+     */
+    @GetMapping("/{ref}")
+    public ResponseEntity<byte[]> getArtifact(@PathVariable String ref) {
+        byte[] content = artifactStore.get(ref);
+        return ResponseEntity.ok()
+            .contentType(isPng(content) ? MediaType.IMAGE_PNG : SOURCE)
+            .header("X-Content-Type-Options", "nosniff")
+            .header("Content-Security-Policy", "sandbox")
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(content);
+    }
+
+    private static boolean isPng(byte[] content) {
+        if (content.length < PNG_SIGNATURE.length) {
+            return false;
+        }
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (content[i] != PNG_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.commerceguard.monitoring.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class ChromeWebDriverFactory implements WebDriverFactory {
+
+    private final Duration scriptTimeout;
+    private volatile boolean binarySetUp;
+
+    public ChromeWebDriverFactory(WebDriverPoolProperties properties) {
+        this.scriptTimeout = properties.getScriptTimeout();
+    }
+
+    @Override
+    public WebDriver createDriver() {
+        setUpBinary();
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+
+        WebDriver driver = new ChromeDriver(options);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        driver.manage().timeouts().scriptTimeout(scriptTimeout);
+        return driver;
+    }
+
+    private void setUpBinary() {
+        if (!binarySetUp) {
+            synchronized (this) {
+                if (!binarySetUp) {
+                    io.github.bonigarcia.wdm.WebDriverManager.chromedriver().setup();
+                    binarySetUp = true;
+                }
+            }
+        }
+    }
+}
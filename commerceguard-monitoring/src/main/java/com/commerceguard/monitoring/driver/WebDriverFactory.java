@@ -0,0 +1,11 @@
+package com.commerceguard.monitoring.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Creates the browser sessions pooled by {@link WebDriverManager}.
+ */
+public interface WebDriverFactory {
+
+    WebDriver createDriver();
+}
@@ -1,91 +1,231 @@
 package com.commerceguard.monitoring.driver;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.commerceguard.common.exception.CommerceGuardException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Elastic pool of browser sessions.
+ *
+ * <p>Drivers are created on first demand up to {@code maxSize}, validated when they are
+ * borrowed, recycled after {@code maxUses} borrows or once their JS heap passes
+ * {@code maxHeapBytes}, and evicted after sitting idle for {@code idleTimeout} while the
+ * pool is above {@code minSize}. Borrowers queue on a fair semaphore, so waiters are
+ * served in arrival order.
+ */
 @Slf4j
 @Component
 public class WebDriverManager {
 
-    private static final int MAX_DRIVERS = 20;
-    private final BlockingQueue<WebDriver> driverPool;
+    private static final String HEAP_SCRIPT =
+        "return (window.performance && performance.memory) ? performance.memory.usedJSHeapSize : 0;";
 
-    public WebDriverManager() {
-        this.driverPool = new ArrayBlockingQueue<>(MAX_DRIVERS);
-        initializeDriverPool();
+    private final WebDriverFactory driverFactory;
+    private final WebDriverPoolProperties properties;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledDriver> idleDrivers = new ConcurrentLinkedDeque<>();
+    private final Map<WebDriver, PooledDriver> borrowedDrivers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    private final Timer borrowWaitTimer;
+    private final Counter createdCounter;
+    private final Counter destroyedCounter;
+    private final Counter borrowTimeoutCounter;
+
+    public WebDriverManager(
+            WebDriverFactory driverFactory,
+            WebDriverPoolProperties properties,
+            MeterRegistry meterRegistry) {
+        this.driverFactory = driverFactory;
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxSize(), true);
+
+        this.borrowWaitTimer = Timer.builder("commerceguard.driver.pool.borrow.wait")
+            .description("Time spent waiting to borrow a WebDriver")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.createdCounter = meterRegistry.counter("commerceguard.driver.pool.created");
+        this.destroyedCounter = meterRegistry.counter("commerceguard.driver.pool.destroyed");
+        this.borrowTimeoutCounter = meterRegistry.counter("commerceguard.driver.pool.borrow.timeouts");
+        Gauge.builder("commerceguard.driver.pool.active", borrowedDrivers, Map::size)
+            .register(meterRegistry);
+        Gauge.builder("commerceguard.driver.pool.idle", idleDrivers, ConcurrentLinkedDeque::size)
+            .register(meterRegistry);
+        Gauge.builder("commerceguard.driver.pool.utilization", this, WebDriverManager::getUtilization)
+            .register(meterRegistry);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webdriver-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionMillis = properties.getEvictionInterval().toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdleDrivers, evictionMillis, evictionMillis, TimeUnit.MILLISECONDS);
     }
 
-    private void initializeDriverPool() {
-        WebDriverManager.chromedriver().setup();
-        for (int i = 0; i < MAX_DRIVERS; i++) {
-            WebDriver driver = createDriver();
-            driverPool.offer(driver);
+    public WebDriver getDriver() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        if (!permits.tryAcquire(properties.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            borrowTimeoutCounter.increment();
+            throw new CommerceGuardException(
+                "DRIVER_POOL_EXHAUSTED",
+                "No WebDriver available within " + properties.getBorrowTimeout(),
+                503
+            );
         }
-        log.info("Initialized WebDriver pool with {} drivers", MAX_DRIVERS);
-    }
+        borrowWaitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
 
-    private WebDriver createDriver() {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        
-        WebDriver driver = new ChromeDriver(options);
-        driver.manage().timeouts().pageLoadTimeout(30, TimeUnit.SECONDS);
-        driver.manage().timeouts().implicitlyWait(10, TimeUnit.SECONDS);
-        return driver;
+        try {
+            PooledDriver pooled = takeValidIdleDriver();
+            if (pooled == null) {
+                pooled = new PooledDriver(driverFactory.createDriver());
+                createdCounter.increment();
+            }
+            pooled.uses++;
+            borrowedDrivers.put(pooled.driver, pooled);
+            return pooled.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
     }
 
-    public WebDriver getDriver() throws InterruptedException {
-        WebDriver driver = driverPool.poll(30, TimeUnit.SECONDS);
+    public void releaseDriver(WebDriver driver) {
         if (driver == null) {
-            throw new RuntimeException("No available WebDriver instances");
+            return;
+        }
+        PooledDriver pooled = borrowedDrivers.remove(driver);
+        if (pooled == null) {
+            log.warn("Released a WebDriver that was not borrowed from this pool");
+            return;
+        }
+
+        try {
+            if (shouldRecycle(pooled)) {
+                destroy(pooled);
+                return;
+            }
+            driver.manage().deleteAllCookies();
+            pooled.lastReturnedNanos = System.nanoTime();
+            idleDrivers.offerFirst(pooled);
+        } catch (Exception e) {
+            log.error("Error releasing WebDriver", e);
+            destroy(pooled);
+        } finally {
+            permits.release();
         }
-        return driver;
     }
 
-    public void releaseDriver(WebDriver driver) {
-        if (driver != null) {
-            try {
-                driver.manage().deleteAllCookies();
-                driverPool.offer(driver);
-            } catch (Exception e) {
-                log.error("Error releasing WebDriver", e);
-                replaceDriver(driver);
+    public int getActiveCount() {
+        return borrowedDrivers.size();
+    }
+
+    public int getIdleCount() {
+        return idleDrivers.size();
+    }
+
+    public double getUtilization() {
+        return (double) borrowedDrivers.size() / properties.getMaxSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+        PooledDriver pooled;
+        while ((pooled = idleDrivers.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        borrowedDrivers.values().forEach(this::destroy);
+        borrowedDrivers.clear();
+    }
+
+    /**
+     * Quits drivers that have been idle longer than {@code idleTimeout}, oldest first,
+     * without taking the pool below {@code minSize}.
+     */
+    void evictIdleDrivers() {
+        long idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        long now = System.nanoTime();
+        Iterator<PooledDriver> oldestFirst = idleDrivers.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            if (idleDrivers.size() + borrowedDrivers.size() <= properties.getMinSize()) {
+                return;
+            }
+            PooledDriver pooled = oldestFirst.next();
+            if (now - pooled.lastReturnedNanos >= idleTimeoutNanos && idleDrivers.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private PooledDriver takeValidIdleDriver() {
+        PooledDriver pooled;
+        while ((pooled = idleDrivers.pollFirst()) != null) {
+            if (isAlive(pooled.driver)) {
+                return pooled;
             }
+            log.warn("Discarding unresponsive WebDriver from pool");
+            destroy(pooled);
         }
+        return null;
     }
 
-    private void replaceDriver(WebDriver oldDriver) {
+    private boolean isAlive(WebDriver driver) {
         try {
-            oldDriver.quit();
+            driver.getWindowHandle();
+            return true;
         } catch (Exception e) {
-            log.error("Error quitting WebDriver", e);
+            return false;
+        }
+    }
+
+    private boolean shouldRecycle(PooledDriver pooled) {
+        if (properties.getMaxUses() > 0 && pooled.uses >= properties.getMaxUses()) {
+            return true;
+        }
+        return properties.getMaxHeapBytes() > 0 && usedHeapBytes(pooled.driver) > properties.getMaxHeapBytes();
+    }
+
+    private long usedHeapBytes(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor executor)) {
+            return 0;
         }
-        
+        Object heap = executor.executeScript(HEAP_SCRIPT);
+        return heap instanceof Number number ? number.longValue() : 0;
+    }
+
+    private void destroy(PooledDriver pooled) {
+        destroyedCounter.increment();
         try {
-            WebDriver newDriver = createDriver();
-            driverPool.offer(newDriver);
+            pooled.driver.quit();
         } catch (Exception e) {
-            log.error("Error creating replacement WebDriver", e);
+            log.error("Error quitting WebDriver", e);
         }
     }
 
-    public void shutdown() {
-        driverPool.forEach(driver -> {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                log.error("Error shutting down WebDriver", e);
-            }
-        });
+    private static final class PooledDriver {
+        private final WebDriver driver;
+        private int uses;
+        private volatile long lastReturnedNanos = System.nanoTime();
+
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
     }
 }
@@ -0,0 +1,37 @@
+package com.commerceguard.monitoring.driver;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.driver-pool")
+public class WebDriverPoolProperties {
+
+    /** Drivers kept alive by idle eviction; they are still created on first demand. */
+    private int minSize = 2;
+
+    private int maxSize = 20;
+
+    /** How long a borrower waits in the fair queue before giving up. */
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    /** Recycle a driver after this many borrows; 0 disables the limit. */
+    private int maxUses = 200;
+
+    /** Recycle a driver whose JS heap exceeds this many bytes; 0 disables the check. */
+    private long maxHeapBytes = 512L * 1024 * 1024;
+
+    /**
+     * Upper bound for async scripts such as the page timing collection, which waits for the
+     * load event; a page that never fires it fails the script instead of holding the driver.
+     */
+    private Duration scriptTimeout = Duration.ofSeconds(5);
+}
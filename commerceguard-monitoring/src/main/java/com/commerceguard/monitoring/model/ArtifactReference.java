@@ -0,0 +1,19 @@
+package com.commerceguard.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of {@code monitoring_artifacts}: an artifact captured by a probe of a website.
+ * {@code kind} is {@code SCREENSHOT} or {@code PAGE_SOURCE}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtifactReference {
+    private Long websiteId;
+    private long checkedAt;
+    private String kind;
+    private String ref;
+}
@@ -0,0 +1,8 @@
+package com.commerceguard.monitoring.model;
+
+public enum MonitoringMode {
+    /** Plain HTTP request: availability and response time only. */
+    HTTP,
+    /** Full headless browser render through the WebDriver pool. */
+    BROWSER
+}
@@ -0,0 +1,36 @@
+package com.commerceguard.monitoring.model;
+
+import com.commerceguard.common.model.Website;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Typed view of {@link Website#getMonitoringParameters()}, e.g.
+ * {@code {"mode": "HTTP"}}. Unknown keys are ignored and unparseable
+ * values fall back to the defaults.
+ */
+@Slf4j
+@Data
+public class MonitoringParameters {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .configure(DeserializationFeature.ACCEPT_CASE_INSENSITIVE_ENUMS, true);
+
+    private MonitoringMode mode = MonitoringMode.BROWSER;
+
+    public static MonitoringParameters from(Website website) {
+        String json = website.getMonitoringParameters();
+        if (json == null || json.isBlank()) {
+            return new MonitoringParameters();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, MonitoringParameters.class);
+        } catch (Exception e) {
+            log.warn("Invalid monitoring parameters for website {}: {}", website.getId(), e.getMessage());
+            return new MonitoringParameters();
+        }
+    }
+}
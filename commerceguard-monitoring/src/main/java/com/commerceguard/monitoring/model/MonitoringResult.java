@@ -1,5 +1,6 @@
 package com.commerceguard.monitoring.model;
 
+import com.commerceguard.common.timing.PageTiming;
 import lombok.Builder;
 import lombok.Data;
 
@@ -11,6 +12,9 @@ public class MonitoringResult {
     private String status;
     private long responseTime;
     private String error;
-    private String screenshot;
-    private String pageSource;
+    /** Browser-reported phase breakdown of a browser probe; {@code null} for HTTP probes. */
+    private PageTiming timing;
+    /** {@link com.commerceguard.monitoring.artifact.ArtifactStore} reference, if captured. */
+    private String screenshotRef;
+    private String pageSourceRef;
 }
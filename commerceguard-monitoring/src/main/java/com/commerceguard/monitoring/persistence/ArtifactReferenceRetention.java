@@ -0,0 +1,58 @@
+package com.commerceguard.monitoring.persistence;
+
+import com.commerceguard.monitoring.artifact.CaptureProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes {@code monitoring_artifacts} rows once they are older than the artifact store's
+ * {@code retention}, on the same interval as its sweeper. The store keeps a file at least
+ * {@code retention} past the last probe that captured it, so a row is always deleted no
+ * later than the file it refers to.
+ */
+@Slf4j
+@Component
+public class ArtifactReferenceRetention {
+
+    private final MonitoringResultRepository repository;
+    private final long retentionMillis;
+    private final ScheduledExecutorService sweeper;
+    private final Counter deletedCounter;
+
+    public ArtifactReferenceRetention(MonitoringResultRepository repository, CaptureProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.retentionMillis = properties.getRetention().toMillis();
+        this.deletedCounter = meterRegistry.counter("commerceguard.artifacts.references.deleted");
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "artifact-reference-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (retentionMillis > 0) {
+            long sweepMillis = properties.getSweepInterval().toMillis();
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            deletedCounter.increment(repository.deleteArtifactsBefore(System.currentTimeMillis() - retentionMillis));
+        } catch (Exception e) {
+            log.warn("Could not delete expired artifact references: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.commerceguard.monitoring.persistence;
+
+import com.commerceguard.common.timing.PageTiming;
+import com.commerceguard.monitoring.model.ArtifactReference;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writer for {@code monitoring_results}. With MySQL, set
+ * {@code rewriteBatchedStatements=true} on the JDBC URL so each batch is sent as a
+ * single multi-row {@code INSERT}.
+ *
+ * <p>Artifact references of captured probes go to {@code monitoring_artifacts} and the page
+ * phases of browser probes to {@code monitoring_page_timings}, in the same transaction, so a
+ * retried batch never leaves orphaned or duplicated rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MonitoringResultRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO monitoring_results "
+            + "(website_id, checked_at, status, response_time, error) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TIMING_SQL =
+        "INSERT INTO monitoring_page_timings (website_id, checked_at, ttfb, dom_content_loaded, lcp) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ARTIFACT_SQL =
+        "INSERT INTO monitoring_artifacts (website_id, checked_at, kind, artifact_ref) VALUES (?, ?, ?, ?)";
+
+    private static final String FIND_ARTIFACTS_SQL =
+        "SELECT website_id, checked_at, kind, artifact_ref FROM monitoring_artifacts "
+            + "WHERE website_id = ? AND checked_at >= ? AND checked_at < ? ORDER BY checked_at DESC LIMIT ?";
+
+    /** Rows per DELETE, so retention never holds a long lock on the table. */
+    private static final int DELETE_CHUNK = 10000;
+
+    private static final String DELETE_ARTIFACTS_SQL =
+        "DELETE FROM monitoring_artifacts WHERE checked_at < ? LIMIT " + DELETE_CHUNK;
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertBatch(List<MonitoringResult> results) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, results, results.size(), (ps, result) -> {
+            ps.setLong(1, result.getWebsiteId());
+            ps.setLong(2, result.getTimestamp());
+            ps.setString(3, result.getStatus());
+            ps.setLong(4, result.getResponseTime());
+            if (result.getError() == null) {
+                ps.setNull(5, Types.VARCHAR);
+            } else {
+                String error = result.getError();
+                ps.setString(5, error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            }
+        });
+
+        List<MonitoringResult> timed = results.stream().filter(result -> result.getTiming() != null).toList();
+        if (!timed.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TIMING_SQL, timed, timed.size(), (ps, result) -> {
+                PageTiming timing = result.getTiming();
+                ps.setLong(1, result.getWebsiteId());
+                ps.setLong(2, result.getTimestamp());
+                setMillis(ps, 3, timing.getTimeToFirstByte());
+                setMillis(ps, 4, timing.getDomContentLoaded());
+                setMillis(ps, 5, timing.getLargestContentfulPaint());
+            });
+        }
+
+        List<Object[]> artifacts = new ArrayList<>();
+        for (MonitoringResult result : results) {
+            if (result.getScreenshotRef() != null) {
+                artifacts.add(new Object[] {
+                    result.getWebsiteId(), result.getTimestamp(), "SCREENSHOT", result.getScreenshotRef()});
+            }
+            if (result.getPageSourceRef() != null) {
+                artifacts.add(new Object[] {
+                    result.getWebsiteId(), result.getTimestamp(), "PAGE_SOURCE", result.getPageSourceRef()});
+            }
+        }
+        if (!artifacts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ARTIFACT_SQL, artifacts);
+        }
+    }
+
+    @Transactional
+    public void insert(MonitoringResult result) {
+        insertBatch(List.of(result));
+    }
+
+    /** Newest first, at most {@code limit}, of the artifacts captured for a website in {@code [from, to)}. */
+    public List<ArtifactReference> findArtifacts(long websiteId, long from, long to, int limit) {
+        return jdbcTemplate.query(FIND_ARTIFACTS_SQL, (rs, row) -> new ArtifactReference(
+                rs.getLong("website_id"), rs.getLong("checked_at"),
+                rs.getString("kind"), rs.getString("artifact_ref")),
+            websiteId, from, to, limit);
+    }
+
+    /** Deletes the artifact references of probes checked before {@code checkedBefore}. */
+    public int deleteArtifactsBefore(long checkedBefore) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_ARTIFACTS_SQL, checkedBefore);
+            total += deleted;
+        } while (deleted == DELETE_CHUNK);
+        return total;
+    }
+
+    private static void setMillis(PreparedStatement ps, int index, Long millis) throws SQLException {
+        if (millis == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, (int) Math.min(millis, Integer.MAX_VALUE));
+        }
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM monitoring_results", Long.class);
+        return count == null ? 0 : count;
+    }
+}
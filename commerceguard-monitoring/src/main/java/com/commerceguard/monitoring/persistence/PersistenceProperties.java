@@ -0,0 +1,30 @@
+package com.commerceguard.monitoring.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.persistence")
+public class PersistenceProperties {
+
+    /** Rows per INSERT batch. */
+    private int batchSize = 500;
+
+    /** Longest a result waits in the buffer before a partial batch is flushed. */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /** Results buffered ahead of the writer; producers block when it is full. */
+    private int bufferCapacity = 50000;
+
+    private int maxRetries = 3;
+
+    /** Initial retry delay, doubled on each attempt. */
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /** How long shutdown waits for the buffer to be written out. */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
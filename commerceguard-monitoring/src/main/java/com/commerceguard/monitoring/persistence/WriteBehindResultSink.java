@@ -0,0 +1,174 @@
+package com.commerceguard.monitoring.persistence;
+
+import com.commerceguard.monitoring.model.MonitoringResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer in front of {@link MonitoringResultRepository}.
+ *
+ * <p>Results are accepted immediately and written by a single flusher thread in batches
+ * of up to {@code batchSize}, or whatever has accumulated after {@code flushInterval}.
+ * A failed batch is retried with exponential backoff before it is counted as lost, and
+ * shutdown writes out everything still buffered.
+ */
+@Slf4j
+@Component
+public class WriteBehindResultSink {
+
+    private final MonitoringResultRepository repository;
+    private final PersistenceProperties properties;
+    private final BlockingQueue<MonitoringResult> buffer;
+    private final Thread flusher;
+
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter retryCounter;
+
+    private volatile boolean running = true;
+
+    public WriteBehindResultSink(
+            MonitoringResultRepository repository,
+            PersistenceProperties properties,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+
+        this.writtenCounter = meterRegistry.counter("commerceguard.persistence.results.written");
+        this.failedCounter = meterRegistry.counter("commerceguard.persistence.results.failed");
+        this.retryCounter = meterRegistry.counter("commerceguard.persistence.batch.retries");
+        Gauge.builder("commerceguard.persistence.buffer.size", buffer, BlockingQueue::size)
+            .register(meterRegistry);
+
+        this.flusher = new Thread(this::flushLoop, "monitoring-result-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Hands results to the writer, blocking while the buffer is full so that backpressure
+     * reaches the ingestion queue instead of growing the heap.
+     */
+    public void write(List<MonitoringResult> results) throws InterruptedException {
+        for (MonitoringResult result : results) {
+            buffer.put(result);
+        }
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the flusher did not get to is written from the shutdown thread.
+        List<MonitoringResult> remaining = new ArrayList<>();
+        while (buffer.drainTo(remaining, properties.getBatchSize()) > 0) {
+            writeWithRetry(remaining);
+            remaining.clear();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                List<MonitoringResult> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    writeWithRetry(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in result writer", e);
+            }
+        }
+    }
+
+    /**
+     * Collects results until the batch is full or {@code flushInterval} has passed since
+     * the first one arrived.
+     */
+    private List<MonitoringResult> nextBatch() throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        MonitoringResult first = buffer.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<MonitoringResult> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (batch.size() < batchSize) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            MonitoringResult next;
+            try {
+                next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // Shutting down: write what has been collected instead of losing it.
+                running = false;
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeWithRetry(List<MonitoringResult> batch) {
+        long backoffMillis = properties.getRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                repository.insertBatch(batch);
+                writtenCounter.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= properties.getMaxRetries()) {
+                    failedCounter.increment(batch.size());
+                    log.error("Dropping {} monitoring results after {} attempts", batch.size(), attempt + 1, e);
+                    return;
+                }
+                retryCounter.increment();
+                log.warn("Batch insert of {} results failed, retrying: {}", batch.size(), e.getMessage());
+                if (!sleep(backoffMillis << attempt)) {
+                    // Interrupted during shutdown: make one last attempt without waiting.
+                    attempt = properties.getMaxRetries() - 1;
+                }
+            }
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            running = false;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.commerceguard.monitoring.probe;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability probe that skips the browser entirely.
+ *
+ * <p>A single {@link HttpClient} is shared by all probes so that connections are
+ * pooled per origin, HTTP/2 is negotiated via ALPN where the server offers it, and
+ * TLS sessions are resumed from the client's session cache instead of performing a
+ * full handshake on every check.
+ */
+@Slf4j
+@Component
+public class HttpProbe {
+
+    private final HttpClient httpClient;
+    private final HttpProbeProperties properties;
+
+    public HttpProbe(HttpProbeProperties properties) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(properties.getConnectTimeout())
+            .build();
+    }
+
+    /** Never throws; a URL that cannot be requested yields a DOWN result. */
+    public CompletableFuture<MonitoringResult> probe(Website website) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(website.getUrl()))
+                .timeout(properties.getRequestTimeout())
+                .header("User-Agent", properties.getUserAgent())
+                .GET()
+                .build();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.debug("Invalid URL for website {}: {}", website.getId(), website.getUrl(), e);
+            return CompletableFuture.completedFuture(MonitoringResult.builder()
+                .websiteId(website.getId())
+                .timestamp(System.currentTimeMillis())
+                .responseTime(0)
+                .status("DOWN")
+                .error("Invalid URL: " + e.getMessage())
+                .build());
+        }
+
+        long startNanos = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                long responseTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                MonitoringResult.MonitoringResultBuilder result = MonitoringResult.builder()
+                    .websiteId(website.getId())
+                    .timestamp(System.currentTimeMillis())
+                    .responseTime(responseTime);
+
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                    log.debug("HTTP probe failed for website: {}", website.getUrl(), cause);
+                    return result.status("DOWN").error(cause.toString()).build();
+                }
+                if (response.statusCode() >= 400) {
+                    return result.status("DOWN").error("HTTP " + response.statusCode()).build();
+                }
+                return result.status("UP").build();
+            });
+    }
+}
@@ -0,0 +1,19 @@
+package com.commerceguard.monitoring.probe;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.http-probe")
+public class HttpProbeProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    private Duration requestTimeout = Duration.ofSeconds(30);
+
+    private String userAgent = "CommerceGuard-Monitor/1.0";
+}
@@ -0,0 +1,29 @@
+package com.commerceguard.monitoring.probe;
+
+import java.net.URI;
+import java.util.Locale;
+
+public final class UrlHosts {
+
+    private UrlHosts() {
+    }
+
+    /**
+     * Lower-cased host of {@code url}; the whole URL if it has none, so that it still gets
+     * a key of its own.
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host != null) {
+                return host.toLowerCase(Locale.ROOT);
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the raw URL.
+        }
+        return url.trim().toLowerCase(Locale.ROOT);
+    }
+}
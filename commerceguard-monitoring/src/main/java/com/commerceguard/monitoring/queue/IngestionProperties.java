@@ -0,0 +1,26 @@
+package com.commerceguard.monitoring.queue;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.ingestion")
+public class IngestionProperties {
+
+    private int capacity = 10000;
+
+    /** Maximum number of results handed to the consumer in one drain. */
+    private int batchSize = 500;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /** How long a producer waits for space under {@link OverflowPolicy#BLOCK}. */
+    private Duration offerTimeout = Duration.ofSeconds(5);
+
+    /** How long shutdown waits for in-flight probes to finish and the queue to be drained. */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
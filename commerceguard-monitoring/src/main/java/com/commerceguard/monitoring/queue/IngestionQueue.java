@@ -0,0 +1,171 @@
+package com.commerceguard.monitoring.queue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded multi-producer, single-consumer handoff between probe threads and the result
+ * consumer.
+ *
+ * <p>The consumer drains in batches ({@link BlockingQueue#drainTo}) instead of polling one
+ * item per wake-up. What happens when the queue is full is governed by the
+ * {@link OverflowPolicy}; every dropped or coalesced item is counted, and queue depth and
+ * consumer lag (age of the oldest queued item) are published as gauges under
+ * {@code commerceguard.ingestion.*}.
+ */
+public class IngestionQueue<T> {
+
+    private final OverflowPolicy policy;
+    private final long offerTimeoutNanos;
+    private final ToLongFunction<T> siteKey;
+
+    /** Holds items, or site keys under {@link OverflowPolicy#COALESCE_PER_SITE}. */
+    private final BlockingQueue<Entry<T>> queue;
+    private final Map<Long, Entry<T>> latestBySite = new ConcurrentHashMap<>();
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter coalescedCounter;
+
+    public IngestionQueue(String name, IngestionProperties properties, ToLongFunction<T> siteKey,
+                          MeterRegistry meterRegistry) {
+        this.policy = properties.getOverflowPolicy();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.siteKey = siteKey;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+
+        this.enqueuedCounter = Counter.builder("commerceguard.ingestion.enqueued")
+            .tag("queue", name).register(meterRegistry);
+        this.droppedCounter = Counter.builder("commerceguard.ingestion.dropped")
+            .tag("queue", name).register(meterRegistry);
+        this.coalescedCounter = Counter.builder("commerceguard.ingestion.coalesced")
+            .tag("queue", name).register(meterRegistry);
+        Gauge.builder("commerceguard.ingestion.depth", queue, BlockingQueue::size)
+            .tag("queue", name).register(meterRegistry);
+        Gauge.builder("commerceguard.ingestion.lag", this, IngestionQueue::getLagMillis)
+            .tag("queue", name).baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Enqueues an item according to the overflow policy.
+     *
+     * @return {@code false} if the item was dropped
+     */
+    public boolean offer(T item) {
+        Entry<T> entry = new Entry<>(item, siteKey.applyAsLong(item), System.nanoTime());
+        boolean accepted = switch (policy) {
+            case BLOCK -> offerBlocking(entry);
+            case DROP_OLDEST -> offerDroppingOldest(entry);
+            case COALESCE_PER_SITE -> offerCoalescing(entry);
+        };
+        if (accepted) {
+            enqueuedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * Waits up to {@code timeout} for at least one item, then takes everything available
+     * up to {@code maxItems} without further blocking.
+     */
+    public List<T> drain(int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        Entry<T> first = queue.poll(timeout, unit);
+        if (first == null) {
+            return List.of();
+        }
+        List<Entry<T>> entries = new ArrayList<>(Math.min(maxItems, queue.size() + 1));
+        entries.add(first);
+        queue.drainTo(entries, maxItems - 1);
+
+        List<T> items = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            T item = policy == OverflowPolicy.COALESCE_PER_SITE
+                ? takeLatest(entry.siteKey)
+                : entry.item;
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return (long) droppedCounter.count();
+    }
+
+    public long getCoalescedCount() {
+        return (long) coalescedCounter.count();
+    }
+
+    public double getLagMillis() {
+        Entry<T> oldest = queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedNanos);
+    }
+
+    private boolean offerBlocking(Entry<T> entry) {
+        try {
+            return queue.offer(entry, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerDroppingOldest(Entry<T> entry) {
+        while (!queue.offer(entry)) {
+            if (queue.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces any pending item for the same site. The queue only carries a site key the
+     * first time a site becomes pending, so depth is bounded by distinct sites.
+     */
+    private boolean offerCoalescing(Entry<T> entry) {
+        Entry<T> previous = latestBySite.put(entry.siteKey, entry);
+        if (previous != null) {
+            coalescedCounter.increment();
+            return true;
+        }
+        if (queue.offer(entry)) {
+            return true;
+        }
+        // Without a token nothing would ever take this site's entry again, so clear it even if
+        // another producer has coalesced over ours meanwhile; that item is dropped as well.
+        Entry<T> orphan = latestBySite.remove(entry.siteKey);
+        if (orphan != null && orphan != entry) {
+            droppedCounter.increment();
+        }
+        return false;
+    }
+
+    private T takeLatest(long site) {
+        Entry<T> latest = latestBySite.remove(site);
+        return latest == null ? null : latest.item;
+    }
+
+    private record Entry<T>(T item, long siteKey, long enqueuedNanos) {
+    }
+}
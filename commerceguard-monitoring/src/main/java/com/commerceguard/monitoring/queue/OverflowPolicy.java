@@ -0,0 +1,10 @@
+package com.commerceguard.monitoring.queue;
+
+public enum OverflowPolicy {
+    /** Producers wait up to {@code offerTimeout} for space, then the item is dropped. */
+    BLOCK,
+    /** The oldest queued item is evicted to make room. */
+    DROP_OLDEST,
+    /** Only the latest pending item per website is kept; capacity bounds the number of websites. */
+    COALESCE_PER_SITE
+}
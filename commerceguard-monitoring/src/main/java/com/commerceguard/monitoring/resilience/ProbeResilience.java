@@ -0,0 +1,164 @@
+package com.commerceguard.monitoring.resilience;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.commerceguard.monitoring.probe.UrlHosts;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and retry scoped to a single website (or host) rather than shared by all
+ * of them.
+ *
+ * <p>With one global breaker a handful of dead sites trip it for everyone, and while it is
+ * closed their retries keep holding browser slots that healthy sites are waiting for. Here
+ * each key gets its own pair, created on first use and kept in a bounded Caffeine cache that
+ * evicts pairs for sites that are no longer probed. An open breaker rejects the probe before
+ * it borrows a driver and the result comes back as {@link #SKIPPED}.
+ *
+ * <p>Retries are scheduled on a timer with jittered exponential backoff instead of sleeping,
+ * so a waiting retry holds neither a driver nor a pool thread. It does keep the
+ * {@link com.commerceguard.monitoring.scheduler.ProbeScheduler} slot of its mode until the
+ * last attempt completes, so the backoff counts against that mode's in-flight limit.
+ */
+@Slf4j
+@Component
+public class ProbeResilience {
+
+    /** Status of a probe that was not run because the site's breaker is open. */
+    public static final String SKIPPED = "SKIPPED";
+
+    private static final Predicate<Object> UNHEALTHY = result ->
+        result instanceof MonitoringResult monitoringResult && !"UP".equals(monitoringResult.getStatus());
+
+    private final ProbeResilienceProperties properties;
+    private final CircuitBreakerConfig breakerConfig;
+    private final RetryConfig retryConfig;
+    private final Cache<String, Guards> guards;
+    private final ScheduledExecutorService retryScheduler;
+    private final Counter retryCounter;
+    private final Counter skippedCounter;
+
+    public ProbeResilience(ProbeResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.breakerConfig = CircuitBreakerConfig.custom()
+            .failureRateThreshold(properties.getFailureRateThreshold())
+            .slidingWindowSize(properties.getSlidingWindowSize())
+            .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+            .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+            .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+            .recordResult(UNHEALTHY)
+            .build();
+        this.retryConfig = RetryConfig.custom()
+            .maxAttempts(properties.getMaxAttempts())
+            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                properties.getRetryInitialBackoff(),
+                properties.getRetryMultiplier(),
+                properties.getRetryRandomization()))
+            .retryOnResult(UNHEALTHY)
+            .ignoreExceptions(CallNotPermittedException.class)
+            .build();
+        this.guards = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxInstances())
+            .expireAfterAccess(properties.getExpireAfterAccess())
+            .build();
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "probe-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryCounter = meterRegistry.counter("commerceguard.probe.retries");
+        this.skippedCounter = meterRegistry.counter("commerceguard.probe.skipped");
+        Gauge.builder("commerceguard.probe.breakers.open", this, ProbeResilience::countOpen)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code attempt} through the website's breaker and retry.
+     *
+     * <p>The returned future always completes normally: with the last attempt's result, with
+     * a {@link #SKIPPED} result if the breaker rejected the probe, or with a DOWN result if
+     * the attempt itself failed.
+     */
+    public CompletableFuture<MonitoringResult> execute(Website website,
+                                                       Supplier<CompletionStage<MonitoringResult>> attempt) {
+        Guards pair = guards.get(keyOf(website), this::newGuards);
+        Supplier<CompletionStage<MonitoringResult>> guarded =
+            CircuitBreaker.decorateCompletionStage(pair.breaker(), attempt);
+        return Retry.decorateCompletionStage(pair.retry(), retryScheduler, guarded).get()
+            .toCompletableFuture()
+            .handle((result, error) -> error == null ? result : failureResult(website, error));
+    }
+
+    /** State of the breaker guarding {@code website}; CLOSED if it has none yet. */
+    public CircuitBreaker.State getState(Website website) {
+        Guards pair = guards.getIfPresent(keyOf(website));
+        return pair == null ? CircuitBreaker.State.CLOSED : pair.breaker().getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+
+    private String keyOf(Website website) {
+        if (properties.getScope() == ResilienceScope.HOST) {
+            return "host:" + UrlHosts.hostOf(website.getUrl());
+        }
+        return "website:" + website.getId();
+    }
+
+    private Guards newGuards(String key) {
+        CircuitBreaker breaker = CircuitBreaker.of(key, breakerConfig);
+        breaker.getEventPublisher().onStateTransition(event ->
+            log.info("Circuit breaker {} moved {}", key, event.getStateTransition()));
+        Retry retry = Retry.of(key, retryConfig);
+        retry.getEventPublisher().onRetry(event -> retryCounter.increment());
+        return new Guards(breaker, retry);
+    }
+
+    private MonitoringResult failureResult(Website website, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error;
+        MonitoringResult.MonitoringResultBuilder result = MonitoringResult.builder()
+            .websiteId(website.getId())
+            .timestamp(System.currentTimeMillis());
+        if (cause instanceof CallNotPermittedException) {
+            skippedCounter.increment();
+            log.debug("Skipping probe for website {}: circuit breaker open", website.getUrl());
+            return result.status(SKIPPED).error(cause.getMessage()).build();
+        }
+        log.error("Error monitoring website: " + website.getUrl(), cause);
+        return result.status("DOWN").error(cause.toString()).build();
+    }
+
+    private double countOpen() {
+        return guards.asMap().values().stream()
+            .filter(pair -> pair.breaker().getState() == CircuitBreaker.State.OPEN)
+            .count();
+    }
+
+    private record Guards(CircuitBreaker breaker, Retry retry) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.commerceguard.monitoring.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.resilience")
+public class ProbeResilienceProperties {
+
+    private ResilienceScope scope = ResilienceScope.WEBSITE;
+
+    /** Upper bound on breaker/retry pairs kept in memory; the least recently used are evicted. */
+    private int maxInstances = 10000;
+
+    /** Pairs not used for this long are dropped, e.g. after a site is deactivated or rebalanced away. */
+    private Duration expireAfterAccess = Duration.ofHours(1);
+
+    private float failureRateThreshold = 50;
+
+    private int slidingWindowSize = 10;
+
+    private int minimumNumberOfCalls = 5;
+
+    private Duration waitDurationInOpenState = Duration.ofMinutes(5);
+
+    private int permittedCallsInHalfOpenState = 1;
+
+    /** Total attempts per probe, including the first. */
+    private int maxAttempts = 2;
+
+    private Duration retryInitialBackoff = Duration.ofSeconds(2);
+
+    private double retryMultiplier = 2;
+
+    /** Each backoff is drawn uniformly from {@code backoff * (1 ± randomization)}. */
+    private double retryRandomization = 0.5;
+}
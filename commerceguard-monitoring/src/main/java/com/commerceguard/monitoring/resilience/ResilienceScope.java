@@ -0,0 +1,11 @@
+package com.commerceguard.monitoring.resilience;
+
+/**
+ * What a circuit breaker and its retry are keyed on.
+ */
+public enum ResilienceScope {
+    /** One breaker per registered website. */
+    WEBSITE,
+    /** One breaker per host, shared by every website on it. */
+    HOST
+}
@@ -0,0 +1,75 @@
+package com.commerceguard.monitoring.scheduler;
+
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.commerceguard.monitoring.resilience.ProbeResilience;
+
+/**
+ * Picks the interval until a site's next probe from the outcome of the last one.
+ *
+ * <p>A site starts at its configured interval. After {@code stableProbes} healthy probes in
+ * a row the interval grows by {@code backoffFactor} per healthy probe, up to
+ * {@code maxInterval}. A failure, or a response more than {@code latencyRegressionFactor}
+ * times slower than the site's moving average, switches to {@code confirmationInterval}
+ * immediately. The site stays there until {@code confirmationProbes} healthy probes in a row
+ * clear it, then returns to its configured interval and starts backing off again.
+ *
+ * <p>Stateless; the per-site state lives in {@link ScheduledProbe} and is only touched
+ * under the scheduler's lock.
+ */
+class AdaptiveIntervalPolicy {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final AdaptiveSettings settings;
+
+    AdaptiveIntervalPolicy(AdaptiveSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Records the outcome of a probe and returns the interval until the next one.
+     *
+     * @param result the probe result, or {@code null} if the probe itself failed
+     */
+    long nextInterval(ScheduledProbe probe, MonitoringResult result) {
+        long base = probe.getBaseIntervalNanos();
+        if (!settings.isEnabled()) {
+            return base;
+        }
+        if (result != null && ProbeResilience.SKIPPED.equals(result.getStatus())) {
+            // Nothing was measured; the open breaker already says when to try the site again.
+            return base;
+        }
+
+        boolean healthy = result != null && "UP".equals(result.getStatus());
+        if (healthy) {
+            // Slow samples still feed the average, so a lasting shift becomes the new normal.
+            boolean regression = isLatencyRegression(probe, result.getResponseTime());
+            probe.recordLatency(result.getResponseTime(), LATENCY_SMOOTHING);
+            healthy = !regression;
+        }
+
+        long current = probe.getIntervalNanos();
+        if (!healthy) {
+            probe.setHealthyStreak(0);
+            probe.setConfirmationsLeft(settings.getConfirmationProbes());
+            return Math.min(base, settings.getConfirmationInterval().toNanos());
+        }
+
+        probe.setHealthyStreak(probe.getHealthyStreak() + 1);
+        if (probe.getConfirmationsLeft() > 0) {
+            probe.setConfirmationsLeft(probe.getConfirmationsLeft() - 1);
+            return probe.getConfirmationsLeft() > 0 ? current : base;
+        }
+        if (probe.getHealthyStreak() < settings.getStableProbes()) {
+            return current;
+        }
+        long max = Math.max(base, settings.getMaxInterval().toNanos());
+        return (long) Math.min(max, Math.max(base, current) * settings.getBackoffFactor());
+    }
+
+    private boolean isLatencyRegression(ScheduledProbe probe, long responseTime) {
+        return probe.getLatencySamples() >= settings.getLatencyWarmupProbes()
+            && responseTime > probe.getAverageLatency() * settings.getLatencyRegressionFactor();
+    }
+}
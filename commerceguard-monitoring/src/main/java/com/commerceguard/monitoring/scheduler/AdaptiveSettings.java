@@ -0,0 +1,36 @@
+package com.commerceguard.monitoring.scheduler;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings of adaptive probe intervals, see {@link AdaptiveIntervalPolicy}.
+ */
+@Data
+public class AdaptiveSettings {
+
+    /** When disabled, every site is probed at exactly its configured interval. */
+    private boolean enabled = false;
+
+    /** Healthy probes in a row before the interval starts to grow. */
+    private int stableProbes = 3;
+
+    /** Factor the interval grows by on each further healthy probe. */
+    private double backoffFactor = 1.5;
+
+    /** Longest interval a stable site backs off to; never shorter than its configured interval. */
+    private Duration maxInterval = Duration.ofMinutes(30);
+
+    /** Interval used after a failure or latency regression until it is confirmed or cleared. */
+    private Duration confirmationInterval = Duration.ofSeconds(15);
+
+    /** Healthy probes at the confirmation interval before a site goes back to its own interval. */
+    private int confirmationProbes = 3;
+
+    /** A response this many times slower than the site's average counts as a regression. */
+    private double latencyRegressionFactor = 2.0;
+
+    /** Healthy probes needed before the average is trusted to detect regressions. */
+    private int latencyWarmupProbes = 5;
+}
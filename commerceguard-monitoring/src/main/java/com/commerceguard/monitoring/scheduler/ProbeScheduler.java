@@ -0,0 +1,476 @@
+package com.commerceguard.monitoring.scheduler;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import com.commerceguard.monitoring.client.WebsiteRegistryClient;
+import com.commerceguard.monitoring.model.MonitoringMode;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.commerceguard.monitoring.service.WebsiteMonitoringService;
+import com.commerceguard.monitoring.shard.ShardCoordinator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drives {@link WebsiteMonitoringService#monitorWebsite(Website)} from each website's
+ * {@code monitoringInterval}.
+ *
+ * <p>All websites share one min-heap keyed by next-due time and a single dispatcher
+ * thread, so the cost per site is a heap entry rather than a {@code ScheduledFuture}.
+ * First runs are spread uniformly across each site's interval. Each probe first needs a
+ * slot on its host, of which there are {@code maxPerHost}, so sites sharing an origin do
+ * not slow each other down or trip its rate limits. It then needs a slot for the resource
+ * it actually consumes (a driver for BROWSER, a socket for HTTP). When either is taken the
+ * probe waits in that host's or resource's queue and is handed the slot of the next probe
+ * that completes, so a busy host or a saturated driver pool never holds up the others.
+ * With adaptive scheduling enabled, {@link AdaptiveIntervalPolicy} stretches the interval
+ * of stable sites and shortens it for sites that just failed or slowed down.
+ *
+ * <p>The site list is kept current by polling the registry's change feed and applying
+ * the diffs; the full list is only loaded on start and when the registry asks for a reset.
+ * Only the sites the {@link ShardCoordinator} assigns to this node are scheduled. The others
+ * are remembered, so a rebalance can pick them up without reloading the list.
+ */
+@Slf4j
+@Component
+public class ProbeScheduler {
+
+    private final WebsiteMonitoringService monitoringService;
+    private final WebsiteRegistryClient registryClient;
+    private final SchedulerProperties properties;
+    private final ShardCoordinator shardCoordinator;
+    private final AdaptiveIntervalPolicy intervalPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition headChanged = lock.newCondition();
+    private final PriorityQueue<ScheduledProbe> dueQueue = new PriorityQueue<>();
+    private final Map<Long, ScheduledProbe> probes = new HashMap<>();
+    /** Every active website in the registry, whether this node owns it or not. */
+    private final Map<Long, Website> websites = new HashMap<>();
+    private final Map<MonitoringMode, Semaphore> slots = new EnumMap<>(MonitoringMode.class);
+    private final Map<MonitoringMode, ArrayDeque<ScheduledProbe>> waiting = new EnumMap<>(MonitoringMode.class);
+    /** Hosts with probes in flight or waiting; entries are removed once idle. */
+    private final Map<String, HostSlots> hosts = new HashMap<>();
+    /** Probes handed the slots of a completed probe, waiting for the dispatcher to launch them. */
+    private final ArrayDeque<ScheduledProbe> handoffs = new ArrayDeque<>();
+    private final int maxPerHost;
+
+    private volatile boolean running;
+    /** Registry version applied so far; only touched by the refresher thread. */
+    private long feedVersion;
+    private Thread dispatcher;
+    private ScheduledExecutorService refresher;
+
+    public ProbeScheduler(
+            WebsiteMonitoringService monitoringService,
+            WebsiteRegistryClient registryClient,
+            SchedulerProperties properties,
+            ShardCoordinator shardCoordinator) {
+        this.monitoringService = monitoringService;
+        this.registryClient = registryClient;
+        this.properties = properties;
+        this.shardCoordinator = shardCoordinator;
+        this.intervalPolicy = new AdaptiveIntervalPolicy(properties.getAdaptive());
+        this.maxPerHost = properties.getMaxPerHost() > 0 ? properties.getMaxPerHost() : Integer.MAX_VALUE;
+        slots.put(MonitoringMode.BROWSER, new Semaphore(properties.getMaxInFlight()));
+        slots.put(MonitoringMode.HTTP, new Semaphore(properties.getMaxHttpInFlight()));
+        for (MonitoringMode mode : MonitoringMode.values()) {
+            waiting.put(mode, new ArrayDeque<>());
+        }
+        shardCoordinator.onRebalance(this::rebalance);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+
+        dispatcher = new Thread(this::dispatchLoop, "probe-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "probe-registry-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshWebsites, 0,
+            properties.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Probe scheduler started with {} browser and {} HTTP slots",
+            properties.getMaxInFlight(), properties.getMaxHttpInFlight());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Reconciles the schedule with the given set of websites. New sites get a jittered
+     * first run, known sites pick up their new interval after the next probe, and sites
+     * that are missing, inactive or owned by another node are dropped.
+     */
+    public void syncWebsites(Collection<Website> websites) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            this.websites.clear();
+            Set<Long> owned = new HashSet<>();
+            for (Website website : websites) {
+                if (website.getId() == null || !website.isActive()) {
+                    continue;
+                }
+                this.websites.put(website.getId(), website);
+                if (shardCoordinator.owns(website)) {
+                    owned.add(website.getId());
+                    upsert(website, now);
+                }
+            }
+
+            probes.values().removeIf(probe -> {
+                if (owned.contains(probe.getWebsiteId())) {
+                    return false;
+                }
+                probe.cancel();
+                return true;
+            });
+            headChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies an incremental change set: updated sites are added or rescheduled (or dropped
+     * if they were deactivated), deleted sites are dropped. Sites not mentioned are left alone.
+     */
+    public void applyChanges(Collection<Website> updated, Collection<Long> deleted) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            for (Website website : updated) {
+                if (website.getId() == null) {
+                    continue;
+                }
+                if (website.isActive()) {
+                    websites.put(website.getId(), website);
+                } else {
+                    websites.remove(website.getId());
+                }
+                if (website.isActive() && shardCoordinator.owns(website)) {
+                    upsert(website, now);
+                } else {
+                    remove(website.getId());
+                }
+            }
+            for (Long websiteId : deleted) {
+                websites.remove(websiteId);
+                remove(websiteId);
+            }
+            headChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-evaluates ownership of every known site after the cluster membership changed:
+     * sites this node took over are scheduled with a jittered first run, sites it handed
+     * off are dropped.
+     */
+    public void rebalance() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            for (Website website : websites.values()) {
+                if (shardCoordinator.owns(website)) {
+                    if (!probes.containsKey(website.getId())) {
+                        upsert(website, now);
+                    }
+                } else {
+                    remove(website.getId());
+                }
+            }
+            headChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return probes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlightCount() {
+        return properties.getMaxInFlight() - slots.get(MonitoringMode.BROWSER).availablePermits()
+            + properties.getMaxHttpInFlight() - slots.get(MonitoringMode.HTTP).availablePermits();
+    }
+
+    long nextDueNanos(Long websiteId) {
+        lock.lock();
+        try {
+            ScheduledProbe probe = probes.get(websiteId);
+            return probe == null ? -1 : probe.getNextDueNanos();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshWebsites() {
+        try {
+            WebsiteChangeFeed feed;
+            do {
+                feed = registryClient.getChanges(feedVersion);
+                if (feed.isReset()) {
+                    syncWebsites(feed.getUpdated());
+                } else {
+                    applyChanges(feed.getUpdated(), feed.getDeleted());
+                }
+                feedVersion = feed.getVersion();
+            } while (feed.isHasMore());
+        } catch (Exception e) {
+            log.error("Error refreshing websites from registry", e);
+        }
+    }
+
+    /** Adds a site with a jittered first run, or picks up its new settings after the next probe. */
+    private void upsert(Website website, long now) {
+        long intervalNanos = intervalNanos(website);
+        ScheduledProbe probe = probes.get(website.getId());
+        if (probe == null) {
+            long jitter = ThreadLocalRandom.current().nextLong(intervalNanos);
+            probe = new ScheduledProbe(website, intervalNanos, now + jitter);
+            probes.put(website.getId(), probe);
+            dueQueue.add(probe);
+        } else {
+            probe.setWebsite(website);
+            probe.setBaseIntervalNanos(intervalNanos);
+        }
+    }
+
+    private void remove(Long websiteId) {
+        ScheduledProbe probe = probes.remove(websiteId);
+        if (probe != null) {
+            probe.cancel();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<ScheduledProbe> handedOff = new ArrayList<>();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                ScheduledProbe probe = takeDue(handedOff);
+                for (ScheduledProbe next : handedOff) {
+                    launch(next);
+                }
+                handedOff.clear();
+                if (probe != null && acquireSlotOrWait(probe)) {
+                    launch(probe);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the head of the heap is due or probes have been handed slots, which are
+     * moved to {@code handedOff}. Returns {@code null} for cancelled entries and handoffs.
+     */
+    private ScheduledProbe takeDue(List<ScheduledProbe> handedOff) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (!handoffs.isEmpty()) {
+                    handedOff.addAll(handoffs);
+                    handoffs.clear();
+                    return null;
+                }
+                ScheduledProbe head = dueQueue.peek();
+                if (head == null) {
+                    headChanged.await();
+                    continue;
+                }
+                long delay = head.getNextDueNanos() - System.nanoTime();
+                if (delay > 0) {
+                    headChanged.awaitNanos(delay);
+                    continue;
+                }
+                dueQueue.poll();
+                return head.isCancelled() ? null : head;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a host slot and then a resource slot. Returns {@code false} if the probe had to
+     * queue for either; it is launched when a completing probe hands its slot over.
+     */
+    private boolean acquireSlotOrWait(ScheduledProbe probe) {
+        lock.lock();
+        try {
+            HostSlots host = hosts.computeIfAbsent(probe.getHost(), key -> new HostSlots());
+            if (host.inFlight >= maxPerHost) {
+                host.waiting.addLast(probe);
+                return false;
+            }
+            host.inFlight++;
+            probe.setSlotHost(probe.getHost());
+            return acquireModeSlotOrWait(probe);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquireModeSlotOrWait(ScheduledProbe probe) {
+        MonitoringMode mode = probe.getMode();
+        probe.setSlotMode(mode);
+        if (slots.get(mode).tryAcquire()) {
+            return true;
+        }
+        waiting.get(mode).addLast(probe);
+        return false;
+    }
+
+    private void launch(ScheduledProbe probe) {
+        CompletableFuture<MonitoringResult> future;
+        try {
+            future = monitoringService.monitorWebsite(probe.getWebsite(), probe.getParameters());
+        } catch (Exception e) {
+            log.error("Error dispatching probe for website: " + probe.getWebsite().getUrl(), e);
+            complete(probe, null);
+            return;
+        }
+        future.whenComplete((result, error) -> complete(probe, result));
+    }
+
+    /**
+     * Passes the finished probe's slots straight to the next waiters. They are launched by
+     * the dispatcher rather than here: a probe that completes synchronously, such as one
+     * skipped by an open circuit breaker, would otherwise launch the next one on the same
+     * stack, and a long queue of them could overflow it.
+     */
+    private void complete(ScheduledProbe probe, MonitoringResult result) {
+        List<ScheduledProbe> ready = new ArrayList<>(2);
+        lock.lock();
+        try {
+            probe.setIntervalNanos(intervalPolicy.nextInterval(probe, result));
+            reschedule(probe);
+            releaseHostSlot(probe, ready);
+            ScheduledProbe next = pollWaiting(probe.getSlotMode(), ready);
+            if (next == null) {
+                slots.get(probe.getSlotMode()).release();
+            } else {
+                ready.add(next);
+            }
+            if (!ready.isEmpty()) {
+                handoffs.addAll(ready);
+                headChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the host slot of {@code probe} to the next probe waiting for that host, which
+     * then queues for a resource slot. Probes that got both are added to {@code ready}.
+     */
+    private void releaseHostSlot(ScheduledProbe probe, List<ScheduledProbe> ready) {
+        String key = probe.getSlotHost();
+        HostSlots host = hosts.get(key);
+        if (host == null) {
+            return;
+        }
+        ScheduledProbe next = host.waiting.pollFirst();
+        while (next != null && next.isCancelled()) {
+            next = host.waiting.pollFirst();
+        }
+        if (next == null) {
+            host.inFlight--;
+            if (host.inFlight == 0 && host.waiting.isEmpty()) {
+                hosts.remove(key);
+            }
+            return;
+        }
+        next.setSlotHost(key);
+        if (acquireModeSlotOrWait(next)) {
+            ready.add(next);
+        }
+    }
+
+    private ScheduledProbe pollWaiting(MonitoringMode mode, List<ScheduledProbe> ready) {
+        ArrayDeque<ScheduledProbe> queue = waiting.get(mode);
+        ScheduledProbe next = queue.pollFirst();
+        // Websites removed while waiting are dropped, giving up their host slot.
+        while (next != null && next.isCancelled()) {
+            releaseHostSlot(next, ready);
+            next = queue.pollFirst();
+        }
+        return next;
+    }
+
+    private void reschedule(ScheduledProbe probe) {
+        if (probe.isCancelled()) {
+            return;
+        }
+        // Skip missed ticks rather than firing them back to back, keeping the jittered phase.
+        long now = System.nanoTime();
+        long interval = probe.getIntervalNanos();
+        long next = probe.getNextDueNanos() + interval;
+        if (next - now <= 0) {
+            next += ((now - next) / interval + 1) * interval;
+        }
+        probe.setNextDueNanos(next);
+        dueQueue.add(probe);
+        headChanged.signalAll();
+    }
+
+    /** Host slots in use and probes waiting for one; guarded by the scheduler lock. */
+    private static final class HostSlots {
+        private int inFlight;
+        private final ArrayDeque<ScheduledProbe> waiting = new ArrayDeque<>();
+    }
+
+    private long intervalNanos(Website website) {
+        int seconds = website.getMonitoringInterval();
+        return seconds > 0
+            ? TimeUnit.SECONDS.toNanos(seconds)
+            : properties.getDefaultInterval().toNanos();
+    }
+}
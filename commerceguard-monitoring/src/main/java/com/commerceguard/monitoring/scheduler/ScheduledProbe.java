@@ -0,0 +1,158 @@
+package com.commerceguard.monitoring.scheduler;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringMode;
+import com.commerceguard.monitoring.model.MonitoringParameters;
+import com.commerceguard.monitoring.probe.UrlHosts;
+
+/**
+ * Heap entry for a single website. Instances are owned by {@link ProbeScheduler} and
+ * only mutated under its lock; {@code nextDueNanos} never changes while the entry is
+ * sitting in the heap.
+ */
+class ScheduledProbe implements Comparable<ScheduledProbe> {
+
+    private final Long websiteId;
+    private Website website;
+    /** Parsed once per website update rather than on every probe. */
+    private MonitoringParameters parameters;
+    private String host;
+    /** Host whose slot this probe holds; kept separately in case the URL changes meanwhile. */
+    private String slotHost;
+    /** Mode whose slot this probe holds or waits for; the site's mode may change meanwhile. */
+    private MonitoringMode slotMode;
+    /** The site's configured interval. */
+    private long baseIntervalNanos;
+    /** The interval currently in use; differs from the base one under adaptive scheduling. */
+    private long intervalNanos;
+    private long nextDueNanos;
+    private boolean cancelled;
+
+    // Health state for AdaptiveIntervalPolicy
+    private int healthyStreak;
+    private int confirmationsLeft;
+    private double averageLatency;
+    private int latencySamples;
+
+    ScheduledProbe(Website website, long intervalNanos, long nextDueNanos) {
+        this.websiteId = website.getId();
+        setWebsite(website);
+        this.baseIntervalNanos = intervalNanos;
+        this.intervalNanos = intervalNanos;
+        this.nextDueNanos = nextDueNanos;
+    }
+
+    Long getWebsiteId() {
+        return websiteId;
+    }
+
+    Website getWebsite() {
+        return website;
+    }
+
+    void setWebsite(Website website) {
+        this.website = website;
+        this.parameters = MonitoringParameters.from(website);
+        this.host = UrlHosts.hostOf(website.getUrl());
+    }
+
+    MonitoringParameters getParameters() {
+        return parameters;
+    }
+
+    MonitoringMode getMode() {
+        return parameters.getMode();
+    }
+
+    String getHost() {
+        return host;
+    }
+
+    String getSlotHost() {
+        return slotHost;
+    }
+
+    void setSlotHost(String slotHost) {
+        this.slotHost = slotHost;
+    }
+
+    MonitoringMode getSlotMode() {
+        return slotMode;
+    }
+
+    void setSlotMode(MonitoringMode slotMode) {
+        this.slotMode = slotMode;
+    }
+
+    long getBaseIntervalNanos() {
+        return baseIntervalNanos;
+    }
+
+    /** Changes the configured interval; any adaptive adjustment starts over from it. */
+    void setBaseIntervalNanos(long baseIntervalNanos) {
+        if (baseIntervalNanos != this.baseIntervalNanos) {
+            this.baseIntervalNanos = baseIntervalNanos;
+            this.intervalNanos = baseIntervalNanos;
+            this.healthyStreak = 0;
+        }
+    }
+
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    void setIntervalNanos(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    long getNextDueNanos() {
+        return nextDueNanos;
+    }
+
+    void setNextDueNanos(long nextDueNanos) {
+        this.nextDueNanos = nextDueNanos;
+    }
+
+    int getHealthyStreak() {
+        return healthyStreak;
+    }
+
+    void setHealthyStreak(int healthyStreak) {
+        this.healthyStreak = healthyStreak;
+    }
+
+    int getConfirmationsLeft() {
+        return confirmationsLeft;
+    }
+
+    void setConfirmationsLeft(int confirmationsLeft) {
+        this.confirmationsLeft = confirmationsLeft;
+    }
+
+    double getAverageLatency() {
+        return averageLatency;
+    }
+
+    int getLatencySamples() {
+        return latencySamples;
+    }
+
+    /** Folds {@code latency} into an exponentially weighted moving average. */
+    void recordLatency(long latency, double smoothing) {
+        averageLatency = latencySamples == 0 ? latency : averageLatency + smoothing * (latency - averageLatency);
+        latencySamples++;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    @Override
+    public int compareTo(ScheduledProbe other) {
+        return Long.compare(nextDueNanos - other.nextDueNanos, 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.commerceguard.monitoring.scheduler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.scheduler")
+public class SchedulerProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on concurrent browser probes; matches the driver pool's max size. */
+    private int maxInFlight = 20;
+
+    /** Upper bound on concurrent HTTP probes, i.e. open sockets. */
+    private int maxHttpInFlight = 200;
+
+    /**
+     * Upper bound on concurrent probes to one host. Further probes for that host wait while
+     * other hosts proceed. Zero or less disables the limit.
+     */
+    private int maxPerHost = 2;
+
+    /** Interval used for websites registered without a positive monitoring interval. */
+    private Duration defaultInterval = Duration.ofMinutes(5);
+
+    /** How often the registry change feed is polled. */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /** Probe stable sites less often and failing ones more often. */
+    private AdaptiveSettings adaptive = new AdaptiveSettings();
+}
@@ -1,23 +1,36 @@
 package com.commerceguard.monitoring.service;
 
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
 import com.commerceguard.common.model.Website;
+import com.commerceguard.common.timing.PageTiming;
+import com.commerceguard.common.timing.PageTimingScript;
+import com.commerceguard.monitoring.artifact.ArtifactCapture;
+import com.commerceguard.monitoring.artifact.ProbeCapture;
 import com.commerceguard.monitoring.driver.WebDriverManager;
 import com.commerceguard.monitoring.model.MonitoringData;
+import com.commerceguard.monitoring.model.MonitoringMode;
+import com.commerceguard.monitoring.model.MonitoringParameters;
 import com.commerceguard.monitoring.model.MonitoringResult;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.commerceguard.monitoring.persistence.WriteBehindResultSink;
+import com.commerceguard.monitoring.probe.HttpProbe;
+import com.commerceguard.monitoring.queue.IngestionProperties;
+import com.commerceguard.monitoring.queue.IngestionQueue;
+import com.commerceguard.monitoring.resilience.ProbeResilience;
+import com.commerceguard.monitoring.stream.ResultStreamPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -25,85 +38,207 @@ import java.util.concurrent.TimeUnit;
 public class WebsiteMonitoringService {
     
     private final ExecutorService monitoringPool;
-    private final ScheduledExecutorService scheduler;
-    private final BlockingQueue<MonitoringData> dataQueue;
+    private final IngestionQueue<MonitoringData> dataQueue;
+    private final int drainBatchSize;
+    private final long shutdownTimeoutMillis;
+    private final Thread dataConsumer;
     private final WebDriverManager webDriverManager;
+    private final HttpProbe httpProbe;
+    private final WriteBehindResultSink resultSink;
+    private final ResultStreamPublisher resultPublisher;
+    private final ProbeResilience probeResilience;
+    private final ArtifactCapture artifactCapture;
+
+    private volatile boolean running = true;
 
     @Autowired
-    public WebsiteMonitoringService(WebDriverManager webDriverManager) {
-        this.monitoringPool = Executors.newFixedThreadPool(20);
-        this.scheduler = Executors.newScheduledThreadPool(5);
-        this.dataQueue = new LinkedBlockingQueue<>(10000);
+    public WebsiteMonitoringService(
+            WebDriverManager webDriverManager,
+            HttpProbe httpProbe,
+            WriteBehindResultSink resultSink,
+            ResultStreamPublisher resultPublisher,
+            ProbeResilience probeResilience,
+            ArtifactCapture artifactCapture,
+            IngestionProperties ingestionProperties,
+            MeterRegistry meterRegistry,
+            @Value("${commerceguard.execution.mode:PLATFORM}") ExecutionMode executionMode) {
+        // Browser concurrency is capped by the driver pool's own semaphore, so in VIRTUAL
+        // mode the executor can be unbounded.
+        this.monitoringPool = TaskExecutors.newTaskExecutor(executionMode, "monitoring", 20);
+        this.dataQueue = new IngestionQueue<>("monitoring-data", ingestionProperties,
+            data -> data.getWebsite().getId(), meterRegistry);
+        this.drainBatchSize = ingestionProperties.getBatchSize();
+        this.shutdownTimeoutMillis = ingestionProperties.getShutdownTimeout().toMillis();
+        this.dataConsumer = new Thread(this::processDataQueue, "monitoring-data-consumer");
         this.webDriverManager = webDriverManager;
+        this.httpProbe = httpProbe;
+        this.resultSink = resultSink;
+        this.resultPublisher = resultPublisher;
+        this.probeResilience = probeResilience;
+        this.artifactCapture = artifactCapture;
         
         // Start data processing
         startDataConsumers();
     }
 
-    @Async
-    @CircuitBreaker(name = "monitoring", fallbackMethod = "fallbackMonitoring")
-    @Retry(name = "monitoring")
+    /**
+     * Probes {@code website} through its own circuit breaker and retry. The future never
+     * completes exceptionally; a probe rejected by an open breaker yields a
+     * {@link ProbeResilience#SKIPPED} result, which is not recorded.
+     */
     public CompletableFuture<MonitoringResult> monitorWebsite(Website website) {
+        return monitorWebsite(website, MonitoringParameters.from(website));
+    }
+
+    /**
+     * Same as {@link #monitorWebsite(Website)} with the website's parameters already parsed,
+     * as the scheduler keeps them between probes.
+     */
+    public CompletableFuture<MonitoringResult> monitorWebsite(Website website, MonitoringParameters parameters) {
+        if (parameters.getMode() == MonitoringMode.HTTP) {
+            return probeResilience.execute(website, () -> httpProbe.probe(website))
+                .thenApply(result -> record(website, result));
+        }
+        ProbeCapture capture = artifactCapture.start();
+        return probeResilience.execute(website, () -> probeWithBrowser(website, capture))
+            .thenApply(result -> ProbeResilience.SKIPPED.equals(result.getStatus())
+                ? result
+                : record(website, artifactCapture.complete(website, result, capture)));
+    }
+
+    private MonitoringResult record(Website website, MonitoringResult result) {
+        if (!ProbeResilience.SKIPPED.equals(result.getStatus())) {
+            dataQueue.offer(new MonitoringData(website, result));
+        }
+        return result;
+    }
+
+    /**
+     * One browser attempt. The driver is returned before the future completes, so a retry
+     * waiting on its backoff does not hold a pool slot. The page is held in {@code capture}
+     * until the final result decides whether to keep it.
+     */
+    private CompletableFuture<MonitoringResult> probeWithBrowser(Website website, ProbeCapture capture) {
         return CompletableFuture.supplyAsync(() -> {
-            WebDriver driver = null;
+            capture.clear();
+            WebDriver driver;
             try {
                 driver = webDriverManager.getDriver();
-                MonitoringResult result = performMonitoring(driver, website);
-                dataQueue.offer(new MonitoringData(website, result));
-                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return downResult(website, e);
             } catch (Exception e) {
-                log.error("Error monitoring website: " + website.getUrl(), e);
-                throw e;
-            } finally {
-                if (driver != null) {
-                    webDriverManager.releaseDriver(driver);
+                log.warn("No browser available for website: {}", website.getUrl(), e);
+                return downResult(website, e);
+            }
+            try {
+                MonitoringResult result;
+                try {
+                    result = performMonitoring(driver, website);
+                } catch (Exception e) {
+                    log.warn("Browser probe failed for website: {}", website.getUrl(), e);
+                    result = downResult(website, e);
                 }
+                // Held before the driver goes back, while it still shows the probed page.
+                artifactCapture.hold(driver, website, result, capture);
+                return result;
+            } finally {
+                webDriverManager.releaseDriver(driver);
             }
         }, monitoringPool);
     }
 
     private MonitoringResult performMonitoring(WebDriver driver, Website website) {
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         driver.get(website.getUrl());
-        long loadTime = System.currentTimeMillis() - startTime;
+        long loadTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
 
         return MonitoringResult.builder()
             .websiteId(website.getId())
             .timestamp(System.currentTimeMillis())
             .status("UP")
             .responseTime(loadTime)
+            .timing(collectTiming(driver, website))
             .build();
     }
 
-    private void startDataConsumers() {
-        int numConsumers = 5;
-        for (int i = 0; i < numConsumers; i++) {
-            scheduler.scheduleWithFixedDelay(this::processDataQueue, 0, 1, TimeUnit.SECONDS);
+    /** One script round trip for all timing entries; a page that cannot report them just has none. */
+    private PageTiming collectTiming(WebDriver driver, Website website) {
+        if (!(driver instanceof JavascriptExecutor executor)) {
+            return null;
+        }
+        try {
+            return PageTimingScript.parse(executor.executeAsyncScript(PageTimingScript.SCRIPT));
+        } catch (Exception e) {
+            log.debug("Could not collect page timing for website: {}", website.getUrl(), e);
+            return null;
         }
     }
 
-    private void processDataQueue() {
+    /**
+     * Lets in-flight browser probes finish, then waits for the consumer to hand everything
+     * still queued to the result sink. The sink is destroyed after this bean, since this
+     * bean depends on it, and flushes its own buffer then.
+     */
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        monitoringPool.shutdown();
         try {
-            MonitoringData data = dataQueue.poll(1, TimeUnit.SECONDS);
-            if (data != null) {
-                // Process and store monitoring data
-                log.info("Processing monitoring data for website: {}", data.getWebsite().getUrl());
+            if (!monitoringPool.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Browser probes still running at shutdown; their results are lost");
+                monitoringPool.shutdownNow();
             }
+            running = false;
+            dataConsumer.join(Math.max(1, deadline - System.currentTimeMillis()));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("Data processing interrupted", e);
+        }
+        if (dataConsumer.isAlive()) {
+            log.warn("Dropping {} queued monitoring results at shutdown", dataQueue.size());
+            dataConsumer.interrupt();
         }
     }
 
-    private CompletableFuture<MonitoringResult> fallbackMonitoring(Website website, Throwable t) {
-        log.error("Fallback monitoring for website: " + website.getUrl(), t);
-        return CompletableFuture.completedFuture(
-            MonitoringResult.builder()
-                .websiteId(website.getId())
-                .timestamp(System.currentTimeMillis())
-                .status("DOWN")
-                .error(t.getMessage())
-                .build()
-        );
+    private void startDataConsumers() {
+        // A single consumer drains in batches; producers never contend with more than one reader.
+        dataConsumer.setDaemon(true);
+        dataConsumer.start();
+    }
+
+    private void processDataQueue() {
+        // After shutdown starts, keeps going until the queue is empty.
+        while (running || dataQueue.size() > 0) {
+            try {
+                List<MonitoringData> batch = dataQueue.drain(drainBatchSize, 100, TimeUnit.MILLISECONDS);
+                if (!batch.isEmpty()) {
+                    processDataBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Error processing monitoring data batch", e);
+            }
+        }
+    }
+
+    private void processDataBatch(List<MonitoringData> batch) throws InterruptedException {
+        if (resultPublisher.isEnabled()) {
+            resultPublisher.publish(batch);
+        }
+        List<MonitoringResult> results = new ArrayList<>(batch.size());
+        for (MonitoringData data : batch) {
+            results.add(data.getResult());
+        }
+        resultSink.write(results);
+    }
+
+    private MonitoringResult downResult(Website website, Exception e) {
+        return MonitoringResult.builder()
+            .websiteId(website.getId())
+            .timestamp(System.currentTimeMillis())
+            .status("DOWN")
+            .error(e.toString())
+            .build();
     }
 }
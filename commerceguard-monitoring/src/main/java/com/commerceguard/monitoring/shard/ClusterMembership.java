@@ -0,0 +1,20 @@
+package com.commerceguard.monitoring.shard;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lease-based membership of the monitoring nodes. A node is live while its lease has not
+ * expired; it renews the lease on every heartbeat.
+ */
+public interface ClusterMembership {
+
+    /** Registers {@code node} or renews its lease for another {@code leaseTtl}. */
+    void heartbeat(ClusterNode node, Duration leaseTtl);
+
+    /** Gives up the lease immediately, so the other nodes take over without waiting for it to expire. */
+    void leave(String nodeId);
+
+    /** All nodes with an unexpired lease, in no particular order. */
+    List<ClusterNode> liveNodes();
+}
@@ -0,0 +1,9 @@
+package com.commerceguard.monitoring.shard;
+
+/**
+ * A live monitoring node.
+ *
+ * @param region the region it probes from, or {@code null} if it serves any region
+ */
+public record ClusterNode(String id, String region) {
+}
@@ -0,0 +1,87 @@
+package com.commerceguard.monitoring.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable consistent-hash ring. Each node is placed at {@code virtualNodes} points and a
+ * key belongs to the node at the first point at or after the key's hash. When a node joins
+ * it only takes keys from the others, and when it leaves only its own keys move, about
+ * {@code 1/n} of them either way.
+ *
+ * <p>Placement only depends on the node ids, so every node computes the same assignment
+ * from the same membership.
+ */
+final class ConsistentHashRing {
+
+    private final long[] points;
+    private final ClusterNode[] owners;
+
+    private ConsistentHashRing(long[] points, ClusterNode[] owners) {
+        this.points = points;
+        this.owners = owners;
+    }
+
+    static ConsistentHashRing of(Collection<ClusterNode> nodes, int virtualNodes) {
+        List<Point> placed = new ArrayList<>(nodes.size() * virtualNodes);
+        for (ClusterNode node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                placed.add(new Point(hash(node.id() + "#" + i), node));
+            }
+        }
+        // Ties are broken by id so every node builds the same ring.
+        placed.sort(Comparator.comparingLong(Point::hash).thenComparing(point -> point.node().id()));
+
+        long[] points = new long[placed.size()];
+        ClusterNode[] owners = new ClusterNode[placed.size()];
+        for (int i = 0; i < placed.size(); i++) {
+            points[i] = placed.get(i).hash();
+            owners[i] = placed.get(i).node();
+        }
+        return new ConsistentHashRing(points, owners);
+    }
+
+    boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    /** The node owning {@code key}, or {@code null} if the ring is empty. */
+    ClusterNode owner(long key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // Wrap around past the last point.
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /** FNV-1a over the UTF-8 bytes, finished with {@link #mix(long)} for avalanche. */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /** The MurmurHash3 64-bit finalizer. */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private record Point(long hash, ClusterNode node) {
+    }
+}
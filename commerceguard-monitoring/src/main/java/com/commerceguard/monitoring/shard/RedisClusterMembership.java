@@ -0,0 +1,87 @@
+package com.commerceguard.monitoring.shard;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Membership in Redis: a sorted set of node ids scored by lease expiry, plus a hash of
+ * their regions. Expiry is measured against the Redis server clock, so clock skew between
+ * nodes does not shorten or stretch leases. Expired members are removed by whoever lists
+ * the nodes next. Both the renewal and the removal run as scripts, so a lease renewed while
+ * another node lists the members is never removed with the expired ones.
+ */
+@Component
+public class RedisClusterMembership implements ClusterMembership {
+
+    /** KEYS: nodes, regions. ARGV: node id, region, lease expiry. */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])\n"
+            + "return redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])",
+        Long.class);
+
+    /** KEYS: nodes, regions. ARGV: now. Removes the regions of exactly the members it removes. */
+    private static final RedisScript<Long> EXPIRE_SCRIPT = new DefaultRedisScript<>(
+        "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])\n"
+            + "if #expired > 0 then\n"
+            + "  redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])\n"
+            + "  redis.call('HDEL', KEYS[2], unpack(expired))\n"
+            + "end\n"
+            + "return #expired",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodesKey;
+    private final String regionsKey;
+
+    public RedisClusterMembership(StringRedisTemplate redisTemplate, ShardProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.nodesKey = properties.getKeyPrefix() + ":nodes";
+        this.regionsKey = properties.getKeyPrefix() + ":regions";
+    }
+
+    @Override
+    public void heartbeat(ClusterNode node, Duration leaseTtl) {
+        long expiresAt = serverTime() + leaseTtl.toMillis();
+        redisTemplate.execute(HEARTBEAT_SCRIPT, List.of(nodesKey, regionsKey),
+            node.id(), node.region() == null ? "" : node.region(), Long.toString(expiresAt));
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        redisTemplate.opsForZSet().remove(nodesKey, nodeId);
+        redisTemplate.opsForHash().delete(regionsKey, nodeId);
+    }
+
+    @Override
+    public List<ClusterNode> liveNodes() {
+        long now = serverTime();
+        redisTemplate.execute(EXPIRE_SCRIPT, List.of(nodesKey, regionsKey), Long.toString(now));
+
+        Set<String> ids = redisTemplate.opsForZSet().rangeByScore(nodesKey, now, Double.POSITIVE_INFINITY);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> idList = new ArrayList<>(ids);
+        List<Object> regions = redisTemplate.opsForHash().multiGet(regionsKey, new ArrayList<>(idList));
+        List<ClusterNode> nodes = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            Object region = regions.get(i);
+            nodes.add(new ClusterNode(idList.get(i),
+                region == null || region.toString().isEmpty() ? null : region.toString()));
+        }
+        return nodes;
+    }
+
+    private long serverTime() {
+        Long millis = redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().time());
+        return millis != null ? millis : System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,197 @@
+package com.commerceguard.monitoring.shard;
+
+import com.commerceguard.common.model.Website;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which websites this node monitors.
+ *
+ * <p>Every {@code heartbeatInterval} the node renews its lease in the {@link ClusterMembership}
+ * and reads the live nodes. From them it builds one {@link ConsistentHashRing} over all nodes
+ * and one per region. A website with a region belongs to the owner on its region's ring;
+ * without a region, or if its region has no live node, it belongs to the owner on the
+ * global ring. All nodes see the same membership and build the same rings, so each website
+ * is monitored by exactly one of them.
+ *
+ * <p>When the membership changes, the rebalance listeners are called. Until every node has
+ * seen the change a website can briefly be probed twice, or, after a crash, not at all for
+ * up to {@code leaseTtl}.
+ */
+@Slf4j
+@Component
+public class ShardCoordinator {
+
+    private final ClusterMembership membership;
+    private final ShardProperties properties;
+    private final ClusterNode self;
+    private final List<Runnable> rebalanceListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter rebalanceCounter;
+    private final Counter membershipErrorCounter;
+
+    private volatile Assignment assignment;
+    private ScheduledExecutorService heartbeat;
+
+    public ShardCoordinator(ClusterMembership membership, ShardProperties properties, MeterRegistry meterRegistry) {
+        this.membership = membership;
+        this.properties = properties;
+        this.self = new ClusterNode(
+            properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId(),
+            normalize(properties.getRegion()));
+        this.assignment = Assignment.of(Set.of(self), properties.getVirtualNodes());
+
+        this.rebalanceCounter = meterRegistry.counter("commerceguard.shard.rebalances");
+        this.membershipErrorCounter = meterRegistry.counter("commerceguard.shard.membership.errors");
+        Gauge.builder("commerceguard.shard.nodes", this, coordinator -> coordinator.assignment.nodes.size())
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || heartbeat != null) {
+            return;
+        }
+        // Join before the scheduler loads its first website list.
+        refresh();
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Node {} joined the monitoring cluster in region {}", self.id(), self.region());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.shutdownNow();
+        heartbeat = null;
+        try {
+            membership.leave(self.id());
+        } catch (Exception e) {
+            log.warn("Could not leave the monitoring cluster, the lease of {} will expire: {}", self.id(), e.getMessage());
+        }
+    }
+
+    /** Whether this node is responsible for probing {@code website}. */
+    public boolean owns(Website website) {
+        if (!properties.isEnabled() || website.getId() == null) {
+            return true;
+        }
+        ClusterNode owner = assignment.ownerOf(website.getId(), normalize(website.getRegion()));
+        return owner == null || owner.id().equals(self.id());
+    }
+
+    /** Registers a callback run on the heartbeat thread whenever the assignment changes. */
+    public void onRebalance(Runnable listener) {
+        rebalanceListeners.add(listener);
+    }
+
+    public ClusterNode getSelf() {
+        return self;
+    }
+
+    public int getNodeCount() {
+        return assignment.nodes.size();
+    }
+
+    /** Renews this node's lease and rebuilds the assignment if the membership changed. */
+    void refresh() {
+        Set<ClusterNode> nodes;
+        try {
+            membership.heartbeat(self, properties.getLeaseTtl());
+            nodes = new HashSet<>(membership.liveNodes());
+        } catch (Exception e) {
+            // Keep the last assignment; the other nodes take over once our lease expires.
+            membershipErrorCounter.increment();
+            log.error("Could not refresh the monitoring cluster membership", e);
+            return;
+        }
+        // Always own a share, even if our lease write has not become visible yet.
+        nodes.add(self);
+        if (nodes.equals(assignment.nodes)) {
+            return;
+        }
+
+        assignment = Assignment.of(nodes, properties.getVirtualNodes());
+        rebalanceCounter.increment();
+        log.info("Monitoring cluster changed to {} nodes, rebalancing", nodes.size());
+        for (Runnable listener : rebalanceListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("Error rebalancing websites", e);
+            }
+        }
+    }
+
+    private static String normalize(String region) {
+        return region == null || region.isBlank() ? null : region.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "monitoring";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /** Rings built from one membership snapshot. */
+    private static final class Assignment {
+        private final Set<ClusterNode> nodes;
+        private final ConsistentHashRing global;
+        private final Map<String, ConsistentHashRing> regions;
+
+        private Assignment(Set<ClusterNode> nodes, ConsistentHashRing global, Map<String, ConsistentHashRing> regions) {
+            this.nodes = nodes;
+            this.global = global;
+            this.regions = regions;
+        }
+
+        static Assignment of(Set<ClusterNode> nodes, int virtualNodes) {
+            Map<String, List<ClusterNode>> byRegion = new HashMap<>();
+            for (ClusterNode node : nodes) {
+                String region = normalize(node.region());
+                if (region != null) {
+                    byRegion.computeIfAbsent(region, key -> new ArrayList<>()).add(node);
+                }
+            }
+            Map<String, ConsistentHashRing> regions = new HashMap<>();
+            byRegion.forEach((region, members) -> regions.put(region, ConsistentHashRing.of(members, virtualNodes)));
+            return new Assignment(Set.copyOf(nodes), ConsistentHashRing.of(nodes, virtualNodes), regions);
+        }
+
+        ClusterNode ownerOf(long websiteId, String region) {
+            ConsistentHashRing ring = region == null ? global : regions.getOrDefault(region, global);
+            return ring.owner(websiteId);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.commerceguard.monitoring.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the sharding layer that splits websites between monitoring nodes.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.shard")
+public class ShardProperties {
+
+    /** When disabled, this node monitors every website. */
+    private boolean enabled = true;
+
+    /**
+     * Id of this node. Defaults to the host name plus a random suffix, so a restarted node
+     * joins as a new member; the stale one drops out when its lease expires.
+     */
+    private String nodeId;
+
+    /**
+     * Region this node probes from. Websites with a region are spread over the live nodes of
+     * that region; websites without one, or whose region has no live node, over all nodes.
+     */
+    private String region;
+
+    private String keyPrefix = "commerceguard:monitoring:shard";
+
+    /** How often this node renews its lease and re-reads the membership. */
+    private Duration heartbeatInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a node stays a member without renewing its lease, i.e. how long its sites go
+     * unprobed after it crashes.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(15);
+
+    /** Points per node on the hash ring; more points even out the share of each node. */
+    private int virtualNodes = 128;
+}
@@ -0,0 +1,29 @@
+package com.commerceguard.monitoring.stream;
+
+import com.commerceguard.common.stream.MonitoringResultStream;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.monitoring.stream")
+public class ResultStreamProperties {
+
+    private boolean enabled = true;
+
+    private String key = MonitoringResultStream.DEFAULT_KEY;
+
+    /** Approximate upper bound on entries kept in the stream; older entries are trimmed by XADD. */
+    private long maxLength = 1_000_000;
+
+    /** XADDs sent in one pipelined round trip. */
+    private int batchSize = 500;
+
+    private int maxRetries = 3;
+
+    /** Initial retry delay, doubled on each attempt. */
+    private Duration retryBackoff = Duration.ofMillis(200);
+}
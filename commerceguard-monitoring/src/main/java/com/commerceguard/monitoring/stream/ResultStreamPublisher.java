@@ -0,0 +1,126 @@
+package com.commerceguard.monitoring.stream;
+
+import com.commerceguard.common.stream.MonitoringResultStream;
+import com.commerceguard.common.timing.PageTiming;
+import com.commerceguard.common.wire.MonitoringResultEncoder;
+import com.commerceguard.monitoring.model.MonitoringData;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes monitoring results to the Redis stream read by the data pipeline.
+ *
+ * <p>Each result is encoded with {@link MonitoringResultEncoder}, which references the site
+ * by id only; nothing of the {@code Website} entity beyond its id and region is shipped.
+ * Of the page timing, only time to first byte, DOMContentLoaded and LCP travel with it.
+ *
+ * <p>A batch is split into chunks of {@code batchSize} and every chunk is sent as one
+ * pipelined round trip of XADDs, each trimming the stream to roughly {@code maxLength}.
+ * A failed chunk is retried with exponential backoff before it is counted as lost; XADD
+ * assigns new ids on retry, so the pipeline may see a result twice.
+ *
+ * <p>Called from the single monitoring data consumer thread, which the reused encoder relies on.
+ */
+@Slf4j
+@Component
+public class ResultStreamPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ResultStreamProperties properties;
+    private final byte[] key;
+    private final byte[] payloadField = bytes(MonitoringResultStream.PAYLOAD);
+    private final MonitoringResultEncoder encoder = new MonitoringResultEncoder();
+    private final XAddOptions addOptions;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter retryCounter;
+
+    public ResultStreamPublisher(
+            StringRedisTemplate redisTemplate,
+            ResultStreamProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.key = bytes(properties.getKey());
+        this.addOptions = XAddOptions.maxlen(properties.getMaxLength()).approximateTrimming(true);
+
+        this.publishedCounter = meterRegistry.counter("commerceguard.stream.results.published");
+        this.failedCounter = meterRegistry.counter("commerceguard.stream.results.failed");
+        this.retryCounter = meterRegistry.counter("commerceguard.stream.publish.retries");
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void publish(List<MonitoringData> batch) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            publishWithRetry(batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+    }
+
+    private void publishWithRetry(List<MonitoringData> chunk) throws InterruptedException {
+        long backoffMillis = properties.getRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    addAll(connection, chunk);
+                    return null;
+                });
+                publishedCounter.increment(chunk.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= properties.getMaxRetries()) {
+                    failedCounter.increment(chunk.size());
+                    log.error("Dropping {} monitoring results after {} publish attempts", chunk.size(), attempt + 1, e);
+                    return;
+                }
+                retryCounter.increment();
+                log.warn("Publishing {} results to the stream failed, retrying: {}", chunk.size(), e.getMessage());
+                Thread.sleep(backoffMillis << attempt);
+            }
+        }
+    }
+
+    private void addAll(RedisConnection connection, List<MonitoringData> chunk) {
+        for (MonitoringData data : chunk) {
+            Map<byte[], byte[]> fields = Map.of(payloadField, encode(data));
+            connection.streamCommands().xAdd(MapRecord.create(key, fields), addOptions);
+        }
+    }
+
+    private byte[] encode(MonitoringData data) {
+        MonitoringResult result = data.getResult();
+        PageTiming timing = result.getTiming();
+        if (timing == null) {
+            return encoder.encode(result.getWebsiteId(), data.getWebsite().getRegion(), result.getTimestamp(),
+                result.getStatus(), result.getResponseTime(), result.getError()).toByteArray();
+        }
+        return encoder.encode(result.getWebsiteId(), data.getWebsite().getRegion(), result.getTimestamp(),
+            result.getStatus(), result.getResponseTime(), result.getError(), millis(timing.getTimeToFirstByte()),
+            millis(timing.getDomContentLoaded()), millis(timing.getLargestContentfulPaint())).toByteArray();
+    }
+
+    /** The encoder's marker for a phase the browser did not report. */
+    private static long millis(Long value) {
+        return value == null ? -1 : value;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS monitoring_results (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    website_id BIGINT NOT NULL,
+    checked_at BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    response_time BIGINT NOT NULL,
+    error VARCHAR(1024),
+    INDEX idx_monitoring_results_website_time (website_id, checked_at)
+);
+
+-- Only captured probes have rows here; refs point into the monitoring node's artifact store.
+CREATE TABLE IF NOT EXISTS monitoring_artifacts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    website_id BIGINT NOT NULL,
+    checked_at BIGINT NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    artifact_ref CHAR(64) NOT NULL,
+    INDEX idx_monitoring_artifacts_website_time (website_id, checked_at),
+    INDEX idx_monitoring_artifacts_time (checked_at)
+);
+
+-- Key page phases of browser probes in millis, NULL when not reported. HTTP probes have no rows.
+CREATE TABLE IF NOT EXISTS monitoring_page_timings (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    website_id BIGINT NOT NULL,
+    checked_at BIGINT NOT NULL,
+    ttfb INT,
+    dom_content_loaded INT,
+    lcp INT,
+    INDEX idx_monitoring_page_timings_website_time (website_id, checked_at)
+);
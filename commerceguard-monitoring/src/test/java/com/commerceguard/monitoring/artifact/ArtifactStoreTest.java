@@ -0,0 +1,95 @@
+package com.commerceguard.monitoring.artifact;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtifactStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ArtifactStore store;
+
+    @BeforeEach
+    void setUp() {
+        CaptureProperties properties = new CaptureProperties();
+        properties.setDirectory(directory.toString());
+        properties.setRetention(Duration.ofDays(1));
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ArtifactStore(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void put_WithSameContentTwice_ShouldStoreOneCompressedCopy() throws IOException {
+        // Arrange
+        byte[] page = "<html><body>Service Unavailable</body></html>".repeat(1000)
+            .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        String first = store.put(page);
+        String second = store.put(page);
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(64, first.length());
+        assertArrayEquals(page, store.get(first));
+        assertEquals(1, countFiles());
+        assertTrue(meterRegistry.get("commerceguard.artifacts.bytes").counter().count() < page.length / 10.0);
+        assertEquals(1.0, meterRegistry.get("commerceguard.artifacts.deduplicated").counter().count());
+    }
+
+    @Test
+    void get_WithUnknownOrMalformedRef_ShouldThrow() {
+        // Act & Assert
+        CommerceGuardException missing = assertThrows(CommerceGuardException.class, () -> store.get("a".repeat(64)));
+        CommerceGuardException malformed = assertThrows(CommerceGuardException.class, () -> store.get("../secret"));
+        assertEquals("ARTIFACT_NOT_FOUND", missing.getCode());
+        assertEquals("INVALID_ARTIFACT_REF", malformed.getCode());
+    }
+
+    @Test
+    void sweep_ShouldDeleteArtifactsOlderThanRetention() throws IOException {
+        // Arrange
+        String stale = store.put("stale".getBytes(StandardCharsets.UTF_8));
+        String fresh = store.put("fresh".getBytes(StandardCharsets.UTF_8));
+        Path stalePath = directory.resolve(stale.substring(0, 2)).resolve(stale + ".gz");
+        Files.setLastModifiedTime(stalePath, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        // Act
+        store.sweep();
+
+        // Assert
+        assertEquals(1, countFiles());
+        assertArrayEquals("fresh".getBytes(StandardCharsets.UTF_8), store.get(fresh));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
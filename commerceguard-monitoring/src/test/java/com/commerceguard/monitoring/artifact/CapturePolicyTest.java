@@ -0,0 +1,52 @@
+package com.commerceguard.monitoring.artifact;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapturePolicyTest {
+
+    @Test
+    void shouldCapture_ShouldTakeFailuresAndRecoveriesButNotSteadyHealthyProbes() {
+        // Arrange
+        CapturePolicy policy = new CapturePolicy(new CaptureProperties(), () -> 0.0);
+
+        // Act & Assert
+        assertFalse(policy.shouldCapture(1L, "UP", false));
+        assertFalse(policy.shouldCapture(1L, "UP", false));
+        assertTrue(policy.shouldCapture(1L, "DOWN", false));
+        assertTrue(policy.shouldCapture(1L, "DOWN", false));
+        assertTrue(policy.shouldCapture(1L, "UP", false));
+        assertFalse(policy.shouldCapture(1L, "UP", false));
+    }
+
+    @Test
+    void mayCapture_ShouldNotRecordTheAttemptStatus() {
+        // Arrange
+        CapturePolicy policy = new CapturePolicy(new CaptureProperties(), () -> 0.0);
+        policy.shouldCapture(1L, "UP", false);
+
+        // Act
+        boolean failedAttempt = policy.mayCapture(1L, "DOWN", false);
+
+        // Assert
+        assertTrue(failedAttempt);
+        assertFalse(policy.shouldCapture(1L, "UP", false));
+    }
+
+    @Test
+    void shouldCapture_WithSampleRate_ShouldTakeSampledHealthyProbes() {
+        // Arrange
+        CaptureProperties properties = new CaptureProperties();
+        properties.setSampleRate(0.1);
+        CapturePolicy sampled = new CapturePolicy(properties, () -> 0.05);
+        CapturePolicy skipped = new CapturePolicy(properties, () -> 0.5);
+
+        // Act & Assert
+        assertTrue(sampled.sample());
+        assertFalse(skipped.sample());
+        assertTrue(sampled.shouldCapture(1L, "UP", true));
+        assertFalse(skipped.shouldCapture(1L, "UP", false));
+    }
+}
@@ -0,0 +1,144 @@
+package com.commerceguard.monitoring.driver;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class WebDriverManagerTest {
+
+    private final List<WebDriver> createdDrivers = new ArrayList<>();
+    private WebDriverPoolProperties properties;
+    private WebDriverManager driverManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebDriverPoolProperties();
+        properties.setMinSize(0);
+        properties.setMaxSize(2);
+        properties.setBorrowTimeout(Duration.ofMillis(100));
+        properties.setEvictionInterval(Duration.ofHours(1));
+        driverManager = new WebDriverManager(this::fakeDriver, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driverManager.shutdown();
+    }
+
+    @Test
+    void getDriver_ShouldCreateLazilyAndReuse() throws InterruptedException {
+        // Arrange
+        assertEquals(0, createdDrivers.size());
+
+        // Act
+        WebDriver first = driverManager.getDriver();
+        driverManager.releaseDriver(first);
+        WebDriver second = driverManager.getDriver();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, createdDrivers.size());
+    }
+
+    @Test
+    void getDriver_WhenPoolExhausted_ShouldTimeOut() throws InterruptedException {
+        // Arrange
+        driverManager.getDriver();
+        driverManager.getDriver();
+
+        // Act & Assert
+        assertThrows(CommerceGuardException.class, () -> driverManager.getDriver());
+        assertEquals(1.0, driverManager.getUtilization());
+    }
+
+    @Test
+    void getDriver_WhenIdleDriverIsDead_ShouldReplaceIt() throws InterruptedException {
+        // Arrange
+        WebDriver first = driverManager.getDriver();
+        driverManager.releaseDriver(first);
+        when(first.getWindowHandle()).thenThrow(new WebDriverException("session deleted"));
+
+        // Act
+        WebDriver second = driverManager.getDriver();
+
+        // Assert
+        assertNotSame(first, second);
+        verify(first).quit();
+    }
+
+    @Test
+    void releaseDriver_AfterMaxUses_ShouldRecycle() throws InterruptedException {
+        // Arrange
+        properties.setMaxUses(2);
+        WebDriver first = driverManager.getDriver();
+        driverManager.releaseDriver(first);
+        driverManager.releaseDriver(driverManager.getDriver());
+
+        // Act
+        WebDriver third = driverManager.getDriver();
+
+        // Assert
+        assertNotSame(first, third);
+        verify(first).quit();
+    }
+
+    @Test
+    void releaseDriver_WhenHeapAboveThreshold_ShouldRecycle() throws InterruptedException {
+        // Arrange
+        properties.setMaxHeapBytes(1024);
+        WebDriver driver = driverManager.getDriver();
+        when(((JavascriptExecutor) driver).executeScript(anyString())).thenReturn(4096L);
+
+        // Act
+        driverManager.releaseDriver(driver);
+
+        // Assert
+        verify(driver).quit();
+        assertEquals(0, driverManager.getIdleCount());
+    }
+
+    @Test
+    void evictIdleDrivers_ShouldKeepMinSize() throws InterruptedException {
+        // Arrange
+        properties.setMinSize(1);
+        properties.setIdleTimeout(Duration.ZERO);
+        WebDriver first = driverManager.getDriver();
+        WebDriver second = driverManager.getDriver();
+        driverManager.releaseDriver(first);
+        driverManager.releaseDriver(second);
+
+        // Act
+        driverManager.evictIdleDrivers();
+
+        // Assert
+        assertEquals(1, driverManager.getIdleCount());
+    }
+
+    private WebDriver fakeDriver() {
+        WebDriver driver = mock(WebDriver.class, withSettings()
+            .extraInterfaces(JavascriptExecutor.class)
+            .defaultAnswer(RETURNS_DEEP_STUBS));
+        createdDrivers.add(driver);
+        return driver;
+    }
+}
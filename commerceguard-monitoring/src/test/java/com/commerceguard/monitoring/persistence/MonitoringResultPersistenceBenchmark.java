@@ -0,0 +1,82 @@
+package com.commerceguard.monitoring.persistence;
+
+import com.commerceguard.monitoring.model.MonitoringResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows/second for per-row inserts versus the batched inserts used by
+ * {@link WriteBehindResultSink}, against an in-memory H2 database in MySQL mode.
+ * Against a real MySQL server the gap is wider, since each per-row insert also pays a
+ * network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MonitoringResultPersistenceBenchmark {
+
+    private static final int ROWS = 500;
+
+    private MonitoringResultRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private List<MonitoringResult> results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new MonitoringResultRepository(jdbcTemplate);
+
+        results = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            results.add(MonitoringResult.builder()
+                .websiteId((long) i)
+                .timestamp(System.currentTimeMillis())
+                .status("UP")
+                .responseTime(250)
+                .build());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE monitoring_results");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perRowInsert() {
+        for (MonitoringResult result : results) {
+            repository.insert(result);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchInsert() {
+        repository.insertBatch(results);
+    }
+}
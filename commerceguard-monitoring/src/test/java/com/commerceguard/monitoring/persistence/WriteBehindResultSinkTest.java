@@ -0,0 +1,103 @@
+package com.commerceguard.monitoring.persistence;
+
+import com.commerceguard.monitoring.model.MonitoringResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class WriteBehindResultSinkTest {
+
+    private MonitoringResultRepository repository;
+    private PersistenceProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        repository = spy(new MonitoringResultRepository(new JdbcTemplate(dataSource)));
+
+        properties = new PersistenceProperties();
+        properties.setBatchSize(100);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+    }
+
+    @Test
+    void write_ShouldPersistInSizeBoundedBatches() throws InterruptedException {
+        // Arrange
+        properties.setFlushInterval(Duration.ofSeconds(5));
+        WriteBehindResultSink sink = new WriteBehindResultSink(repository, properties, new SimpleMeterRegistry());
+
+        // Act
+        sink.write(results(250));
+        sink.shutdown();
+
+        // Assert
+        assertEquals(250, repository.count());
+        verify(repository, times(3)).insertBatch(anyList());
+    }
+
+    @Test
+    void write_ShouldFlushPartialBatchAfterInterval() throws InterruptedException {
+        // Arrange
+        WriteBehindResultSink sink = new WriteBehindResultSink(repository, properties, new SimpleMeterRegistry());
+
+        // Act
+        sink.write(results(5));
+
+        // Assert
+        verify(repository, timeout(1000)).insertBatch(anyList());
+        assertEquals(5, repository.count());
+        sink.shutdown();
+    }
+
+    @Test
+    void write_WhenInsertFailsTransiently_ShouldRetry() throws InterruptedException {
+        // Arrange
+        properties.setFlushInterval(Duration.ofSeconds(5));
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+            .doCallRealMethod()
+            .when(repository).insertBatch(anyList());
+        WriteBehindResultSink sink = new WriteBehindResultSink(repository, properties, new SimpleMeterRegistry());
+
+        // Act
+        sink.write(results(10));
+        sink.shutdown();
+
+        // Assert
+        assertEquals(10, repository.count());
+        verify(repository, times(2)).insertBatch(anyList());
+    }
+
+    private List<MonitoringResult> results(int count) {
+        List<MonitoringResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(MonitoringResult.builder()
+                .websiteId((long) (i % 20))
+                .timestamp(System.currentTimeMillis())
+                .status(i % 7 == 0 ? "DOWN" : "UP")
+                .responseTime(100 + i)
+                .build());
+        }
+        return results;
+    }
+}
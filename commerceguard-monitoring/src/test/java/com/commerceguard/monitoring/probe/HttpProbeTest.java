@@ -0,0 +1,102 @@
+package com.commerceguard.monitoring.probe;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpProbeTest {
+
+    private HttpServer server;
+    private HttpProbe httpProbe;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            byte[] body = "<html>ok</html>".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/unavailable", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+
+        HttpProbeProperties properties = new HttpProbeProperties();
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+        httpProbe = new HttpProbe(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void probe_WhenServerResponds_ShouldReturnUp() throws Exception {
+        // Act
+        MonitoringResult result = httpProbe.probe(website("/ok")).get();
+
+        // Assert
+        assertEquals(1L, result.getWebsiteId());
+        assertEquals("UP", result.getStatus());
+        assertTrue(result.getResponseTime() >= 0);
+    }
+
+    @Test
+    void probe_WhenServerReturnsError_ShouldReturnDown() throws Exception {
+        // Act
+        MonitoringResult result = httpProbe.probe(website("/unavailable")).get();
+
+        // Assert
+        assertEquals("DOWN", result.getStatus());
+        assertEquals("HTTP 503", result.getError());
+    }
+
+    @Test
+    void probe_WhenConnectionRefused_ShouldReturnDown() throws Exception {
+        // Arrange
+        Website website = website("/ok");
+        server.stop(0);
+
+        // Act
+        MonitoringResult result = httpProbe.probe(website).get();
+
+        // Assert
+        assertEquals("DOWN", result.getStatus());
+        assertNotNull(result.getError());
+    }
+
+    @Test
+    void probe_WithMalformedUrl_ShouldReturnDownInsteadOfThrowing() throws Exception {
+        // Arrange
+        Website website = website("/ok");
+        website.setUrl("http://shop example.com/");
+
+        // Act
+        MonitoringResult result = httpProbe.probe(website).get();
+
+        // Assert
+        assertEquals("DOWN", result.getStatus());
+        assertTrue(result.getError().startsWith("Invalid URL"));
+    }
+
+    private Website website(String path) {
+        Website website = new Website();
+        website.setId(1L);
+        website.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return website;
+    }
+}
@@ -0,0 +1,120 @@
+package com.commerceguard.monitoring.queue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestionQueueTest {
+
+    @Test
+    void drain_ShouldReturnBatchUpToMaxItems() throws InterruptedException {
+        // Arrange
+        IngestionQueue<long[]> queue = queue(OverflowPolicy.DROP_OLDEST, 100);
+        for (long i = 0; i < 10; i++) {
+            queue.offer(new long[]{i, i});
+        }
+
+        // Act
+        List<long[]> batch = queue.drain(4, 1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(4, batch.size());
+        assertEquals(0, batch.get(0)[1]);
+        assertEquals(6, queue.size());
+    }
+
+    @Test
+    void offer_WithDropOldest_ShouldEvictOldestAndCount() throws InterruptedException {
+        // Arrange
+        IngestionQueue<long[]> queue = queue(OverflowPolicy.DROP_OLDEST, 3);
+
+        // Act
+        for (long i = 0; i < 5; i++) {
+            assertTrue(queue.offer(new long[]{i, i}));
+        }
+
+        // Assert
+        List<long[]> batch = queue.drain(10, 1, TimeUnit.SECONDS);
+        assertEquals(3, batch.size());
+        assertEquals(2, batch.get(0)[1]);
+        assertEquals(2, queue.getDroppedCount());
+    }
+
+    @Test
+    void offer_WithBlock_ShouldDropAfterTimeout() {
+        // Arrange
+        IngestionQueue<long[]> queue = queue(OverflowPolicy.BLOCK, 1);
+        queue.offer(new long[]{1, 1});
+
+        // Act
+        boolean accepted = queue.offer(new long[]{2, 2});
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void offer_WithCoalescePerSite_ShouldKeepLatestPerSite() throws InterruptedException {
+        // Arrange
+        IngestionQueue<long[]> queue = queue(OverflowPolicy.COALESCE_PER_SITE, 10);
+
+        // Act
+        queue.offer(new long[]{1, 100});
+        queue.offer(new long[]{2, 200});
+        queue.offer(new long[]{1, 101});
+        queue.offer(new long[]{1, 102});
+
+        // Assert
+        List<long[]> batch = queue.drain(10, 1, TimeUnit.SECONDS);
+        assertEquals(2, batch.size());
+        assertEquals(102, batch.get(0)[1]);
+        assertEquals(200, batch.get(1)[1]);
+        assertEquals(2, queue.getCoalescedCount());
+    }
+
+    @Test
+    void offer_WithCoalescePerSite_WhenRejectedConcurrently_ShouldNotWedgeSite() throws Exception {
+        // Arrange
+        IngestionQueue<long[]> queue = queue(OverflowPolicy.COALESCE_PER_SITE, 1);
+        queue.offer(new long[]{1, 100});
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            producers.execute(() -> {
+                for (int n = 0; n < 10_000; n++) {
+                    queue.offer(new long[]{2, n});
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+        queue.drain(10, 1, TimeUnit.SECONDS);
+
+        // Act
+        boolean accepted = queue.offer(new long[]{2, 999_999});
+
+        // Assert
+        List<long[]> batch = queue.drain(10, 1, TimeUnit.SECONDS);
+        assertTrue(accepted);
+        assertEquals(1, batch.size());
+        assertEquals(999_999, batch.get(0)[1]);
+    }
+
+    private IngestionQueue<long[]> queue(OverflowPolicy policy, int capacity) {
+        IngestionProperties properties = new IngestionProperties();
+        properties.setOverflowPolicy(policy);
+        properties.setCapacity(capacity);
+        properties.setOfferTimeout(Duration.ofMillis(50));
+        // item[0] is the site id, item[1] the payload
+        return new IngestionQueue<>("test", properties, item -> item[0], new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,121 @@
+package com.commerceguard.monitoring.resilience;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProbeResilienceTest {
+
+    private ProbeResilienceProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ProbeResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProbeResilienceProperties();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setRetryInitialBackoff(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resilience.shutdown();
+    }
+
+    @Test
+    void execute_WhenSiteKeepsFailing_ShouldOpenOnlyItsOwnBreaker() {
+        // Arrange
+        properties.setMaxAttempts(1);
+        resilience = new ProbeResilience(properties, meterRegistry);
+        Website failing = website(1L, "https://down.example.com");
+        Website healthy = website(2L, "https://up.example.com");
+        AtomicInteger failingAttempts = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            resilience.execute(failing, () -> {
+                failingAttempts.incrementAndGet();
+                return CompletableFuture.completedFuture(result(failing, "DOWN"));
+            }).join();
+        }
+
+        // Act
+        MonitoringResult skipped = resilience.execute(failing, () -> {
+            failingAttempts.incrementAndGet();
+            return CompletableFuture.completedFuture(result(failing, "DOWN"));
+        }).join();
+        MonitoringResult probed = resilience.execute(healthy,
+            () -> CompletableFuture.completedFuture(result(healthy, "UP"))).join();
+
+        // Assert
+        assertEquals(ProbeResilience.SKIPPED, skipped.getStatus());
+        assertEquals(4, failingAttempts.get());
+        assertEquals("UP", probed.getStatus());
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState(failing));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState(healthy));
+        assertEquals(1.0, meterRegistry.get("commerceguard.probe.breakers.open").gauge().value());
+    }
+
+    @Test
+    void execute_WhenFirstAttemptFails_ShouldRetryAndReturnLaterResult() {
+        // Arrange
+        resilience = new ProbeResilience(properties, meterRegistry);
+        Website website = website(1L, "https://flaky.example.com");
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        MonitoringResult result = resilience.execute(website, () -> CompletableFuture.completedFuture(
+            result(website, attempts.incrementAndGet() == 1 ? "DOWN" : "UP"))).join();
+
+        // Assert
+        assertEquals("UP", result.getStatus());
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("commerceguard.probe.retries").counter().count());
+    }
+
+    @Test
+    void execute_WithHostScope_ShouldShareBreakerBetweenSitesOnTheSameHost() {
+        // Arrange
+        properties.setScope(ResilienceScope.HOST);
+        properties.setMaxAttempts(1);
+        resilience = new ProbeResilience(properties, meterRegistry);
+        Website home = website(1L, "https://shop.example.com/");
+        Website checkout = website(2L, "https://SHOP.example.com/checkout");
+        for (int i = 0; i < 4; i++) {
+            resilience.execute(home, () -> CompletableFuture.completedFuture(result(home, "DOWN"))).join();
+        }
+
+        // Act
+        MonitoringResult result = resilience.execute(checkout,
+            () -> CompletableFuture.completedFuture(result(checkout, "UP"))).join();
+
+        // Assert
+        assertEquals(ProbeResilience.SKIPPED, result.getStatus());
+        assertEquals(2L, result.getWebsiteId());
+    }
+
+    private static Website website(Long id, String url) {
+        Website website = new Website();
+        website.setId(id);
+        website.setUrl(url);
+        return website;
+    }
+
+    private static MonitoringResult result(Website website, String status) {
+        return MonitoringResult.builder()
+            .websiteId(website.getId())
+            .timestamp(System.currentTimeMillis())
+            .status(status)
+            .build();
+    }
+}
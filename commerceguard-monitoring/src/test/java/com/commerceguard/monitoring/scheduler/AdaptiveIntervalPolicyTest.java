@@ -0,0 +1,105 @@
+package com.commerceguard.monitoring.scheduler;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveIntervalPolicyTest {
+
+    private static final long BASE = TimeUnit.SECONDS.toNanos(60);
+    private static final long CONFIRMATION = TimeUnit.SECONDS.toNanos(15);
+    private static final long MAX = TimeUnit.MINUTES.toNanos(10);
+
+    private AdaptiveSettings settings;
+    private AdaptiveIntervalPolicy policy;
+    private ScheduledProbe probe;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AdaptiveSettings();
+        settings.setEnabled(true);
+        settings.setMaxInterval(Duration.ofMinutes(10));
+        policy = new AdaptiveIntervalPolicy(settings);
+        Website website = new Website();
+        website.setId(1L);
+        website.setUrl("https://shop.example.com");
+        probe = new ScheduledProbe(website, BASE, 0);
+    }
+
+    @Test
+    void nextInterval_WhenStable_ShouldBackOffUpToMaximum() {
+        // Act
+        long first = 0;
+        for (int i = 0; i < 20; i++) {
+            probe.setIntervalNanos(policy.nextInterval(probe, up(200)));
+            if (i == settings.getStableProbes() - 2) {
+                first = probe.getIntervalNanos();
+            }
+        }
+
+        // Assert
+        assertEquals(BASE, first);
+        assertEquals(MAX, probe.getIntervalNanos());
+    }
+
+    @Test
+    void nextInterval_AfterFailure_ShouldConfirmQuicklyThenReturnToBase() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            probe.setIntervalNanos(policy.nextInterval(probe, up(200)));
+        }
+
+        // Act
+        probe.setIntervalNanos(policy.nextInterval(probe, down()));
+        long afterFailure = probe.getIntervalNanos();
+        for (int i = 0; i < settings.getConfirmationProbes() - 1; i++) {
+            probe.setIntervalNanos(policy.nextInterval(probe, up(200)));
+            assertEquals(CONFIRMATION, probe.getIntervalNanos());
+        }
+        probe.setIntervalNanos(policy.nextInterval(probe, up(200)));
+
+        // Assert
+        assertEquals(CONFIRMATION, afterFailure);
+        assertEquals(BASE, probe.getIntervalNanos());
+    }
+
+    @Test
+    void nextInterval_OnLatencyRegression_ShouldSwitchToConfirmationInterval() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            probe.setIntervalNanos(policy.nextInterval(probe, up(200)));
+        }
+        assertTrue(probe.getIntervalNanos() > BASE);
+
+        // Act
+        long interval = policy.nextInterval(probe, up(1000));
+
+        // Assert
+        assertEquals(CONFIRMATION, interval);
+    }
+
+    @Test
+    void nextInterval_WhenDisabled_ShouldKeepConfiguredInterval() {
+        // Arrange
+        settings.setEnabled(false);
+
+        // Act & Assert
+        assertEquals(BASE, policy.nextInterval(probe, up(200)));
+        assertEquals(BASE, policy.nextInterval(probe, down()));
+    }
+
+    private static MonitoringResult up(long responseTime) {
+        return MonitoringResult.builder().websiteId(1L).status("UP").responseTime(responseTime).build();
+    }
+
+    private static MonitoringResult down() {
+        return MonitoringResult.builder().websiteId(1L).status("DOWN").error("timeout").build();
+    }
+}
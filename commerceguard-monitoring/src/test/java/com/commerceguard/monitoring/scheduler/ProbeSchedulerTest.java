@@ -0,0 +1,255 @@
+package com.commerceguard.monitoring.scheduler;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import com.commerceguard.monitoring.client.WebsiteRegistryClient;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.commerceguard.monitoring.service.WebsiteMonitoringService;
+import com.commerceguard.monitoring.shard.ShardCoordinator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProbeSchedulerTest {
+
+    @Mock
+    private WebsiteMonitoringService monitoringService;
+
+    @Mock
+    private WebsiteRegistryClient registryClient;
+
+    @Mock
+    private ShardCoordinator shardCoordinator;
+
+    private SchedulerProperties properties;
+    private ProbeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.setMaxInFlight(2);
+        properties.setRefreshInterval(Duration.ofHours(1));
+        lenient().when(registryClient.getChanges(anyLong()))
+            .thenReturn(new WebsiteChangeFeed(0, true, false, List.of(), List.of()));
+        lenient().when(shardCoordinator.owns(any())).thenReturn(true);
+        scheduler = new ProbeScheduler(monitoringService, registryClient, properties, shardCoordinator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void syncWebsites_ShouldSpreadFirstRunAcrossInterval() {
+        // Arrange
+        List<Website> websites = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            websites.add(website(id, 60, true));
+        }
+        long before = System.nanoTime();
+
+        // Act
+        scheduler.syncWebsites(websites);
+
+        // Assert
+        long interval = TimeUnit.SECONDS.toNanos(60);
+        int[] buckets = new int[10];
+        for (long id = 1; id <= 1000; id++) {
+            long offset = scheduler.nextDueNanos(id) - before;
+            assertTrue(offset >= 0 && offset < interval + TimeUnit.SECONDS.toNanos(1));
+            buckets[(int) Math.min(9, offset * 10 / interval)]++;
+        }
+        for (int count : buckets) {
+            assertTrue(count > 50, "first runs should not cluster in one part of the interval");
+        }
+    }
+
+    @Test
+    void syncWebsites_ShouldDropInactiveAndRemovedWebsites() {
+        // Arrange
+        scheduler.syncWebsites(List.of(website(1L, 60, true), website(2L, 60, true)));
+
+        // Act
+        scheduler.syncWebsites(List.of(website(1L, 60, false)));
+
+        // Assert
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void applyChanges_ShouldOnlyTouchMentionedWebsites() {
+        // Arrange
+        scheduler.syncWebsites(List.of(website(1L, 60, true), website(2L, 60, true), website(3L, 60, true)));
+        long firstDue = scheduler.nextDueNanos(1L);
+
+        // Act
+        scheduler.applyChanges(List.of(website(2L, 60, false), website(4L, 60, true)), List.of(3L));
+
+        // Assert
+        assertEquals(2, scheduler.getScheduledCount());
+        assertEquals(firstDue, scheduler.nextDueNanos(1L));
+        assertEquals(-1, scheduler.nextDueNanos(2L));
+        assertEquals(-1, scheduler.nextDueNanos(3L));
+        assertNotEquals(-1, scheduler.nextDueNanos(4L));
+    }
+
+    @Test
+    void rebalance_ShouldScheduleOnlyWebsitesOwnedByThisNode() {
+        // Arrange
+        ArgumentCaptor<Runnable> rebalance = ArgumentCaptor.forClass(Runnable.class);
+        verify(shardCoordinator).onRebalance(rebalance.capture());
+        when(shardCoordinator.owns(any())).thenAnswer(invocation -> invocation.<Website>getArgument(0).getId() <= 2);
+        scheduler.syncWebsites(List.of(website(1L, 60, true), website(2L, 60, true), website(3L, 60, true)));
+        long firstDue = scheduler.nextDueNanos(1L);
+
+        // Act
+        when(shardCoordinator.owns(any())).thenAnswer(invocation -> invocation.<Website>getArgument(0).getId() != 2);
+        rebalance.getValue().run();
+
+        // Assert
+        assertEquals(2, scheduler.getScheduledCount());
+        assertEquals(firstDue, scheduler.nextDueNanos(1L));
+        assertEquals(-1, scheduler.nextDueNanos(2L));
+        assertNotEquals(-1, scheduler.nextDueNanos(3L));
+    }
+
+    @Test
+    void start_ShouldNotExceedMaxInFlight() {
+        // Arrange
+        when(monitoringService.monitorWebsite(any(), any())).thenReturn(new CompletableFuture<MonitoringResult>());
+        List<Website> websites = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            websites.add(website(id, 1, true));
+        }
+
+        // Act
+        scheduler.start();
+        scheduler.syncWebsites(websites);
+
+        // Assert
+        verify(monitoringService, after(2000).times(2)).monitorWebsite(any(), any());
+        assertEquals(2, scheduler.getInFlightCount());
+    }
+
+    @Test
+    void start_ShouldQueueProbesToTheSameHostWhileOtherHostsProceed() {
+        // Arrange
+        properties.setMaxInFlight(10);
+        properties.setMaxPerHost(1);
+        scheduler = new ProbeScheduler(monitoringService, registryClient, properties, shardCoordinator);
+        List<Website> launched = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<MonitoringResult>> futures = new CopyOnWriteArrayList<>();
+        when(monitoringService.monitorWebsite(any(), any())).thenAnswer(invocation -> {
+            launched.add(invocation.getArgument(0));
+            CompletableFuture<MonitoringResult> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        });
+        List<Website> websites = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Website website = website(id, 1, true);
+            website.setUrl("https://Shop.example.com/store-" + id);
+            websites.add(website);
+        }
+        websites.add(website(5L, 1, true));
+        websites.add(website(6L, 1, true));
+        when(registryClient.getChanges(anyLong()))
+            .thenReturn(new WebsiteChangeFeed(1, true, false, websites, List.of()));
+
+        // Act
+        scheduler.start();
+        verify(monitoringService, after(2000).times(3)).monitorWebsite(any(), any());
+        CompletableFuture<MonitoringResult> sharedHost = futures.get(launched.indexOf(
+            launched.stream().filter(website -> website.getId() <= 4).findFirst().orElseThrow()));
+        sharedHost.complete(null);
+
+        // Assert
+        verify(monitoringService, timeout(2000).times(4)).monitorWebsite(any(), any());
+        assertEquals(2, launched.stream().filter(website -> website.getId() <= 4).count());
+    }
+
+    @Test
+    void start_WhenQueuedProbesCompleteSynchronously_ShouldLaunchThemAll() {
+        // Arrange
+        properties.setMaxPerHost(1);
+        scheduler = new ProbeScheduler(monitoringService, registryClient, properties, shardCoordinator);
+        CompletableFuture<MonitoringResult> first = new CompletableFuture<>();
+        CompletableFuture<MonitoringResult> skipped = CompletableFuture.completedFuture(null);
+        when(monitoringService.monitorWebsite(any(), any())).thenReturn(first).thenReturn(skipped);
+        List<Website> websites = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            Website website = website(id, 1, true);
+            website.setUrl("https://shop.example.com/product-" + id);
+            websites.add(website);
+        }
+        scheduler.start();
+        scheduler.syncWebsites(websites);
+        verify(monitoringService, after(1500).times(1)).monitorWebsite(any(), any());
+
+        // Act
+        first.complete(null);
+
+        // Assert
+        verify(monitoringService, timeout(5000).atLeast(5000)).monitorWebsite(any(), any());
+    }
+
+    @Test
+    void complete_WhenModeChangedWhileInFlight_ShouldReturnTheSlotItTook() {
+        // Arrange
+        properties.setMaxInFlight(1);
+        scheduler = new ProbeScheduler(monitoringService, registryClient, properties, shardCoordinator);
+        CompletableFuture<MonitoringResult> first = new CompletableFuture<>();
+        when(monitoringService.monitorWebsite(any(), any()))
+            .thenReturn(first)
+            .thenReturn(new CompletableFuture<>());
+        scheduler.start();
+        scheduler.syncWebsites(List.of(website(1L, 1, true)));
+        verify(monitoringService, timeout(2000).times(1)).monitorWebsite(any(), any());
+        Website switchedToHttp = website(1L, 1, true);
+        switchedToHttp.setMonitoringParameters("{\"mode\": \"HTTP\"}");
+        scheduler.applyChanges(List.of(switchedToHttp), List.of());
+
+        // Act
+        first.complete(null);
+        scheduler.applyChanges(List.of(website(2L, 1, true)), List.of());
+
+        // Assert
+        verify(monitoringService, timeout(3000)).monitorWebsite(argThat(website -> website.getId() == 2L), any());
+    }
+
+    private Website website(Long id, int interval, boolean active) {
+        Website website = new Website();
+        website.setId(id);
+        website.setUrl("https://site-" + id + ".example.com");
+        website.setMonitoringInterval(interval);
+        website.setActive(active);
+        return website;
+    }
+}
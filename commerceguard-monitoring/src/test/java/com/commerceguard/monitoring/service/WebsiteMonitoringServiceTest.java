@@ -1,8 +1,19 @@
 package com.commerceguard.monitoring.service;
 
+import com.commerceguard.common.concurrent.ExecutionMode;
 import com.commerceguard.common.model.Website;
+import com.commerceguard.monitoring.artifact.ArtifactCapture;
+import com.commerceguard.monitoring.artifact.ArtifactStore;
+import com.commerceguard.monitoring.artifact.CaptureProperties;
 import com.commerceguard.monitoring.driver.WebDriverManager;
 import com.commerceguard.monitoring.model.MonitoringResult;
+import com.commerceguard.monitoring.persistence.WriteBehindResultSink;
+import com.commerceguard.monitoring.probe.HttpProbe;
+import com.commerceguard.monitoring.queue.IngestionProperties;
+import com.commerceguard.monitoring.resilience.ProbeResilience;
+import com.commerceguard.monitoring.resilience.ProbeResilienceProperties;
+import com.commerceguard.monitoring.stream.ResultStreamPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,12 +21,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.openqa.selenium.WebDriver;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,12 +47,31 @@ class WebsiteMonitoringServiceTest {
     @Mock
     private WebDriver webDriver;
 
+    @Mock
+    private HttpProbe httpProbe;
+
+    @Mock
+    private WriteBehindResultSink resultSink;
+
+    @Mock
+    private ResultStreamPublisher resultPublisher;
+
+    @Mock
+    private ArtifactStore artifactStore;
+
     private WebsiteMonitoringService monitoringService;
 
     @BeforeEach
     void setUp() throws InterruptedException {
-        when(webDriverManager.getDriver()).thenReturn(webDriver);
-        monitoringService = new WebsiteMonitoringService(webDriverManager);
+        lenient().when(webDriverManager.getDriver()).thenReturn(webDriver);
+        ProbeResilienceProperties resilienceProperties = new ProbeResilienceProperties();
+        resilienceProperties.setRetryInitialBackoff(Duration.ofMillis(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        monitoringService = new WebsiteMonitoringService(webDriverManager, httpProbe, resultSink, resultPublisher,
+            new ProbeResilience(resilienceProperties, meterRegistry),
+            new ArtifactCapture(new CaptureProperties(), artifactStore), new IngestionProperties(),
+            meterRegistry,
+            ExecutionMode.PLATFORM);
     }
 
     @Test
@@ -60,7 +99,7 @@ class WebsiteMonitoringServiceTest {
         website.setId(1L);
         website.setUrl("https://example.com");
         
-        when(webDriver.get(any())).thenThrow(new RuntimeException("Connection failed"));
+        doThrow(new RuntimeException("Connection failed")).when(webDriver).get(any());
 
         // Act
         CompletableFuture<MonitoringResult> futureResult = monitoringService.monitorWebsite(website);
@@ -71,5 +110,65 @@ class WebsiteMonitoringServiceTest {
         assertEquals(website.getId(), result.getWebsiteId());
         assertEquals("DOWN", result.getStatus());
         assertNotNull(result.getError());
+        verify(webDriverManager, times(2)).releaseDriver(webDriver);
+    }
+
+    @Test
+    void monitorWebsite_WhenRetryRecovers_ShouldNotCaptureTheFailedAttempt() throws Exception {
+        // Arrange
+        Website website = new Website();
+        website.setId(4L);
+        website.setUrl("https://example.com");
+        when(webDriver.getPageSource()).thenReturn("<html>Service Unavailable</html>");
+        doNothing().doThrow(new RuntimeException("Connection reset")).doNothing().when(webDriver).get(any());
+        monitoringService.monitorWebsite(website).get();
+
+        // Act
+        MonitoringResult result = monitoringService.monitorWebsite(website).get();
+
+        // Assert
+        assertEquals("UP", result.getStatus());
+        assertNull(result.getPageSourceRef());
+        verify(webDriverManager, times(3)).releaseDriver(webDriver);
+        verify(artifactStore, never()).put(any());
+    }
+
+    @Test
+    void monitorWebsite_WithHttpMode_ShouldSkipWebDriver() throws Exception {
+        // Arrange
+        Website website = new Website();
+        website.setId(2L);
+        website.setUrl("https://example.com");
+        website.setMonitoringParameters("{\"mode\": \"http\"}");
+        MonitoringResult httpResult = MonitoringResult.builder()
+            .websiteId(2L)
+            .status("UP")
+            .build();
+        when(httpProbe.probe(website)).thenReturn(CompletableFuture.completedFuture(httpResult));
+
+        // Act
+        MonitoringResult result = monitoringService.monitorWebsite(website).get();
+
+        // Assert
+        assertEquals("UP", result.getStatus());
+        verify(webDriverManager, never()).getDriver();
+    }
+
+    @Test
+    void shutdown_ShouldHandQueuedResultsToSink() throws Exception {
+        // Arrange
+        Website website = new Website();
+        website.setId(3L);
+        website.setUrl("https://example.com");
+        website.setMonitoringParameters("{\"mode\": \"http\"}");
+        when(httpProbe.probe(website)).thenReturn(CompletableFuture.completedFuture(
+            MonitoringResult.builder().websiteId(3L).status("UP").build()));
+        monitoringService.monitorWebsite(website).get();
+
+        // Act
+        monitoringService.shutdown();
+
+        // Assert
+        verify(resultSink).write(argThat(results -> results.size() == 1 && results.get(0).getWebsiteId() == 3L));
     }
 }
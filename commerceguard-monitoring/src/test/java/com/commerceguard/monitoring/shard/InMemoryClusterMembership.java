@@ -0,0 +1,45 @@
+package com.commerceguard.monitoring.shard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ClusterMembership} shared by several in-process nodes, with a clock the test moves.
+ */
+class InMemoryClusterMembership implements ClusterMembership {
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong now = new AtomicLong();
+
+    @Override
+    public void heartbeat(ClusterNode node, Duration leaseTtl) {
+        leases.put(node.id(), new Lease(node, now.get() + leaseTtl.toMillis()));
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        leases.remove(nodeId);
+    }
+
+    @Override
+    public List<ClusterNode> liveNodes() {
+        List<ClusterNode> nodes = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (lease.expiresAt() > now.get()) {
+                nodes.add(lease.node());
+            }
+        }
+        return nodes;
+    }
+
+    void advance(Duration duration) {
+        now.addAndGet(duration.toMillis());
+    }
+
+    private record Lease(ClusterNode node, long expiresAt) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.commerceguard.monitoring.shard;
+
+import com.commerceguard.common.model.Website;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTest {
+
+    private static final int WEBSITES = 10_000;
+
+    private final InMemoryClusterMembership membership = new InMemoryClusterMembership();
+
+    @Test
+    void owns_ShouldAssignEveryWebsiteToExactlyOneNodeInEvenShares() {
+        // Arrange
+        List<ShardCoordinator> nodes = startNodes(4, null);
+
+        // Act
+        int[] owned = countOwned(nodes, websites(null));
+
+        // Assert
+        int total = 0;
+        for (int count : owned) {
+            total += count;
+            assertTrue(Math.abs(count - WEBSITES / 4) < WEBSITES / 4 * 0.2, "share should be within 20%: " + count);
+        }
+        assertEquals(WEBSITES, total);
+    }
+
+    @Test
+    void refresh_WhenNodeJoins_ShouldOnlyMoveWebsitesToTheNewNode() {
+        // Arrange
+        List<ShardCoordinator> nodes = startNodes(4, null);
+        List<Website> websites = websites(null);
+        List<String> before = owners(nodes, websites);
+
+        // Act
+        nodes.add(node("node-4", null));
+        refreshAll(nodes);
+
+        // Assert
+        List<String> after = owners(nodes, websites);
+        int moved = 0;
+        for (int i = 0; i < websites.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                assertEquals("node-4", after.get(i));
+                moved++;
+            }
+        }
+        assertTrue(moved > WEBSITES / 5 * 0.8 && moved < WEBSITES / 5 * 1.2, "about a fifth should move: " + moved);
+    }
+
+    @Test
+    void refresh_WhenLeaseExpires_ShouldHandSitesToSurvivingNodes() {
+        // Arrange
+        List<ShardCoordinator> nodes = startNodes(3, null);
+        nodes.remove(2);
+        List<Website> websites = websites(null);
+
+        // Act
+        membership.advance(Duration.ofSeconds(10));
+        refreshAll(nodes);
+        membership.advance(Duration.ofSeconds(10));
+        refreshAll(nodes);
+
+        // Assert
+        assertEquals(2, nodes.get(0).getNodeCount());
+        int[] owned = countOwned(nodes, websites);
+        assertEquals(WEBSITES, owned[0] + owned[1]);
+    }
+
+    @Test
+    void owns_ShouldPreferNodesInTheWebsitesRegion() {
+        // Arrange
+        List<ShardCoordinator> nodes = new ArrayList<>();
+        nodes.add(node("eu-1", "eu-west"));
+        nodes.add(node("eu-2", "EU-West"));
+        nodes.add(node("us-1", "us-east"));
+        refreshAll(nodes);
+
+        // Act
+        int[] europe = countOwned(nodes, websites("eu-west"));
+        int[] asia = countOwned(nodes, websites("ap-south"));
+
+        // Assert
+        assertEquals(0, europe[2]);
+        assertEquals(WEBSITES, europe[0] + europe[1]);
+        assertTrue(asia[0] > 0 && asia[1] > 0 && asia[2] > 0, "regions without nodes fall back to all nodes");
+    }
+
+    private List<ShardCoordinator> startNodes(int count, String region) {
+        List<ShardCoordinator> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(node("node-" + i, region));
+        }
+        refreshAll(nodes);
+        return nodes;
+    }
+
+    private ShardCoordinator node(String id, String region) {
+        ShardProperties properties = new ShardProperties();
+        properties.setNodeId(id);
+        properties.setRegion(region);
+        return new ShardCoordinator(membership, properties, new SimpleMeterRegistry());
+    }
+
+    /** Twice, so every node sees the heartbeats of those refreshed after it. */
+    private static void refreshAll(List<ShardCoordinator> nodes) {
+        nodes.forEach(ShardCoordinator::refresh);
+        nodes.forEach(ShardCoordinator::refresh);
+    }
+
+    private static int[] countOwned(List<ShardCoordinator> nodes, List<Website> websites) {
+        int[] owned = new int[nodes.size()];
+        for (Website website : websites) {
+            int owners = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).owns(website)) {
+                    owned[i]++;
+                    owners++;
+                }
+            }
+            assertEquals(1, owners, "website " + website.getId() + " should have exactly one owner");
+        }
+        return owned;
+    }
+
+    private static List<String> owners(List<ShardCoordinator> nodes, List<Website> websites) {
+        List<String> owners = new ArrayList<>();
+        for (Website website : websites) {
+            for (ShardCoordinator node : nodes) {
+                if (node.owns(website)) {
+                    owners.add(node.getSelf().id());
+                }
+            }
+        }
+        return owners;
+    }
+
+    private static List<Website> websites(String region) {
+        List<Website> websites = new ArrayList<>(WEBSITES);
+        for (long id = 1; id <= WEBSITES; id++) {
+            Website website = new Website();
+            website.setId(id);
+            website.setRegion(region);
+            websites.add(website);
+        }
+        return websites;
+    }
+}
@@ -0,0 +1,111 @@
+package com.commerceguard.monitoring.stream;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.common.wire.MonitoringResultDecoder;
+import com.commerceguard.common.wire.MonitoringResultEncoder;
+import com.commerceguard.monitoring.model.MonitoringData;
+import com.commerceguard.monitoring.model.MonitoringResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of one monitoring result as Jackson JSON of {@link MonitoringData}
+ * (which embeds the whole {@link Website}) versus the binary format of
+ * {@link MonitoringResultEncoder}. The JSON decode reads the same fields the pipeline needs
+ * from a tree, as a JSON consumer would. Setup prints the encoded size of each. Run with
+ * {@code -prof gc} to compare allocation as well:
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.args="ResultCodecBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResultCodecBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final MonitoringResultEncoder encoder = new MonitoringResultEncoder();
+    private final MonitoringResultDecoder decoder = new MonitoringResultDecoder();
+
+    private MonitoringData data;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Website website = new Website();
+        website.setId(1042L);
+        website.setName("Example Store - Checkout");
+        website.setUrl("https://shop.example.com/checkout?utm_source=monitoring");
+        website.setMonitoringInterval(300);
+        website.setActive(true);
+        website.setRegion("eu-west");
+        website.setCredentials("c2VydmljZS1hY2NvdW50OnMzY3IzdC1wYXNzd29yZA==");
+        website.setMonitoringParameters("{\"mode\":\"browser\",\"timeout\":30,\"waitFor\":\"#checkout-button\"}");
+        website.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        website.setUpdatedAt(LocalDateTime.of(2024, 6, 2, 17, 5));
+        MonitoringResult result = MonitoringResult.builder()
+            .websiteId(1042L)
+            .timestamp(1_700_000_000_000L)
+            .status("UP")
+            .responseTime(843)
+            .build();
+        data = new MonitoringData(website, result);
+
+        json = jsonEncode();
+        binary = binaryEncode();
+        System.out.printf("%nEncoded size: JSON %d bytes, binary %d bytes%n", json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public void jsonDecode(Blackhole blackhole) throws Exception {
+        JsonNode node = objectMapper.readTree(json);
+        JsonNode result = node.get("result");
+        blackhole.consume(result.get("websiteId").asLong());
+        blackhole.consume(node.get("website").get("region").asText());
+        blackhole.consume(result.get("timestamp").asLong());
+        blackhole.consume(result.get("status").asText());
+        blackhole.consume(result.get("responseTime").asLong());
+        blackhole.consume(result.get("error").textValue());
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        MonitoringResult result = data.getResult();
+        return encoder.encode(result.getWebsiteId(), data.getWebsite().getRegion(), result.getTimestamp(),
+            result.getStatus(), result.getResponseTime(), result.getError()).toByteArray();
+    }
+
+    @Benchmark
+    public void binaryDecode(Blackhole blackhole) {
+        decoder.wrap(binary);
+        blackhole.consume(decoder.websiteId());
+        blackhole.consume(decoder.region());
+        blackhole.consume(decoder.timestamp());
+        blackhole.consume(decoder.status());
+        blackhole.consume(decoder.responseTime());
+        blackhole.consume(decoder.error());
+    }
+}
@@ -0,0 +1,68 @@
+package com.commerceguard.registry.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@link WebsiteCacheBackend} in Redis: a generation counter, one string key per cached
+ * value and generation, and a pub/sub channel that announces new generations.
+ */
+@Component
+public class RedisWebsiteCacheBackend implements WebsiteCacheBackend {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String generationKey;
+    private final String keyPrefix;
+    private final ChannelTopic invalidationTopic;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisWebsiteCacheBackend(StringRedisTemplate redisTemplate, RegistryCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.generationKey = properties.getKeyPrefix() + ":generation";
+        this.keyPrefix = properties.getKeyPrefix() + ":websites:";
+        this.invalidationTopic = new ChannelTopic(properties.getKeyPrefix() + ":invalidations");
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public long getGeneration() {
+        String generation = redisTemplate.opsForValue().get(generationKey);
+        return generation == null ? 0 : Long.parseLong(generation);
+    }
+
+    @Override
+    public long invalidate() {
+        Long generation = redisTemplate.opsForValue().increment(generationKey);
+        redisTemplate.convertAndSend(invalidationTopic.getTopic(), String.valueOf(generation));
+        return generation;
+    }
+
+    @Override
+    public String get(long generation, String key) {
+        return redisTemplate.opsForValue().get(keyPrefix + generation + ":" + key);
+    }
+
+    @Override
+    public void put(long generation, String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(keyPrefix + generation + ":" + key, value, ttl);
+    }
+
+    @Override
+    public void onInvalidation(Runnable listener) {
+        listenerContainer.addMessageListener((message, pattern) -> listener.run(), invalidationTopic);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        listenerContainer.destroy();
+    }
+}
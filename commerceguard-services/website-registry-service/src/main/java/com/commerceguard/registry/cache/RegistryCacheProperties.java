@@ -0,0 +1,26 @@
+package com.commerceguard.registry.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.registry.cache")
+public class RegistryCacheProperties {
+
+    private String keyPrefix = "commerceguard:registry";
+
+    private long nearMaxSize = 10_000;
+
+    /**
+     * Upper bound on how long an instance can serve data from its in-process cache after
+     * it missed an invalidation message.
+     */
+    private Duration nearTtl = Duration.ofSeconds(30);
+
+    /** Lifetime of entries in Redis; entries of past generations are left to expire. */
+    private Duration sharedTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,144 @@
+package com.commerceguard.registry.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for registry reads: a Caffeine near cache per instance in front of a
+ * {@link WebsiteCacheBackend} shared by all instances, in front of the database.
+ *
+ * <p>Writes do not update entries; they invalidate everything. Registry writes are rare
+ * next to the polling reads, so whole-cache invalidation keeps the cache trivially correct.
+ * Near entries are tagged with the local epoch they were loaded in, and an invalidation
+ * (local, or announced by another instance) bumps the epoch, so a load that raced with a
+ * write is never served afterwards. Shared entries are keyed by the shared generation for
+ * the same reason. If Redis is unavailable, reads fall through to the database.
+ *
+ * <p>Cached values are shared between callers and must not be modified.
+ */
+@Slf4j
+@Component
+public class WebsiteCache {
+
+    private final WebsiteCacheBackend backend;
+    private final ObjectMapper objectMapper;
+    private final RegistryCacheProperties properties;
+    private final Cache<String, NearEntry> nearCache;
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final Counter nearHitCounter;
+    private final Counter sharedHitCounter;
+    private final Counter missCounter;
+    private final Counter sharedErrorCounter;
+
+    public WebsiteCache(
+            WebsiteCacheBackend backend,
+            ObjectMapper objectMapper,
+            RegistryCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.nearCache = Caffeine.newBuilder()
+            .maximumSize(properties.getNearMaxSize())
+            .expireAfterWrite(properties.getNearTtl())
+            .build();
+
+        this.nearHitCounter = meterRegistry.counter("commerceguard.registry.cache.hits", "tier", "near");
+        this.sharedHitCounter = meterRegistry.counter("commerceguard.registry.cache.hits", "tier", "shared");
+        this.missCounter = meterRegistry.counter("commerceguard.registry.cache.misses");
+        this.sharedErrorCounter = meterRegistry.counter("commerceguard.registry.cache.shared.errors");
+
+        backend.onInvalidation(this::invalidateLocally);
+    }
+
+    /**
+     * Returns the cached value for {@code key}, calling {@code loader} on a miss in both tiers.
+     * {@code null} results are cached too.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, TypeReference<T> type, Supplier<T> loader) {
+        long loadEpoch = epoch.get();
+        NearEntry near = nearCache.getIfPresent(key);
+        if (near != null && near.epoch() == loadEpoch) {
+            nearHitCounter.increment();
+            return (T) near.value();
+        }
+
+        long generation = -1;
+        try {
+            generation = backend.getGeneration();
+            String shared = backend.get(generation, key);
+            if (shared != null) {
+                T value = objectMapper.readValue(shared, type);
+                nearCache.put(key, new NearEntry(loadEpoch, value));
+                sharedHitCounter.increment();
+                return value;
+            }
+        } catch (Exception e) {
+            sharedErrorCounter.increment();
+            log.warn("Shared registry cache unavailable, reading {} from the database: {}", key, e.getMessage());
+        }
+
+        missCounter.increment();
+        T value = loader.get();
+        nearCache.put(key, new NearEntry(loadEpoch, value));
+        if (generation >= 0) {
+            try {
+                backend.put(generation, key, objectMapper.writeValueAsString(value), properties.getSharedTtl());
+            } catch (Exception e) {
+                sharedErrorCounter.increment();
+                log.warn("Could not store {} in the shared registry cache: {}", key, e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Invalidates every instance's cache once the current transaction commits, or right away
+     * outside a transaction. Invalidating before the commit would let a concurrent read
+     * cache the old rows again.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        invalidateLocally();
+        try {
+            backend.invalidate();
+        } catch (Exception e) {
+            sharedErrorCounter.increment();
+            log.error("Could not invalidate the shared registry cache; other instances may serve stale data "
+                + "for up to {}", properties.getSharedTtl(), e);
+        }
+    }
+
+    private void invalidateLocally() {
+        epoch.incrementAndGet();
+        nearCache.invalidateAll();
+    }
+
+    private record NearEntry(long epoch, Object value) {
+    }
+}
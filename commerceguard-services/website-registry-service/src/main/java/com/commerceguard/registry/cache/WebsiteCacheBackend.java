@@ -0,0 +1,23 @@
+package com.commerceguard.registry.cache;
+
+import java.time.Duration;
+
+/**
+ * Shared tier of the {@link WebsiteCache}, common to all registry instances. Entries are
+ * stored per generation; bumping the generation invalidates all of them at once.
+ */
+public interface WebsiteCacheBackend {
+
+    long getGeneration();
+
+    /** Starts a new generation and tells every instance about it. */
+    long invalidate();
+
+    /** @return the stored value, or {@code null} if there is none */
+    String get(long generation, String key);
+
+    void put(long generation, String key, String value, Duration ttl);
+
+    /** Registers a callback run whenever any instance invalidates. */
+    void onInvalidation(Runnable listener);
+}
@@ -1,11 +1,17 @@
 package com.commerceguard.registry.controller;
 
 import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import com.commerceguard.registry.model.BulkResult;
+import com.commerceguard.registry.model.WebsitePage;
+import com.commerceguard.registry.service.WebsiteBulkService;
 import com.commerceguard.registry.service.WebsiteRegistryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,16 +20,45 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WebsiteRegistryController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final WebsiteRegistryService websiteRegistryService;
+    private final WebsiteBulkService websiteBulkService;
 
     @PostMapping
     public ResponseEntity<Website> registerWebsite(@Valid @RequestBody Website website) {
         return ResponseEntity.ok(websiteRegistryService.registerWebsite(website));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> registerWebsites(@RequestBody List<Website> websites) {
+        return ResponseEntity.ok(websiteBulkService.registerWebsites(websites));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResult> updateWebsites(@RequestBody List<Website> websites) {
+        return ResponseEntity.ok(websiteBulkService.updateWebsites(websites));
+    }
+
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<BulkResult> deactivateWebsites(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(websiteBulkService.deactivateWebsites(ids));
+    }
+
     @GetMapping
-    public ResponseEntity<List<Website>> getAllWebsites() {
-        return ResponseEntity.ok(websiteRegistryService.getAllWebsites());
+    public ResponseEntity<WebsitePage> getWebsites(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Boolean active) {
+        return ResponseEntity.ok(
+            websiteRegistryService.getWebsitePage(after, Math.max(1, Math.min(limit, 1000)), active));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportWebsites() {
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .body(websiteRegistryService::exportWebsites);
     }
 
     @GetMapping("/{id}")
@@ -48,4 +83,11 @@ public class WebsiteRegistryController {
     public ResponseEntity<List<Website>> getActiveWebsites() {
         return ResponseEntity.ok(websiteRegistryService.getActiveWebsites());
     }
+
+    @GetMapping("/changes")
+    public ResponseEntity<WebsiteChangeFeed> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(websiteRegistryService.getChanges(since, Math.max(1, Math.min(limit, 5000))));
+    }
 }
@@ -0,0 +1,34 @@
+package com.commerceguard.registry.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request. {@code index} is the item's position in the
+ * request; {@code errorCode} and {@code message} are only set when it was not written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    private int index;
+    private Long id;
+    private BulkItemStatus status;
+    private String errorCode;
+    private String message;
+
+    public static BulkItemResult success(int index, Long id, BulkItemStatus status) {
+        return new BulkItemResult(index, id, status, null, null);
+    }
+
+    public static BulkItemResult failure(int index, Long id, BulkItemStatus status, String errorCode, String message) {
+        return new BulkItemResult(index, id, status, errorCode, message);
+    }
+
+    public boolean isSucceeded() {
+        return status == BulkItemStatus.CREATED
+            || status == BulkItemStatus.UPDATED
+            || status == BulkItemStatus.DEACTIVATED;
+    }
+}
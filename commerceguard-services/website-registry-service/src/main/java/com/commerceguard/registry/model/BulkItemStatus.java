@@ -0,0 +1,12 @@
+package com.commerceguard.registry.model;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DEACTIVATED,
+    /** Failed validation; nothing was written. */
+    REJECTED,
+    NOT_FOUND,
+    /** Valid, but the chunk it was written in was rolled back. */
+    FAILED
+}
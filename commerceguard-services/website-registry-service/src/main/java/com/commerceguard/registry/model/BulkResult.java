@@ -0,0 +1,22 @@
+package com.commerceguard.registry.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Per-item outcome of a bulk request, in request order. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> items;
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int succeeded = (int) items.stream().filter(BulkItemResult::isSucceeded).count();
+        return new BulkResult(succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,6 @@
+package com.commerceguard.registry.model;
+
+public enum ChangeType {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,38 @@
+package com.commerceguard.registry.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the registry change log. Versions are assigned in commit order, see
+ * {@code WebsiteRegistryService#recordChange}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "website_changes")
+public class WebsiteChange {
+
+    @Id
+    private Long version;
+
+    @Column(nullable = false)
+    private Long websiteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType type;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,28 @@
+package com.commerceguard.registry.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single counter row that change log versions are taken from, see
+ * {@code ChangeVersionCounter}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "website_change_version")
+public class WebsiteChangeVersion {
+
+    @Id
+    private Integer id;
+
+    /** The last version handed out. */
+    @Column(nullable = false)
+    private Long version;
+}
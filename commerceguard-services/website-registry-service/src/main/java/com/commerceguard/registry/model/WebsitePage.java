@@ -0,0 +1,19 @@
+package com.commerceguard.registry.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} as {@code after} to get
+ * the next page; it is {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsitePage {
+    private List<WebsiteSummary> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.commerceguard.registry.model;
+
+/**
+ * Closed projection of a website for listings: the columns needed to schedule and display
+ * it, without credentials or monitoring parameters. Spring Data selects only these columns.
+ */
+public interface WebsiteSummary {
+
+    Long getId();
+
+    String getUrl();
+
+    int getMonitoringInterval();
+
+    String getRegion();
+
+    boolean isActive();
+}
@@ -0,0 +1,68 @@
+package com.commerceguard.registry.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hands out change log versions from the single row of {@code website_change_version}.
+ *
+ * <p>{@link #reserve} increments the row in place, which locks it until the calling
+ * transaction ends. Writers are therefore serialized and versions become visible in order,
+ * so a poller can never skip a version that commits late. Unlike locking the latest change,
+ * this also works while the change log is empty.
+ *
+ * <p>The row is seeded at startup from the latest change, so existing change logs continue
+ * where they left off.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+// Hibernate creates the tables, so it has to be up before the counter is seeded.
+@DependsOn("entityManagerFactory")
+public class ChangeVersionCounter {
+
+    private static final int COUNTER_ID = 1;
+
+    private static final String INCREMENT_SQL =
+        "UPDATE website_change_version SET version = version + ? WHERE id = " + COUNTER_ID;
+
+    private static final String SELECT_SQL =
+        "SELECT version FROM website_change_version WHERE id = " + COUNTER_ID;
+
+    private static final String SEED_SQL =
+        "INSERT INTO website_change_version (id, version) "
+            + "SELECT " + COUNTER_ID + ", COALESCE(MAX(version), 0) FROM website_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        Integer seeded = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM website_change_version WHERE id = " + COUNTER_ID, Integer.class);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(SEED_SQL);
+        } catch (DuplicateKeyException e) {
+            log.debug("Change version counter was seeded by another instance");
+        }
+    }
+
+    /**
+     * Reserves {@code count} consecutive versions and returns the last of them. Must run in
+     * the transaction that records the changes.
+     */
+    public long reserve(int count) {
+        if (jdbcTemplate.update(INCREMENT_SQL, count) != 1) {
+            throw new IllegalStateException("Change version counter is not seeded");
+        }
+        Long version = jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+        return version == null ? 0 : version;
+    }
+}
@@ -0,0 +1,129 @@
+package com.commerceguard.registry.repository;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.registry.model.WebsiteChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC batch writes for bulk requests. Hibernate cannot batch inserts of {@link Website}
+ * because its ids come from an identity column. With MySQL, set
+ * {@code rewriteBatchedStatements=true} on the JDBC URL so each batch is sent as a
+ * single multi-row statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WebsiteBatchRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO websites (name, url, monitoring_interval, active, region, credentials, "
+            + "monitoring_parameters, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+        "UPDATE websites SET name = ?, url = ?, monitoring_interval = ?, active = ?, region = ?, "
+            + "credentials = ?, monitoring_parameters = ?, updated_at = ? WHERE id = ?";
+
+    private static final String DEACTIVATE_SQL =
+        "UPDATE websites SET active = FALSE, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_CHANGE_SQL =
+        "INSERT INTO website_changes (version, website_id, type, changed_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts {@code websites} in one batch and sets the generated id and timestamps on
+     * each of them.
+     */
+    public void insertBatch(List<Website> websites, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Website website : websites) {
+                    bindFields(ps, website);
+                    ps.setTimestamp(8, timestamp);
+                    ps.setTimestamp(9, timestamp);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < websites.size()) {
+                        websites.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != websites.size()) {
+                        throw new IncorrectResultSizeDataAccessException(
+                            "Driver returned " + i + " generated keys", websites.size(), i);
+                    }
+                }
+            }
+            return null;
+        });
+        for (Website website : websites) {
+            website.setCreatedAt(now);
+            website.setUpdatedAt(now);
+        }
+    }
+
+    /** Overwrites the stored fields of {@code websites}, which must all exist. */
+    public void updateBatch(List<Website> websites, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_SQL, websites, websites.size(), (ps, website) -> {
+            bindFields(ps, website);
+            ps.setTimestamp(8, timestamp);
+            ps.setLong(9, website.getId());
+        });
+    }
+
+    public void deactivateBatch(List<Long> ids, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(DEACTIVATE_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setLong(2, id);
+        });
+    }
+
+    public void insertChanges(List<WebsiteChange> changes) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getVersion());
+            ps.setLong(2, change.getWebsiteId());
+            ps.setString(3, change.getType().name());
+            ps.setTimestamp(4, Timestamp.valueOf(change.getChangedAt()));
+        });
+    }
+
+    /** The subset of {@code ids} that exist, in one query. */
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT id FROM websites WHERE id IN (" + placeholders + ")", Long.class, ids.toArray()));
+    }
+
+    private static void bindFields(PreparedStatement ps, Website website) throws SQLException {
+        ps.setString(1, website.getName());
+        ps.setString(2, website.getUrl());
+        ps.setInt(3, website.getMonitoringInterval());
+        ps.setBoolean(4, website.isActive());
+        ps.setString(5, website.getRegion());
+        ps.setString(6, website.getCredentials());
+        ps.setString(7, website.getMonitoringParameters());
+    }
+}
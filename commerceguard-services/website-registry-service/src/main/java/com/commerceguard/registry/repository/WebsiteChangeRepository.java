@@ -0,0 +1,18 @@
+package com.commerceguard.registry.repository;
+
+import com.commerceguard.registry.model.WebsiteChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WebsiteChangeRepository extends JpaRepository<WebsiteChange, Long> {
+
+    List<WebsiteChange> findByVersionGreaterThanOrderByVersionAsc(long version, Pageable pageable);
+
+    @Query("select coalesce(max(c.version), 0) from WebsiteChange c")
+    long findLatestVersion();
+}
@@ -1,6 +1,8 @@
 package com.commerceguard.registry.repository;
 
 import com.commerceguard.common.model.Website;
+import com.commerceguard.registry.model.WebsiteSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,9 @@ import java.util.List;
 @Repository
 public interface WebsiteRepository extends JpaRepository<Website, Long> {
     List<Website> findByActiveTrue();
+
+    /** Keyset page: the first {@code pageable.getPageSize()} sites with an id above {@code id}. */
+    List<WebsiteSummary> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<WebsiteSummary> findByIdGreaterThanAndActiveOrderByIdAsc(Long id, boolean active, Pageable pageable);
 }
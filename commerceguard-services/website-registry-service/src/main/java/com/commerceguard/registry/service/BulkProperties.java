@@ -0,0 +1,17 @@
+package com.commerceguard.registry.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "commerceguard.registry.bulk")
+public class BulkProperties {
+
+    /** Rows written per transaction; a failing chunk only rolls back its own rows. */
+    private int chunkSize = 500;
+
+    /** Largest number of items accepted in one request. */
+    private int maxItems = 10_000;
+}
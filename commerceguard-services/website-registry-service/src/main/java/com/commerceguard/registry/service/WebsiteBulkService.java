@@ -0,0 +1,208 @@
+package com.commerceguard.registry.service;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import com.commerceguard.common.model.Website;
+import com.commerceguard.registry.cache.WebsiteCache;
+import com.commerceguard.registry.model.BulkItemResult;
+import com.commerceguard.registry.model.BulkItemStatus;
+import com.commerceguard.registry.model.BulkResult;
+import com.commerceguard.registry.model.ChangeType;
+import com.commerceguard.registry.model.WebsiteChange;
+import com.commerceguard.registry.repository.ChangeVersionCounter;
+import com.commerceguard.registry.repository.WebsiteBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk register, update and deactivate. Every item is validated up front; the valid ones
+ * are written with JDBC batches, {@link BulkProperties#getChunkSize()} rows per
+ * transaction, each chunk recording its change log entries and invalidating the cache on
+ * commit. A chunk that fails is rolled back and its items are reported as
+ * {@link BulkItemStatus#FAILED}; the other chunks are unaffected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebsiteBulkService {
+
+    private final WebsiteBatchRepository batchRepository;
+    private final ChangeVersionCounter versionCounter;
+    private final WebsiteCache websiteCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkProperties properties;
+
+    public BulkResult registerWebsites(List<Website> websites) {
+        checkSize(websites.size());
+        BulkItemResult[] results = new BulkItemResult[websites.size()];
+        List<Integer> valid = new ArrayList<>(websites.size());
+        for (int i = 0; i < websites.size(); i++) {
+            CommerceGuardException error = WebsiteValidator.check(websites.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = BulkItemResult.failure(i, null, BulkItemStatus.REJECTED, error.getCode(), error.getMessage());
+            }
+        }
+
+        writeInChunks(valid, results, chunk -> {
+            List<Website> batch = select(websites, chunk);
+            LocalDateTime now = LocalDateTime.now();
+            batchRepository.insertBatch(batch, now);
+            recordChanges(batch.stream().map(Website::getId).toList(), now);
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = BulkItemResult.success(chunk.get(i), batch.get(i).getId(), BulkItemStatus.CREATED);
+            }
+        });
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    /** Overwrites existing websites, matched by id. */
+    public BulkResult updateWebsites(List<Website> websites) {
+        checkSize(websites.size());
+        BulkItemResult[] results = new BulkItemResult[websites.size()];
+        List<Integer> valid = new ArrayList<>(websites.size());
+        for (int i = 0; i < websites.size(); i++) {
+            Website website = websites.get(i);
+            CommerceGuardException error = WebsiteValidator.check(website);
+            if (error == null && website.getId() == null) {
+                error = new CommerceGuardException("INVALID_ID", "Id is required for an update", 400);
+            }
+            if (error == null) {
+                valid.add(i);
+            } else {
+                Long id = website == null ? null : website.getId();
+                results[i] = BulkItemResult.failure(i, id, BulkItemStatus.REJECTED, error.getCode(), error.getMessage());
+            }
+        }
+
+        writeInChunks(valid, results, chunk -> {
+            Set<Long> existing = batchRepository.findExistingIds(
+                chunk.stream().map(i -> websites.get(i).getId()).toList());
+            List<Website> batch = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Website website = websites.get(index);
+                if (existing.contains(website.getId())) {
+                    batch.add(website);
+                    results[index] = BulkItemResult.success(index, website.getId(), BulkItemStatus.UPDATED);
+                } else {
+                    results[index] = notFound(index, website.getId());
+                }
+            }
+            if (!batch.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                batchRepository.updateBatch(batch, now);
+                recordChanges(batch.stream().map(Website::getId).toList(), now);
+            }
+        });
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    public BulkResult deactivateWebsites(List<Long> ids) {
+        checkSize(ids.size());
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BulkItemResult.failure(i, null, BulkItemStatus.REJECTED, "INVALID_ID", "Id is required");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        writeInChunks(valid, results, chunk -> {
+            Set<Long> existing = batchRepository.findExistingIds(chunk.stream().map(ids::get).toList());
+            Set<Long> batch = new LinkedHashSet<>();
+            for (int index : chunk) {
+                Long id = ids.get(index);
+                if (existing.contains(id)) {
+                    batch.add(id);
+                    results[index] = BulkItemResult.success(index, id, BulkItemStatus.DEACTIVATED);
+                } else {
+                    results[index] = notFound(index, id);
+                }
+            }
+            if (!batch.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> deactivated = List.copyOf(batch);
+                batchRepository.deactivateBatch(deactivated, now);
+                recordChanges(deactivated, now);
+            }
+        });
+        return BulkResult.of(Arrays.asList(results));
+    }
+
+    /**
+     * Runs {@code writer} for consecutive chunks of {@code indexes} in their own
+     * transactions. If a chunk fails for any reason, all of its items are marked as failed
+     * and the remaining chunks are still written.
+     */
+    private void writeInChunks(List<Integer> indexes, BulkItemResult[] results, ChunkWriter writer) {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.write(chunk));
+            } catch (RuntimeException e) {
+                log.warn("Bulk chunk of {} websites was rolled back", chunk.size(), e);
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (int index : chunk) {
+                    Long id = results[index] == null ? null : results[index].getId();
+                    results[index] = BulkItemResult.failure(index, id, BulkItemStatus.FAILED, "WRITE_FAILED", message);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends one change log entry per website, taking consecutive versions from the same
+     * counter as single writes, see {@code WebsiteRegistryService#recordChange}, and
+     * invalidates the cache on commit.
+     */
+    private void recordChanges(List<Long> websiteIds, LocalDateTime now) {
+        long version = versionCounter.reserve(websiteIds.size()) - websiteIds.size();
+        List<WebsiteChange> changes = new ArrayList<>(websiteIds.size());
+        for (Long websiteId : websiteIds) {
+            changes.add(new WebsiteChange(++version, websiteId, ChangeType.UPSERT, now));
+        }
+        batchRepository.insertChanges(changes);
+        websiteCache.invalidateAfterCommit();
+    }
+
+    private void checkSize(int size) {
+        if (size > properties.getMaxItems()) {
+            throw new CommerceGuardException(
+                "BULK_TOO_LARGE",
+                "A bulk request may contain at most " + properties.getMaxItems() + " items",
+                400
+            );
+        }
+    }
+
+    private static List<Website> select(List<Website> websites, List<Integer> indexes) {
+        List<Website> selected = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            selected.add(websites.get(index));
+        }
+        return selected;
+    }
+
+    private static BulkItemResult notFound(int index, Long id) {
+        return BulkItemResult.failure(index, id, BulkItemStatus.NOT_FOUND, "WEBSITE_NOT_FOUND",
+            "Website not found with id: " + id);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<Integer> chunk);
+    }
+}
@@ -2,71 +2,194 @@ package com.commerceguard.registry.service;
 
 import com.commerceguard.common.exception.CommerceGuardException;
 import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import com.commerceguard.registry.cache.WebsiteCache;
+import com.commerceguard.registry.model.ChangeType;
+import com.commerceguard.registry.model.WebsiteChange;
+import com.commerceguard.registry.model.WebsitePage;
+import com.commerceguard.registry.model.WebsiteSummary;
+import com.commerceguard.registry.repository.ChangeVersionCounter;
+import com.commerceguard.registry.repository.WebsiteChangeRepository;
 import com.commerceguard.registry.repository.WebsiteRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class WebsiteRegistryService {
 
+    private static final TypeReference<List<Website>> WEBSITE_LIST = new TypeReference<>() { };
+    private static final TypeReference<Website> WEBSITE = new TypeReference<>() { };
+    private static final TypeReference<Long> VERSION = new TypeReference<>() { };
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
     private final WebsiteRepository websiteRepository;
+    private final WebsiteChangeRepository changeRepository;
+    private final ChangeVersionCounter versionCounter;
+    private final WebsiteCache websiteCache;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public Website registerWebsite(Website website) {
         validateWebsite(website);
-        return websiteRepository.save(website);
+        Website saved = websiteRepository.save(website);
+        recordChange(saved.getId(), ChangeType.UPSERT);
+        return saved;
+    }
+
+    /**
+     * Summaries of up to {@code limit} websites with an id above {@code after}, in id order.
+     * Seeks on the primary key, so every page costs the same no matter how deep it is.
+     *
+     * @param active only websites with this flag, or all when {@code null}
+     */
+    public WebsitePage getWebsitePage(long after, int limit, Boolean active) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<WebsiteSummary> items = active == null
+            ? websiteRepository.findByIdGreaterThanOrderByIdAsc(after, page)
+            : websiteRepository.findByIdGreaterThanAndActiveOrderByIdAsc(after, active, page);
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new WebsitePage(items, nextCursor);
     }
 
-    @Transactional(readOnly = true)
-    public List<Website> getAllWebsites() {
-        return websiteRepository.findAll();
+    /**
+     * Writes a summary of every website to {@code out} as newline-delimited JSON. Rows are
+     * read in keyset batches and flushed after each one, so memory stays flat however large
+     * the registry grows.
+     */
+    public void exportWebsites(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long after = 0;
+            List<WebsiteSummary> batch;
+            do {
+                batch = websiteRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, EXPORT_BATCH_SIZE));
+                for (WebsiteSummary summary : batch) {
+                    writer.writeValue(generator, summary);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == EXPORT_BATCH_SIZE);
+        }
     }
 
-    @Transactional(readOnly = true)
     public Website getWebsite(Long id) {
-        return websiteRepository.findById(id)
-            .orElseThrow(() -> new CommerceGuardException(
-                "WEBSITE_NOT_FOUND",
-                "Website not found with id: " + id,
-                404
-            ));
+        Website website = websiteCache.get("website:" + id, WEBSITE,
+            () -> websiteRepository.findById(id).orElse(null));
+        if (website == null) {
+            throw notFound(id);
+        }
+        return website;
     }
 
     @Transactional
     public Website updateWebsite(Long id, Website website) {
-        Website existingWebsite = getWebsite(id);
+        // Read past the cache: the entity is modified and saved below.
+        Website existingWebsite = websiteRepository.findById(id).orElseThrow(() -> notFound(id));
         updateWebsiteFields(existingWebsite, website);
-        return websiteRepository.save(existingWebsite);
+        Website saved = websiteRepository.save(existingWebsite);
+        recordChange(id, ChangeType.UPSERT);
+        return saved;
     }
 
     @Transactional
     public void deleteWebsite(Long id) {
         if (!websiteRepository.existsById(id)) {
-            throw new CommerceGuardException(
-                "WEBSITE_NOT_FOUND",
-                "Website not found with id: " + id,
-                404
-            );
+            throw notFound(id);
         }
         websiteRepository.deleteById(id);
+        recordChange(id, ChangeType.DELETE);
     }
 
-    @Transactional(readOnly = true)
     public List<Website> getActiveWebsites() {
-        return websiteRepository.findByActiveTrue();
+        return websiteCache.get("active", WEBSITE_LIST, () -> List.copyOf(websiteRepository.findByActiveTrue()));
+    }
+
+    /**
+     * Changes after version {@code since}, at most {@code limit} of them. A caller that is up
+     * to date is answered from the cache. {@code since <= 0}, or a version the registry does
+     * not know, returns a full snapshot instead.
+     */
+    public WebsiteChangeFeed getChanges(long since, int limit) {
+        long current = websiteCache.get("version", VERSION, changeRepository::findLatestVersion);
+        if (since > current) {
+            // The cached version may lag a write that is just being committed.
+            current = changeRepository.findLatestVersion();
+        }
+        if (since <= 0 || since > current) {
+            // Version first: changes committed while the snapshot is read are replayed on the next poll.
+            long version = changeRepository.findLatestVersion();
+            return new WebsiteChangeFeed(version, true, false, websiteRepository.findAll(), List.of());
+        }
+        if (since == current) {
+            return new WebsiteChangeFeed(current, false, false, List.of(), List.of());
+        }
+
+        List<WebsiteChange> changes =
+            changeRepository.findByVersionGreaterThanOrderByVersionAsc(since, PageRequest.of(0, limit));
+        Map<Long, ChangeType> latest = new LinkedHashMap<>();
+        for (WebsiteChange change : changes) {
+            latest.put(change.getWebsiteId(), change.getType());
+        }
+        List<Website> updated = websiteRepository.findAllById(latest.keySet());
+        Set<Long> existing = new HashSet<>();
+        updated.forEach(website -> existing.add(website.getId()));
+        List<Long> deleted = new ArrayList<>();
+        latest.forEach((websiteId, type) -> {
+            if (type == ChangeType.DELETE || !existing.contains(websiteId)) {
+                deleted.add(websiteId);
+            }
+        });
+        long version = changes.get(changes.size() - 1).getVersion();
+        return new WebsiteChangeFeed(version, false, changes.size() == limit, updated, deleted);
+    }
+
+    /**
+     * Appends to the change log and invalidates the cache after commit. The version comes
+     * from {@link ChangeVersionCounter}, whose row stays locked until commit, so concurrent
+     * writers are serialized and versions become visible in order.
+     */
+    private void recordChange(Long websiteId, ChangeType type) {
+        long version = versionCounter.reserve(1);
+        changeRepository.save(new WebsiteChange(version, websiteId, type, LocalDateTime.now()));
+        websiteCache.invalidateAfterCommit();
+    }
+
+    private CommerceGuardException notFound(Long id) {
+        return new CommerceGuardException(
+            "WEBSITE_NOT_FOUND",
+            "Website not found with id: " + id,
+            404
+        );
     }
 
     private void validateWebsite(Website website) {
-        if (website.getMonitoringInterval() < 30) {
-            throw new CommerceGuardException(
-                "INVALID_INTERVAL",
-                "Monitoring interval must be at least 30 seconds",
-                400
-            );
+        CommerceGuardException error = WebsiteValidator.check(website);
+        if (error != null) {
+            throw error;
         }
     }
 
@@ -0,0 +1,41 @@
+package com.commerceguard.registry.service;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import com.commerceguard.common.model.Website;
+
+/** Checks shared by single and bulk writes. */
+final class WebsiteValidator {
+
+    static final int MIN_MONITORING_INTERVAL = 30;
+
+    private WebsiteValidator() {
+    }
+
+    /**
+     * @return the reason {@code website} cannot be stored, or {@code null} if it is valid
+     */
+    static CommerceGuardException check(Website website) {
+        if (website == null) {
+            return invalid("INVALID_WEBSITE", "Website must not be null");
+        }
+        if (isBlank(website.getName())) {
+            return invalid("INVALID_NAME", "Name is required");
+        }
+        if (isBlank(website.getUrl())) {
+            return invalid("INVALID_URL", "URL is required");
+        }
+        if (website.getMonitoringInterval() < MIN_MONITORING_INTERVAL) {
+            return invalid("INVALID_INTERVAL",
+                "Monitoring interval must be at least " + MIN_MONITORING_INTERVAL + " seconds");
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static CommerceGuardException invalid(String code, String message) {
+        return new CommerceGuardException(code, message, 400);
+    }
+}
@@ -0,0 +1,47 @@
+package com.commerceguard.registry.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared cache tier for tests. Several {@link WebsiteCache} instances built on the same
+ * backend behave like registry instances sharing one Redis; invalidations are delivered
+ * synchronously.
+ */
+public class InMemoryWebsiteCacheBackend implements WebsiteCacheBackend {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @Override
+    public long invalidate() {
+        long next = generation.incrementAndGet();
+        listeners.forEach(Runnable::run);
+        return next;
+    }
+
+    @Override
+    public String get(long generation, String key) {
+        return entries.get(generation + ":" + key);
+    }
+
+    @Override
+    public void put(long generation, String key, String value, Duration ttl) {
+        entries.put(generation + ":" + key, value);
+    }
+
+    @Override
+    public void onInvalidation(Runnable listener) {
+        listeners.add(listener);
+    }
+}
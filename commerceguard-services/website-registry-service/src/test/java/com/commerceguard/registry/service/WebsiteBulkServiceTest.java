@@ -0,0 +1,193 @@
+package com.commerceguard.registry.service;
+
+import com.commerceguard.common.exception.CommerceGuardException;
+import com.commerceguard.common.model.Website;
+import com.commerceguard.registry.cache.InMemoryWebsiteCacheBackend;
+import com.commerceguard.registry.cache.RegistryCacheProperties;
+import com.commerceguard.registry.cache.WebsiteCache;
+import com.commerceguard.registry.model.BulkItemStatus;
+import com.commerceguard.registry.model.BulkResult;
+import com.commerceguard.registry.model.WebsiteChange;
+import com.commerceguard.registry.repository.ChangeVersionCounter;
+import com.commerceguard.registry.repository.WebsiteBatchRepository;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebsiteBulkServiceTest {
+
+    @Mock
+    private WebsiteBatchRepository batchRepository;
+
+    @Mock
+    private ChangeVersionCounter versionCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final BulkProperties properties = new BulkProperties();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private WebsiteBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(versionCounter.reserve(anyInt())).thenAnswer(invocation -> (long) invocation.<Integer>getArgument(0));
+        lenient().doAnswer(invocation -> {
+            invocation.<List<Website>>getArgument(0).forEach(website -> website.setId(nextId.getAndIncrement()));
+            return null;
+        }).when(batchRepository).insertBatch(anyList(), any());
+        WebsiteCache cache = new WebsiteCache(new InMemoryWebsiteCacheBackend(),
+            JsonMapper.builder().findAndAddModules().build(), new RegistryCacheProperties(), new SimpleMeterRegistry());
+        bulkService = new WebsiteBulkService(batchRepository, versionCounter, cache,
+            new TransactionTemplate(transactionManager), properties);
+    }
+
+    @Test
+    void registerWebsites_ShouldRejectInvalidItemsAndInsertTheRestInOneBatch() {
+        // Arrange
+        List<Website> websites = List.of(website(null, 60), website(null, 10), website(null, 300));
+
+        // Act
+        BulkResult result = bulkService.registerWebsites(websites);
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(BulkItemStatus.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.REJECTED, result.getItems().get(1).getStatus());
+        assertEquals("INVALID_INTERVAL", result.getItems().get(1).getErrorCode());
+        assertEquals(2L, result.getItems().get(2).getId());
+        verify(batchRepository, times(1)).insertBatch(anyList(), any());
+    }
+
+    @Test
+    void registerWebsites_WhenChunkFails_ShouldOnlyFailItsOwnItems() {
+        // Arrange
+        properties.setChunkSize(2);
+        doAnswer(invocation -> {
+            invocation.<List<Website>>getArgument(0).forEach(website -> website.setId(nextId.getAndIncrement()));
+            return null;
+        }).doThrow(new DataIntegrityViolationException("duplicate"))
+            .when(batchRepository).insertBatch(anyList(), any());
+
+        // Act
+        BulkResult result = bulkService.registerWebsites(
+            List.of(website(null, 60), website(null, 60), website(null, 60)));
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(BulkItemStatus.FAILED, result.getItems().get(2).getStatus());
+        assertNull(result.getItems().get(2).getId());
+    }
+
+    @Test
+    void registerWebsites_WhenChunkFailsOutsideTheDatabase_ShouldOnlyFailItsOwnItems() {
+        // Arrange
+        properties.setChunkSize(2);
+        when(versionCounter.reserve(anyInt()))
+            .thenReturn(2L)
+            .thenThrow(new IllegalStateException("Change version counter is not seeded"));
+
+        // Act
+        BulkResult result = bulkService.registerWebsites(
+            List.of(website(null, 60), website(null, 60), website(null, 60)));
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(BulkItemStatus.FAILED, result.getItems().get(2).getStatus());
+        assertEquals("Change version counter is not seeded", result.getItems().get(2).getMessage());
+    }
+
+    @Test
+    void registerWebsites_ShouldRecordConsecutiveChangeVersions() {
+        // Arrange
+        when(versionCounter.reserve(2)).thenReturn(43L);
+        ArgumentCaptor<List<WebsiteChange>> changes = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        bulkService.registerWebsites(List.of(website(null, 60), website(null, 60)));
+
+        // Assert
+        verify(batchRepository).insertChanges(changes.capture());
+        assertEquals(List.of(42L, 43L), changes.getValue().stream().map(WebsiteChange::getVersion).toList());
+    }
+
+    @Test
+    void updateWebsites_ShouldReportUnknownIds() {
+        // Arrange
+        when(batchRepository.findExistingIds(anyList())).thenReturn(Set.of(1L));
+        ArgumentCaptor<List<Website>> updated = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        BulkResult result = bulkService.updateWebsites(List.of(website(1L, 60), website(2L, 60), website(null, 60)));
+
+        // Assert
+        assertEquals(BulkItemStatus.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+        assertEquals("INVALID_ID", result.getItems().get(2).getErrorCode());
+        verify(batchRepository).updateBatch(updated.capture(), any());
+        assertEquals(List.of(1L), updated.getValue().stream().map(Website::getId).toList());
+    }
+
+    @Test
+    void deactivateWebsites_ShouldOnlyDeactivateExistingIds() {
+        // Arrange
+        when(batchRepository.findExistingIds(anyList())).thenReturn(Set.of(1L, 3L));
+
+        // Act
+        BulkResult result = bulkService.deactivateWebsites(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getItems().get(1).getStatus());
+        verify(batchRepository).deactivateBatch(eq(List.of(1L, 3L)), any());
+    }
+
+    @Test
+    void registerWebsites_OverLimit_ShouldThrowException() {
+        // Arrange
+        properties.setMaxItems(2);
+        List<Website> websites = new ArrayList<>(Collections.nCopies(3, website(null, 60)));
+
+        // Act & Assert
+        assertThrows(CommerceGuardException.class, () -> bulkService.registerWebsites(websites));
+    }
+
+    private static Website website(Long id, int interval) {
+        Website website = new Website();
+        website.setId(id);
+        website.setName("Shop");
+        website.setUrl("https://shop.example.com");
+        website.setMonitoringInterval(interval);
+        website.setActive(true);
+        return website;
+    }
+}
@@ -0,0 +1,130 @@
+package com.commerceguard.registry.service;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.registry.cache.InMemoryWebsiteCacheBackend;
+import com.commerceguard.registry.cache.RegistryCacheProperties;
+import com.commerceguard.registry.cache.WebsiteCache;
+import com.commerceguard.registry.model.WebsiteChange;
+import com.commerceguard.registry.repository.ChangeVersionCounter;
+import com.commerceguard.registry.repository.WebsiteChangeRepository;
+import com.commerceguard.registry.repository.WebsiteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response time of the registry listings at 100k websites, against an in-memory H2
+ * database: the old unpaginated entity list, one keyset page of summaries from a random
+ * position, and the full NDJSON export. Each includes JSON serialization, which is where
+ * the unpaginated list spends much of its time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WebsiteListingBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private WebsiteRepository websiteRepository;
+    private WebsiteRegistryService registryService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:registry;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+        websiteRepository = context.getBean(WebsiteRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        WebsiteCache cache = new WebsiteCache(new InMemoryWebsiteCacheBackend(), objectMapper,
+            new RegistryCacheProperties(), new SimpleMeterRegistry());
+        ChangeVersionCounter versionCounter = new ChangeVersionCounter(context.getBean(JdbcTemplate.class));
+        versionCounter.seed();
+        registryService = new WebsiteRegistryService(websiteRepository,
+            context.getBean(WebsiteChangeRepository.class), versionCounter, cache, objectMapper);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {"Site " + i, "https://shop" + i + ".example.com", 60, true,
+                "region-" + (i % 4), "secret", "{\"checkout\":true}", now, now});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+            "INSERT INTO websites (name, url, monitoring_interval, active, region, credentials,"
+                + " monitoring_parameters, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void unpaginatedEntityList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), websiteRepository.findAll());
+    }
+
+    @Benchmark
+    public void keysetPage() throws IOException {
+        long after = ThreadLocalRandom.current().nextLong(ROWS - PAGE_SIZE);
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+            registryService.getWebsitePage(after, PAGE_SIZE, null));
+    }
+
+    @Benchmark
+    public void ndjsonExport() throws IOException {
+        registryService.exportWebsites(OutputStream.nullOutputStream());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+    @EntityScan(basePackageClasses = {Website.class, WebsiteChange.class})
+    @EnableJpaRepositories(basePackageClasses = WebsiteRepository.class)
+    static class BenchmarkApplication {
+    }
+}
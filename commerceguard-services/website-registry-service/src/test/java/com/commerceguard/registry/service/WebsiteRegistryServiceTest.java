@@ -0,0 +1,262 @@
+package com.commerceguard.registry.service;
+
+import com.commerceguard.common.model.Website;
+import com.commerceguard.common.model.WebsiteChangeFeed;
+import com.commerceguard.registry.cache.InMemoryWebsiteCacheBackend;
+import com.commerceguard.registry.cache.RegistryCacheProperties;
+import com.commerceguard.registry.cache.WebsiteCache;
+import com.commerceguard.registry.model.ChangeType;
+import com.commerceguard.registry.model.WebsiteChange;
+import com.commerceguard.registry.model.WebsitePage;
+import com.commerceguard.registry.model.WebsiteSummary;
+import com.commerceguard.registry.repository.ChangeVersionCounter;
+import com.commerceguard.registry.repository.WebsiteChangeRepository;
+import com.commerceguard.registry.repository.WebsiteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebsiteRegistryServiceTest {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final InMemoryWebsiteCacheBackend sharedBackend = new InMemoryWebsiteCacheBackend();
+
+    @Mock
+    private WebsiteRepository websiteRepository;
+
+    @Mock
+    private WebsiteChangeRepository changeRepository;
+
+    @Mock
+    private ChangeVersionCounter versionCounter;
+
+    private WebsiteRegistryService registryService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(websiteRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(versionCounter.reserve(anyInt())).thenReturn(1L);
+        registryService = newInstance();
+    }
+
+    @Test
+    void getActiveWebsites_WhileUnchanged_ShouldHitDatabaseOnce() {
+        // Arrange
+        when(websiteRepository.findByActiveTrue()).thenReturn(List.of(website(1L, "https://a.example.com")));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            registryService.getActiveWebsites();
+        }
+
+        // Assert
+        verify(websiteRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    void getActiveWebsites_OnAnotherInstance_ShouldBeServedFromSharedCache() {
+        // Arrange
+        when(websiteRepository.findByActiveTrue()).thenReturn(List.of(website(1L, "https://a.example.com")));
+        registryService.getActiveWebsites();
+
+        // Act
+        List<Website> websites = newInstance().getActiveWebsites();
+
+        // Assert
+        assertEquals("https://a.example.com", websites.get(0).getUrl());
+        verify(websiteRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    void updateWebsite_ShouldInvalidateCachedReadsOnEveryInstance() {
+        // Arrange
+        WebsiteRegistryService otherInstance = newInstance();
+        Website stored = website(1L, "https://old.example.com");
+        when(websiteRepository.findById(1L)).thenAnswer(invocation -> Optional.of(copy(stored)));
+        when(websiteRepository.save(any())).thenAnswer(invocation -> {
+            stored.setUrl(invocation.<Website>getArgument(0).getUrl());
+            return invocation.getArgument(0);
+        });
+        assertEquals("https://old.example.com", registryService.getWebsite(1L).getUrl());
+        assertEquals("https://old.example.com", otherInstance.getWebsite(1L).getUrl());
+
+        // Act
+        registryService.updateWebsite(1L, website(1L, "https://new.example.com"));
+
+        // Assert
+        assertEquals("https://new.example.com", registryService.getWebsite(1L).getUrl());
+        assertEquals("https://new.example.com", otherInstance.getWebsite(1L).getUrl());
+    }
+
+    @Test
+    void deleteWebsite_ShouldInvalidateCachedLists() {
+        // Arrange
+        when(websiteRepository.findByActiveTrue())
+            .thenReturn(List.of(website(1L, "https://a.example.com"), website(2L, "https://b.example.com")))
+            .thenReturn(List.of(website(1L, "https://a.example.com")));
+        when(websiteRepository.existsById(2L)).thenReturn(true);
+        registryService.getActiveWebsites();
+
+        // Act
+        registryService.deleteWebsite(2L);
+
+        // Assert
+        assertEquals(1, registryService.getActiveWebsites().size());
+        verify(websiteRepository, times(2)).findByActiveTrue();
+        verify(changeRepository).save(any(WebsiteChange.class));
+    }
+
+    @Test
+    void getChanges_WithoutVersion_ShouldReturnSnapshot() {
+        // Arrange
+        when(changeRepository.findLatestVersion()).thenReturn(7L);
+        when(websiteRepository.findAll()).thenReturn(List.of(website(1L, "https://a.example.com")));
+
+        // Act
+        WebsiteChangeFeed feed = registryService.getChanges(0, 500);
+
+        // Assert
+        assertTrue(feed.isReset());
+        assertEquals(7L, feed.getVersion());
+        assertEquals(1, feed.getUpdated().size());
+    }
+
+    @Test
+    void getChanges_WhenUpToDate_ShouldNotQueryChangeLog() {
+        // Arrange
+        when(changeRepository.findLatestVersion()).thenReturn(7L);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            WebsiteChangeFeed feed = registryService.getChanges(7, 500);
+            assertTrue(feed.getUpdated().isEmpty());
+        }
+
+        // Assert
+        verify(changeRepository, times(1)).findLatestVersion();
+        verify(changeRepository, never()).findByVersionGreaterThanOrderByVersionAsc(anyLong(), any());
+    }
+
+    @Test
+    void getChanges_ShouldReturnLatestStateOfChangedWebsites() {
+        // Arrange
+        when(changeRepository.findLatestVersion()).thenReturn(10L);
+        when(changeRepository.findByVersionGreaterThanOrderByVersionAsc(anyLong(), any())).thenReturn(List.of(
+            change(8L, 1L, ChangeType.UPSERT),
+            change(9L, 2L, ChangeType.UPSERT),
+            change(10L, 2L, ChangeType.DELETE)));
+        when(websiteRepository.findAllById(any())).thenReturn(List.of(website(1L, "https://a.example.com")));
+
+        // Act
+        WebsiteChangeFeed feed = registryService.getChanges(7, 500);
+
+        // Assert
+        assertFalse(feed.isReset());
+        assertEquals(10L, feed.getVersion());
+        assertEquals(List.of(1L), feed.getUpdated().stream().map(Website::getId).toList());
+        assertEquals(List.of(2L), feed.getDeleted());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getWebsitePage_ShouldOnlyReturnCursorWhenPageIsFull() {
+        // Arrange
+        when(websiteRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+            .thenReturn(summaries(1, 2));
+        when(websiteRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+            .thenReturn(summaries(3, 1));
+
+        // Act
+        WebsitePage first = registryService.getWebsitePage(0, 2, null);
+        WebsitePage last = registryService.getWebsitePage(first.getNextCursor(), 2, null);
+
+        // Assert
+        assertEquals(2L, first.getNextCursor());
+        assertEquals(3L, last.getItems().get(0).getId());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void exportWebsites_ShouldWriteOneLinePerWebsiteAcrossBatches() throws Exception {
+        // Arrange
+        when(websiteRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+            .thenReturn(summaries(1, 1000));
+        when(websiteRepository.findByIdGreaterThanOrderByIdAsc(eq(1000L), any()))
+            .thenReturn(summaries(1001, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        registryService.exportWebsites(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1001, lines.length);
+        assertEquals(1001L, objectMapper.readTree(lines[1000]).get("id").asLong());
+        assertFalse(lines[0].contains("credentials"));
+    }
+
+    private WebsiteRegistryService newInstance() {
+        WebsiteCache cache = new WebsiteCache(sharedBackend, objectMapper, new RegistryCacheProperties(),
+            new SimpleMeterRegistry());
+        return new WebsiteRegistryService(websiteRepository, changeRepository, versionCounter, cache, objectMapper);
+    }
+
+    private static List<WebsiteSummary> summaries(long firstId, int count) {
+        List<WebsiteSummary> summaries = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            Website website = website(id, "https://" + id + ".example.com");
+            website.setCredentials("secret");
+            summaries.add(PROJECTIONS.createProjection(WebsiteSummary.class, website));
+        }
+        return summaries;
+    }
+
+    private static WebsiteChange change(long version, long websiteId, ChangeType type) {
+        return new WebsiteChange(version, websiteId, type, LocalDateTime.now());
+    }
+
+    private static Website website(Long id, String url) {
+        Website website = new Website();
+        website.setId(id);
+        website.setName("Site " + id);
+        website.setUrl(url);
+        website.setMonitoringInterval(60);
+        website.setActive(true);
+        return website;
+    }
+
+    private static Website copy(Website source) {
+        return website(source.getId(), source.getUrl());
+    }
+}
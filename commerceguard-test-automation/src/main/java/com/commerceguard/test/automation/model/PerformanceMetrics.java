@@ -0,0 +1,16 @@
+package com.commerceguard.test.automation.model;
+
+import com.commerceguard.common.timing.PageTiming;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PerformanceMetrics {
+    private String url;
+    /** Time {@code driver.get} blocked, in milliseconds. */
+    private long pageLoadTime;
+    private long timestamp;
+    /** Browser-reported phase breakdown; {@code null} if the browser could not report it. */
+    private PageTiming timing;
+}
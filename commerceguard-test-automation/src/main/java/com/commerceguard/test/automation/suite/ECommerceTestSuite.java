@@ -1,5 +1,9 @@
 package com.commerceguard.test.automation.suite;
 
+import com.commerceguard.common.concurrent.ExecutionMode;
+import com.commerceguard.common.concurrent.TaskExecutors;
+import com.commerceguard.common.timing.PageTiming;
+import com.commerceguard.common.timing.PageTimingScript;
 import com.commerceguard.test.automation.model.TestCase;
 import com.commerceguard.test.automation.model.TestResult;
 import com.commerceguard.test.automation.model.PerformanceMetrics;
@@ -7,7 +11,9 @@ import com.commerceguard.test.automation.model.ComparisonResult;
 import com.commerceguard.test.automation.driver.BrowserType;
 import com.commerceguard.test.automation.driver.DriverFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.yandex.qatools.ashot.AShot;
 import ru.yandex.qatools.ashot.Screenshot;
@@ -20,18 +26,26 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class ECommerceTestSuite {
     
-    private final ExecutorService testExecutor = Executors.newFixedThreadPool(10);
+    private final ExecutorService testExecutor;
+    private final Semaphore browserPermits;
     private final DriverFactory driverFactory;
 
-    public ECommerceTestSuite(DriverFactory driverFactory) {
+    public ECommerceTestSuite(
+            DriverFactory driverFactory,
+            @Value("${commerceguard.execution.mode:PLATFORM}") ExecutionMode executionMode,
+            @Value("${commerceguard.test.max-browsers:10}") int maxBrowsers) {
         this.driverFactory = driverFactory;
+        this.testExecutor = TaskExecutors.newTaskExecutor(executionMode, "test-executor", maxBrowsers);
+        // Each test owns a whole browser, so that is what bounds concurrency in VIRTUAL mode.
+        this.browserPermits = new Semaphore(maxBrowsers, true);
     }
 
     public List<TestResult> runParallelTests(List<TestCase> testCases) {
@@ -47,10 +61,16 @@ public class ECommerceTestSuite {
     private CompletableFuture<TestResult> executeTestAsync(TestCase testCase) {
         return CompletableFuture.supplyAsync(() -> {
             WebDriver driver = null;
+            boolean permitted = false;
             try {
+                browserPermits.acquire();
+                permitted = true;
                 driver = driverFactory.createDriver(testCase.getBrowserType());
                 return executeTest(driver, testCase);
             } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
                 log.error("Error executing test: " + testCase.getName(), e);
                 return TestResult.builder()
                     .testCase(testCase)
@@ -61,6 +81,9 @@ public class ECommerceTestSuite {
                 if (driver != null) {
                     driver.quit();
                 }
+                if (permitted) {
+                    browserPermits.release();
+                }
             }
         }, testExecutor);
     }
@@ -97,14 +120,15 @@ public class ECommerceTestSuite {
         WebDriver driver = null;
         try {
             driver = driverFactory.createDriver(BrowserType.CHROME);
-            long startTime = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
             driver.get(url);
-            long loadTime = System.currentTimeMillis() - startTime;
+            long loadTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
 
             return PerformanceMetrics.builder()
                 .url(url)
                 .pageLoadTime(loadTime)
                 .timestamp(System.currentTimeMillis())
+                .timing(collectTiming(driver, url))
                 .build();
         } finally {
             if (driver != null) {
@@ -138,6 +162,18 @@ public class ECommerceTestSuite {
         }
     }
 
+    private PageTiming collectTiming(WebDriver driver, String url) {
+        if (!(driver instanceof JavascriptExecutor executor)) {
+            return null;
+        }
+        try {
+            return PageTimingScript.parse(executor.executeAsyncScript(PageTimingScript.SCRIPT));
+        } catch (Exception e) {
+            log.warn("Could not collect page timing for {}", url, e);
+            return null;
+        }
+    }
+
     private TestResult executeTest(WebDriver driver, TestCase testCase) {
         long startTime = System.currentTimeMillis();
         